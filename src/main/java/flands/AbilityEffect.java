@@ -6,6 +6,8 @@ import javax.swing.text.AttributeSet;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An object to handle an effect on one of the character's abilities.
  * @author Jonathan Mann
@@ -25,7 +27,7 @@ public class AbilityEffect extends Effect {
 		e.ability = ability;
 		e.modifyType = ADJUST_ABILITY;
 		e.modifier = bonus;
-		System.out.println("AbilityEffect: ability=" + ability + ",bonus=" + bonus);
+		Log.debug(Category.ADVENTURER, () -> "AbilityEffect: ability=" + ability + ",bonus=" + bonus);
 		return e;
 	}
 	static AbilityEffect createAbilityDivider(int ability, int divideBy) {
@@ -33,7 +35,7 @@ public class AbilityEffect extends Effect {
 		e.ability = ability;
 		e.modifyType = DIVIDE_ABILITY;
 		e.modifier = divideBy;
-		System.out.println("AbilityEffect: ability=" + ability + ",divideBy=" + divideBy);
+		Log.debug(Category.ADVENTURER, () -> "AbilityEffect: ability=" + ability + ",divideBy=" + divideBy);
 		return e;
 	}
 	static AbilityEffect createAbilityTarget(int ability, int target) {
@@ -53,6 +55,7 @@ public class AbilityEffect extends Effect {
 	 */
 	void adjustValue(int delta) {
 		modifier += delta;
+		EffectSet.itemChanged();
 	}
 
 	int adjustAbility(int value) {
@@ -74,13 +77,15 @@ public class AbilityEffect extends Effect {
 		if (cumulative) {
 			if (e == this) {
 				multiplier++;
+				EffectSet.itemChanged();
 				return;
 			}
 			else if (e instanceof AbilityEffect) {
 				AbilityEffect ae = (AbilityEffect)e;
 				if (ae.ability == ability && modifyType == ADJUST_ABILITY && ae.modifyType == ADJUST_ABILITY) {
 					modifier += ae.modifier;
-					System.out.println("Modifier is now " + modifier + ",multiplier " + multiplier);
+					EffectSet.itemChanged();
+					Log.debug(Category.ADVENTURER, () -> "Modifier is now " + modifier + ",multiplier " + multiplier);
 					return;
 				}
 			}
@@ -1,6 +1,9 @@
 package flands;
 
 import java.io.InputStream;
+import java.util.Objects;
+
+import flands.Log.Category;
 
 /**
  * Convenient encapsulation of a unique address, being a book and a section.
@@ -8,8 +11,6 @@ import java.io.InputStream;
  * @author Jonathan Mann
  */
 public class Address {
-	private static String currentBookKey;
-
 	public final String book;
 
 	public final String section;
@@ -20,7 +21,7 @@ public class Address {
 
 	/** Returns the key of the current book. */
 	static String getCurrentBookKey() {
-		return currentBookKey;
+		return GameSession.getCurrent().currentBookKey;
 	}
 
 	/**
@@ -30,8 +31,13 @@ public class Address {
 	 * @return <code>true</code> if the book has changed.
 	 */
 	static boolean setCurrentBookKey(String book) {
+		GameSession session = GameSession.getCurrent();
+		String currentBookKey = session.currentBookKey;
 		if (currentBookKey == null || !currentBookKey.equals(book)) {
-			currentBookKey = book;
+			if (currentBookKey != null)
+				// Don't hold the previous book's files open
+				Books.getCanon().getBook(currentBookKey).closeArchives();
+			session.currentBookKey = book;
 			return true;
 		} else
 			return false;
@@ -47,7 +53,20 @@ public class Address {
 	}
 
 	public String getBook() {
-		return (book == null ? currentBookKey : book);
+		return (book == null ? getCurrentBookKey() : book);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Address))
+			return false;
+		Address a = (Address)o;
+		return Objects.equals(book, a.book) && Objects.equals(section, a.section);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(book, section);
 	}
 
 	public String toString() {
@@ -69,7 +88,7 @@ public class Address {
 	public InputStream getStream() {
 		Books.BookDetails details = Books.getCanon().getBook(getBook());
 		if (details == null) {
-			System.out.println("Address.getStream(): couldn't find book "
+			Log.debug(Category.GAME, () -> "Address.getStream(): couldn't find book "
 					+ book);
 			return null;
 		}
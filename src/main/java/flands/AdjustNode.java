@@ -7,6 +7,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Behaving something like an IfNode, an AdjustNode adjusts the 'value'
  * (whatever that may be) of the parent Node if its conditions are met.
@@ -40,7 +42,7 @@ public class AdjustNode extends Node {
 		if (valueStr == null)
 			valueStr = atts.getValue("amount");
 		if (atts.getLength() == 1) {
-			System.out.println("AdjustNode: 1 attribute (assume it's value)");
+			Log.debug(Category.EXECUTION, "AdjustNode: 1 attribute (assume it's value)");
 			automatic = true;
 		}
 		god = atts.getValue("god");
@@ -118,7 +120,7 @@ public class AdjustNode extends Node {
 				if (val > i)
 					return true;
 			}
-			catch (NumberFormatException nfe) { System.out.println("greaterthan attribute should have an integer value: " + nfe); }
+			catch (NumberFormatException nfe) { Log.debug(Category.EXECUTION, () -> "greaterthan attribute should have an integer value: " + nfe); }
 		}
 		if (lessThan != null) {
 			try {
@@ -126,7 +128,7 @@ public class AdjustNode extends Node {
 				if (val < i)
 					return true;
 			}
-			catch (NumberFormatException nfe) { System.out.println("lessthan attribute should have an integer value: " + nfe); }
+			catch (NumberFormatException nfe) { Log.debug(Category.EXECUTION, () -> "lessthan attribute should have an integer value: " + nfe); }
 		}
 		return false;
 	}
@@ -147,7 +149,7 @@ public class AdjustNode extends Node {
 		if (ship >= 0 || crew >= 0) {
 			int shipIndex = getShips().getSingleShip();
 			if (shipIndex < 0)
-				System.out.println("AdjustNode: couldn't find single ship to adjust by!");
+				Log.debug(Category.EXECUTION, "AdjustNode: couldn't find single ship to adjust by!");
 			else {
 				Ship s = getShips().getShip(shipIndex);
 				if (ship >= 0 && s.getType() == ship)
@@ -159,7 +161,7 @@ public class AdjustNode extends Node {
 		if (ability >= 0) {
 			if (lessThan == null && greaterThan == null) {
 				int score = getAdventurer().getAbilityValue(ability, abilityModifier, Adventurer.PURPOSE_VALUE);
-				System.out.println("Ability score=" + score);
+				Log.debug(Category.EXECUTION, () -> "Ability score=" + score);
 				value = score;
 				return true;
 			}
@@ -172,7 +174,7 @@ public class AdjustNode extends Node {
 		if (name != null) {
 			int nameValue = getCodewords().getValue(name);
 			if (lessThan == null && greaterThan == null) {
-				System.out.println("FieldNode value=" + nameValue);
+				Log.debug(Category.EXECUTION, () -> "FieldNode value=" + nameValue);
 				value = nameValue;
 				return true;
 			}
@@ -15,7 +15,6 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Properties;
 import java.util.StringTokenizer;
-import java.util.regex.Pattern;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -30,12 +29,13 @@ import javax.swing.text.Position;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
-import javax.xml.parsers.SAXParser;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
+import flands.Log.Category;
+
 /**
  * Handles the character being played: abilities, gods, titles, money and resurrections,
  * as well as the visible Documents connected with each of these.
@@ -194,7 +194,7 @@ public class Adventurer implements Loadable {
 				return rank;
 		}
 
-		System.out.println("getAbility(" + abilityType + "): error!");
+		Log.debug(Category.ADVENTURER, () -> "getAbility(" + abilityType + "): error!");
 		return null;
 	}
 
@@ -313,7 +313,7 @@ public class Adventurer implements Loadable {
 	}
 
 	void raiseAbility(int abilityType) {
-		System.out.println("Raising ability " + abilityType);
+		Log.debug(Category.ADVENTURER, () -> "Raising ability " + abilityType);
 		adjustAbility(abilityType, 1);
 	}
 
@@ -389,15 +389,16 @@ public class Adventurer implements Loadable {
 		else if (!attrVal.contains("|")) {
 			result = new int[] { getAbilityType(attrVal) };
 			if (result[0] < 0)
-				System.out.println("Adventurer: unrecognised ability name: " + attrVal);
+				Log.debug(Category.ADVENTURER, () -> "Adventurer: unrecognised ability name: " + attrVal);
 		}
 		else {
 			String[] vals = attrVal.split("\\|");
 			result = new int[vals.length];
 			for (int a = 0; a < vals.length; a++) {
-				result[a] = Adventurer.getAbilityType(vals[a]);
+				String name = vals[a];
+				result[a] = Adventurer.getAbilityType(name);
 				if (result[a] < 0)
-					System.out.println("RatingExperience: unrecognised ability name: " + vals[a]);
+					Log.debug(Category.ADVENTURER, () -> "RatingExperience: unrecognised ability name: " + name);
 			}
 		}
 		return result;
@@ -455,11 +456,7 @@ public class Adventurer implements Loadable {
 			if (god.equals("")) return false;
 			god = god.toLowerCase();
 			for (String compat : compatible) {
-				if (compat.indexOf('?') >= 0 || compat.indexOf('*') >= 0) {
-					Pattern godPattern = FLApp.createNamePattern(compat);
-					if (godPattern.matcher(god).matches())
-						return true;
-				} else if (compat.equals(god))
+				if (NameMatcher.get(compat).matches(god))
 					return true;
 			}
 			return false;
@@ -612,7 +609,7 @@ public class Adventurer implements Loadable {
 	private void updateGodDocument() {
 		if (godDoc != null) {
 			try {
-				System.out.println("Updating God document");
+				Log.debug(Category.ADVENTURER, "Updating God document");
 				SimpleAttributeSet atts = null;
 				/* Appears not to work - no Attributes in text-fields?
 				if (godless) {
@@ -787,8 +784,8 @@ public class Adventurer implements Loadable {
 	 */
 	boolean validateHardcore(long time) {
 		if (hardcore) {
-			System.out.println("File timestamp: " + time);
-			System.out.println("Hardcore stamp: " + hardcoreTime);
+			Log.debug(Category.ADVENTURER, () -> "File timestamp: " + time);
+			Log.debug(Category.ADVENTURER, () -> "Hardcore stamp: " + hardcoreTime);
 			long diff = Math.abs(time - hardcoreTime);
 			if (diff > 100) {
 				hardcore = false;
@@ -937,12 +934,12 @@ public class Adventurer implements Loadable {
 				return stat.natural;
 			case MODIFIER_CURRENT:
 				if (ability == ABILITY_STAMINA) {
-					System.out.println("Current stamina value=" + stamina.current);
+					Log.debug(Category.ADVENTURER, () -> "Current stamina value=" + stamina.current);
 					return ((StaminaStat)stat).current;
 				}
 				// Fall-through intentional
 			case MODIFIER_AFFECTED:
-				System.out.println("Affected ability value=" + stat.affected);
+				Log.debug(Category.ADVENTURER, () -> "Affected ability value=" + stat.affected);
 				return stat.affected;
 		}
 		return getEffects().adjustAbility(ability, stat.natural, modifier);
@@ -965,7 +962,7 @@ public class Adventurer implements Loadable {
 
 
 	void checkAbilityBonus(int ability) {
-		System.out.println("Adventurer.checkAbilityBonus(" + ability + ")");
+		Log.debug(Category.ADVENTURER, () -> "Adventurer.checkAbilityBonus(" + ability + ")");
 		Stat affectedStat = null;
 		switch (ability) {
 			case ABILITY_CHARISMA:
@@ -1067,7 +1064,7 @@ public class Adventurer implements Loadable {
 			String[] files = currentDir.list();
 			for (String file : files) {
 				if (new File(file).isDirectory()) {
-					System.out.println("Attempting to load from sub-directory: " + file);
+					Log.debug(Category.ADVENTURER, () -> "Attempting to load from sub-directory: " + file);
 					try {
 						FileInputStream in = new FileInputStream(file + File.separator + adventurerFileName);
 						Adventurer adv = load(in);
@@ -1190,7 +1187,8 @@ public class Adventurer implements Loadable {
 				difficultyRollDice = Integer.parseInt(val);
 
 			val = charProps.getProperty("Hardcore");
-			System.out.println("Hardcore val=" + val);
+			String hardcoreVal = val;
+			Log.debug(Category.ADVENTURER, () -> "Hardcore val=" + hardcoreVal);
 			if (val == null)
 				hardcore = false;
 			else {
@@ -1295,18 +1293,17 @@ public class Adventurer implements Loadable {
 		try {
 			InputStream in = book.getInputStream(startingAdventurersFileName);
 			if (in == null) {
-				System.out.println("Couldn't find starting adventurer's file: "
+				Log.debug(Category.ADVENTURER, () -> "Couldn't find starting adventurer's file: "
 						+ startingAdventurersFileName);
 				return null;
 			}
 
-			SAXParser parser = FLApp.createSAXParser();
 			Adventurer[] result = new Adventurer[PROF_COUNT];
-			parser.parse(in, new Handler(result));
+			ParserPool.parse(in, new Handler(result));
 			return result;
 		}
 		catch (SAXException se) {
-			System.out.println("Error creating reader: " + se);
+			Log.debug(Category.ADVENTURER, () -> "Error creating reader: " + se);
 		}
 		catch (IOException ioe) {
 			System.err.println("Parsing error: " + ioe);
@@ -1341,13 +1338,13 @@ public class Adventurer implements Loadable {
 				switch (tagName) {
 				case "header":
 					if (!getCurrentTag().equals("abilities"))
-						System.out.println("Got <header> when parent is not <abilities>");
+						Log.debug(Category.ADVENTURER, "Got <header> when parent is not <abilities>");
 					break;
 				case "profession":
 					if (getCurrentTag().equals("abilities"))
 						currentProf = getProfessionType(atts.getValue("name"));
 					else
-						System.out.println("Got <profession> when parent is not <abilities>");
+						Log.debug(Category.ADVENTURER, "Got <profession> when parent is not <abilities>");
 					break;
 				case "stamina": {
 					int amount = Integer.parseInt(atts.getValue("amount"));
@@ -1370,13 +1367,13 @@ public class Adventurer implements Loadable {
 					break;
 				}
 				case "items":
-					System.out.println("Items element: throw to item parsing code");
+					Log.debug(Category.ADVENTURER, "Items element: throw to item parsing code");
 					break;
 				case "starting":
 					break;
 				case "adventurer":
 					if (!getCurrentTag().equals("starting"))
-						System.out.println("Hey, this tag should be inside the <starting> element!  grumble...");
+						Log.debug(Category.ADVENTURER, "Hey, this tag should be inside the <starting> element!  grumble...");
 					currentProf = getProfessionType(atts.getValue("profession"));
 					if (currentProf >= 0) {
 						advs[currentProf].fullName = atts.getValue("name");
@@ -1428,7 +1425,7 @@ public class Adventurer implements Loadable {
 				currentProf = -1;
 				break;
 			case "items":
-				System.out.println("Items element: return from item parsing code");
+				Log.debug(Category.ADVENTURER, "Items element: return from item parsing code");
 				break;
 			case "adventurer":
 				if (currentProf >= 0)
@@ -1460,16 +1457,17 @@ public class Adventurer implements Loadable {
 				abilityIndices = new int[ABILITY_COUNT];
 				String[] names = content.trim().split(" ");
 				for (int a = 0; a < names.length; a++) {
-					abilityIndices[a] = getAbilityType(names[a]);
+					String name = names[a];
+					abilityIndices[a] = getAbilityType(name);
 					if (abilityIndices[a] < 0)
-						System.out.println("Unrecognised ability name: " + names[a]);
+						Log.debug(Category.ADVENTURER, () -> "Unrecognised ability name: " + name);
 				}
 			}
 			else if (getCurrentTag().equals("profession")) {
 				if (abilityIndices == null)
-					System.out.println("There's no ability header here!");
+					Log.debug(Category.ADVENTURER, "There's no ability header here!");
 				else if (currentProf < 0)
-					System.out.println("No profession set!");
+					Log.debug(Category.ADVENTURER, "No profession set!");
 				else {
 					try {
 						String[] values = content.trim().split(" ");
@@ -1477,7 +1475,7 @@ public class Adventurer implements Loadable {
 							advs[currentProf].abilities[abilityIndices[a]].natural = Integer.parseInt(values[a]);
 					}
 					catch (NumberFormatException nfe) {
-						System.out.println("Expected ability score, got: " + nfe);
+						Log.debug(Category.ADVENTURER, () -> "Expected ability score, got: " + nfe);
 					}
 				}
 			}
@@ -1816,13 +1814,14 @@ public class Adventurer implements Loadable {
 					int startOffset = getLength();
 					addContent(contents[i].text);
 					children[i] = createLeafElement(parentElement, contents[i].atts, startOffset, getLength());
-					System.out.println("Added content element, start=" + startOffset + ",end=" + getLength() + " to handle text=\"" + contents[i] + "\"");
+					if (Log.isDebug(Category.ADVENTURER))
+						Log.debug(Category.ADVENTURER, "Added content element, start=" + startOffset + ",end=" + getLength() + " to handle text=\"" + contents[i] + "\"");
 				}
 				branch.replace(branch.getElementCount(), 0, children);
 				return children;
 			}
 			else {
-				System.out.println("Can't add children to leaf: " + parentElement);
+				Log.debug(Category.ADVENTURER, () -> "Can't add children to leaf: " + parentElement);
 				return null;
 			}
 		}
@@ -32,6 +32,8 @@ import javax.swing.ToolTipManager;
 import javax.swing.border.EmptyBorder;
 import javax.swing.text.StyledDocument;
 
+import flands.Log.Category;
+
 /**
  * Displays all the character's attributes. The Documents being displayed will
  * automatically refresh when Adventurer updates their contents.
@@ -94,7 +96,7 @@ public class AdventurerFrame extends JDialog implements ItemListener, MouseListe
 		}
 
 		public JToolTip createToolTip() {
-			System.out.println("AbilityPane.createToolTip called");
+			Log.debug(Category.GUI, "AbilityPane.createToolTip called");
 			JToolTip tip = super.createToolTip();
 			tip.setFont(SectionDocument.getPreferredFont());
 			return tip;
@@ -19,6 +19,8 @@ import javax.swing.JOptionPane;
 import javax.swing.JPopupMenu;
 import javax.swing.text.StyledDocument;
 
+import flands.Log.Category;
+
 /**
  * List of all blessings on the character. Contains extra methods to deal with
  * the set of blessings, like matching a blessing type for removal, or activating
@@ -51,7 +53,7 @@ public class BlessingList extends AbstractListModel<StyledDocument> implements L
 			index = -1;
 		}
 		if (index < 0) {
-			System.out.println("Adding Blessing " + b.getContentString());
+			Log.debug(Category.ADVENTURER, () -> "Adding Blessing " + b.getContentString());
 			list.add(b);
 			fireIntervalAdded(this, getSize() - 1, getSize() - 1);
 		}
@@ -65,7 +67,7 @@ public class BlessingList extends AbstractListModel<StyledDocument> implements L
 	}
 
 	boolean removeBlessing(Blessing b) {
-		System.out.println("Removing Blessing " + b.getContentString());
+		Log.debug(Category.ADVENTURER, () -> "Removing Blessing " + b.getContentString());
 		if (getSize() == 0) return true; // TODO: there may be cases where we should complain here
 		if (b.getType() == Blessing.MATCHALL_TYPE) {
 			removeAllBlessings(b.isPermanent());
@@ -85,7 +87,7 @@ public class BlessingList extends AbstractListModel<StyledDocument> implements L
 				index = selected[0];
 			}
 			else {
-				System.out.println("Error: no blessing list configured");
+				Log.debug(Category.ADVENTURER, "Error: no blessing list configured");
 				return true; // fail-safe
 			}
 		}
@@ -0,0 +1,110 @@
+package flands;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import flands.Log.Category;
+
+/**
+ * Remembers what was found out about each book last time (whether it's there,
+ * its range of sections, its official codewords), so that starting up doesn't
+ * mean opening every book. Each book's entries are stored with a stamp of the
+ * sizes and modification times of its paths; if the stamp no longer matches,
+ * the entries are ignored and worked out again.
+ */
+final class BookManifest {
+	private static final String ManifestFile = "books.cache";
+
+	private static Properties props = null;
+	private static boolean dirty = false;
+
+	private BookManifest() {}
+
+	/**
+	 * Work out the stamp for a set of book paths. This only looks at the
+	 * file system entries, so is cheap compared to opening the book.
+	 */
+	static String stamp(String[] paths) {
+		StringBuilder sb = new StringBuilder();
+		for (String path : paths) {
+			if (sb.length() > 0)
+				sb.append(',');
+			sb.append(path);
+			if (path == null)
+				continue;
+			File f = new File(path);
+			sb.append('@').append(f.length()).append(':').append(f.lastModified());
+			if (f.isDirectory()) {
+				// Editing book.ini in place doesn't touch the directory
+				sb.append(':').append(new File(f, "book.ini").lastModified());
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void load() {
+		if (props != null)
+			return;
+		props = new Properties();
+		try (InputStream in = new FileInputStream(ManifestFile)) {
+			props.load(in);
+		}
+		catch (FileNotFoundException e) {
+			// OK, nothing cached yet
+		}
+		catch (IOException e) {
+			Log.warning(Category.GAME, "Error in reading book manifest " + ManifestFile + ": " + e);
+		}
+	}
+
+	/**
+	 * Get a cached value for a book.
+	 * @param stamp the current stamp of the book's paths.
+	 * @return the value, or <code>null</code> if it isn't known or is out of date.
+	 */
+	static synchronized String get(String key, String stamp, String field) {
+		if (stamp.length() == 0)
+			return null;
+		load();
+		if (!stamp.equals(props.getProperty(key + ".Stamp")))
+			return null;
+		return props.getProperty(key + "." + field);
+	}
+
+	/**
+	 * Cache a value for a book. Any values held for an older stamp are dropped.
+	 * Nothing is written until {@link #save()} is called. A book with no paths
+	 * isn't worth caching.
+	 */
+	static synchronized void put(String key, String stamp, String field, String value) {
+		if (stamp.length() == 0)
+			return;
+		load();
+		if (!stamp.equals(props.getProperty(key + ".Stamp"))) {
+			String prefix = key + ".";
+			props.keySet().removeIf(k -> ((String)k).startsWith(prefix));
+			props.setProperty(prefix + "Stamp", stamp);
+		}
+		props.setProperty(key + "." + field, value);
+		dirty = true;
+	}
+
+	/** Write the manifest, if anything has changed. */
+	static synchronized void save() {
+		if (!dirty)
+			return;
+		try (OutputStream out = new FileOutputStream(ManifestFile)) {
+			props.store(out, "Cached book details; this file can safely be deleted");
+			dirty = false;
+		}
+		catch (IOException e) {
+			Log.warning(Category.GAME, "Error in writing book manifest " + ManifestFile + ": " + e);
+		}
+	}
+}
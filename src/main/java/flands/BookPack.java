@@ -0,0 +1,191 @@
+package flands;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A book packed into a single file, which is memory-mapped rather than read.
+ * Finding a file in the pack is a lookup in an index held in memory, and reading
+ * it goes straight from the mapped file, with no inflating or copying.
+ * <p>
+ * The format is: the {@link #Magic} bytes; the number of entries; for each entry, its
+ * name (its length in UTF-8 bytes as a short, then the bytes), offset and length; then
+ * the contents of every entry, one after another. Offsets are from the start of the file.
+ * Packs are made by {@link BookPacker}.
+ */
+final class BookPack {
+	/** The extension that marks a book path as a pack. */
+	static final String Extension = ".pack";
+	private static final byte[] Magic = { 'J', 'a', 'F', 'L', 'p', 'a', 'c', 'k' };
+	private static final int Version = 1;
+	/** The fewest bytes an entry can take in the index: an empty name, offset and length. */
+	private static final int MinEntrySize = 2 + 4 + 4;
+
+	private static final Map<String,BookPack> openPacks = new HashMap<>();
+
+	private final MappedByteBuffer buffer;
+	private final Map<String,Integer> index;
+	private final int[] offsets;
+	private final int[] lengths;
+
+	private BookPack(String path) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		try {
+			for (byte b : Magic)
+				if (buffer.get() != b)
+					throw new IOException("Not a book pack: " + path);
+			if (buffer.getInt() != Version)
+				throw new IOException("Unknown book pack version: " + path);
+			int count = buffer.getInt();
+			// Check the count before making arrays of that size
+			if (count < 0 || count > buffer.remaining() / MinEntrySize)
+				throw new IOException("Bad entry count in book pack: " + path);
+			index = new HashMap<>(count * 2);
+			offsets = new int[count];
+			lengths = new int[count];
+			for (int e = 0; e < count; e++) {
+				byte[] name = new byte[buffer.getShort() & 0xffff];
+				buffer.get(name);
+				index.put(new String(name, StandardCharsets.UTF_8), e);
+				offsets[e] = buffer.getInt();
+				lengths[e] = buffer.getInt();
+				if (offsets[e] < 0 || lengths[e] < 0 || (long)offsets[e] + lengths[e] > buffer.capacity())
+					throw new IOException("Bad entry in book pack: " + path);
+			}
+		}
+		catch (RuntimeException e) {
+			// Buffer underflow, negative array size and so on
+			throw new IOException("Bad book pack: " + path, e);
+		}
+	}
+
+	/**
+	 * Get the pack at the given path, mapping it if it hasn't been already.
+	 * @throws IOException if the file couldn't be read as a book pack.
+	 */
+	static synchronized BookPack open(String path) throws IOException {
+		BookPack pack = openPacks.get(path);
+		if (pack == null) {
+			pack = new BookPack(path);
+			openPacks.put(path, pack);
+		}
+		return pack;
+	}
+
+	static boolean isPackPath(String path) {
+		return path.toLowerCase().endsWith(Extension);
+	}
+
+	boolean contains(String name) {
+		return index.containsKey(name);
+	}
+
+	Collection<String> getNames() {
+		return Collections.unmodifiableCollection(index.keySet());
+	}
+
+	/**
+	 * Get the contents of a file in the pack, as a view of the mapped file.
+	 * @return the buffer, or <code>null</code> if there is no such file.
+	 */
+	ByteBuffer getBuffer(String name) {
+		Integer e = index.get(name);
+		if (e == null)
+			return null;
+		ByteBuffer slice = buffer.duplicate();
+		slice.position(offsets[e]).limit(offsets[e] + lengths[e]);
+		return slice.slice();
+	}
+
+	/**
+	 * Get a stream reading a file in the pack.
+	 * @return the stream, or <code>null</code> if there is no such file.
+	 */
+	InputStream getInputStream(String name) {
+		ByteBuffer slice = getBuffer(name);
+		return (slice == null ? null : new BufferInputStream(slice));
+	}
+
+	/**
+	 * Write a pack file.
+	 * @param files the name and contents of each file to go in the pack.
+	 */
+	static void write(File file, Map<String,byte[]> files) throws IOException {
+		// Work out the header size first, so the offsets can be written in it
+		int headerSize = Magic.length + 8;
+		for (String name : files.keySet())
+			headerSize += 2 + name.getBytes(StandardCharsets.UTF_8).length + 8;
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.write(Magic);
+			out.writeInt(Version);
+			out.writeInt(files.size());
+			long offset = headerSize;
+			for (Map.Entry<String,byte[]> e : files.entrySet()) {
+				if (offset + e.getValue().length > Integer.MAX_VALUE)
+					throw new IOException("Book is too large to pack");
+				byte[] name = e.getKey().getBytes(StandardCharsets.UTF_8);
+				out.writeShort(name.length);
+				out.write(name);
+				out.writeInt((int)offset);
+				out.writeInt(e.getValue().length);
+				offset += e.getValue().length;
+			}
+			for (byte[] contents : files.values())
+				out.write(contents);
+		}
+	}
+
+	/** An InputStream reading from a ByteBuffer. */
+	private static class BufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		BufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return (buffer.hasRemaining() ? buffer.get() & 0xff : -1);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0)
+				return 0;
+			if (!buffer.hasRemaining())
+				return -1;
+			len = Math.min(len, buffer.remaining());
+			buffer.get(b, off, len);
+			return len;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int)Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package flands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Command-line tool that converts a book directory or zip-file (or several,
+ * such as a book and its illustrations) into a single {@link BookPack}.
+ * Where more than one source has a file of the same name, the first one wins,
+ * as it does when a book has several paths in books.ini.
+ * <p>
+ * Usage: <code>java flands.BookPacker output.pack source...</code>
+ */
+public class BookPacker {
+	private final Map<String,byte[]> files = new TreeMap<>();
+
+	private void addDirectory(File dir, String prefix) throws IOException {
+		File[] contents = dir.listFiles();
+		if (contents == null)
+			throw new IOException("Couldn't list directory " + dir);
+		for (File f : contents) {
+			String name = prefix + f.getName();
+			if (f.isDirectory())
+				addDirectory(f, name + "/");
+			else if (!files.containsKey(name))
+				files.put(name, Files.readAllBytes(f.toPath()));
+		}
+	}
+
+	private void addZip(File zip) throws IOException {
+		try (ZipFile zf = new ZipFile(zip)) {
+			for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements(); ) {
+				ZipEntry entry = e.nextElement();
+				if (entry.isDirectory() || files.containsKey(entry.getName()))
+					continue;
+				try (InputStream in = zf.getInputStream(entry)) {
+					files.put(entry.getName(), in.readAllBytes());
+				}
+			}
+		}
+	}
+
+	void add(File source) throws IOException {
+		if (source.isDirectory())
+			addDirectory(source, "");
+		else
+			addZip(source);
+	}
+
+	void write(File output) throws IOException {
+		BookPack.write(output, files);
+	}
+
+	public static void main(String args[]) {
+		if (args.length < 2) {
+			System.err.println("Usage: BookPacker <output" + BookPack.Extension + "> <book directory or zip>...");
+			System.exit(1);
+		}
+
+		File output = new File(args[0]);
+		BookPacker packer = new BookPacker();
+		try {
+			for (int a = 1; a < args.length; a++)
+				packer.add(new File(args[a]));
+			packer.write(output);
+			System.out.println("Wrote " + packer.files.size() + " files to " + output);
+		}
+		catch (IOException e) {
+			System.err.println("Couldn't pack book: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+}
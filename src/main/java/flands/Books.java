@@ -11,17 +11,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.Vector;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.AbstractListModel;
 
+import flands.Log.Category;
+
 /*
  * Tracks the available books. The application goes looking for the appropriate
  * zips or directories (based on books.ini).
@@ -37,12 +41,15 @@ public class Books {
 		private static final int MISSING_TYPE = -1;
 		private static final int DIR_TYPE = 0;
 		private static final int ZIP_TYPE = 1;
+		private static final int PACK_TYPE = 2;
 
-		private int[] pathTypes;
+		private volatile int[] pathTypes = null;
 		private String[] paths;
 
 		private String key;
 		private String title;
+		private String stamp = null;
+		private Boolean hasBook = null;
 		private boolean foundSectionRange = false;
 		private int lowestSection, highestSection;
 		private Properties bookProps = null;
@@ -60,44 +67,6 @@ public class Books {
 				paths = path.split(",");
 			else
 				paths = new String[0];
-			pathTypes = new int[paths.length];
-
-			boolean gotAnyPath = false;
-			for (int p = 0; p < paths.length; p++) {
-				if (paths[p] == null) {
-					pathTypes[p] = MISSING_TYPE;
-					System.err.println("Book " + toString() + " has no path");
-				}
-				else {
-					File f = new File(paths[p]);
-					if (f.exists())
-					{
-						if (f.isDirectory())
-							pathTypes[p] = DIR_TYPE;
-						else
-						{
-							try (final var ignored = new ZipFile(paths[p])) {
-								pathTypes[p] = ZIP_TYPE;
-							}
-							catch (IOException e) {
-								System.err.println("Couldn't open zip-file " + paths[p]);
-								pathTypes[p] = ERROR_TYPE;
-							}
-						}
-					}
-					else
-						pathTypes[p] = MISSING_TYPE;
-				}
-
-				if (pathTypes[p] >= 0)
-					gotAnyPath = true;
-			}
-
-			if (gotAnyPath) {
-				if (!fileExists(BOOK_CONFIG_FILE))
-					System.err.println("Couldn't find book.ini file for book " + key);
-			}
-
 			/*
 			if (path == null) {
 				pathType = MISSING_TYPE;
@@ -131,17 +100,78 @@ public class Books {
 			*/
 		}
 
+		/**
+		 * Find out what each of the book's paths is, opening any zip-files and packs
+		 * to check them. This is put off until something is first read from the book.
+		 */
+		private synchronized int[] getPathTypes() {
+			if (pathTypes == null) {
+				int[] types = new int[paths.length];
+
+				boolean gotAnyPath = false;
+				for (int p = 0; p < paths.length; p++) {
+					if (paths[p] == null) {
+						types[p] = MISSING_TYPE;
+						System.err.println("Book " + toString() + " has no path");
+					}
+					else {
+						File f = new File(paths[p]);
+						if (f.exists())
+						{
+							if (f.isDirectory())
+								types[p] = DIR_TYPE;
+							else if (BookPack.isPackPath(paths[p]))
+							{
+								try {
+									BookPack.open(paths[p]);
+									types[p] = PACK_TYPE;
+								}
+								catch (IOException e) {
+									System.err.println("Couldn't open book pack " + paths[p] + ": " + e.getMessage());
+									types[p] = ERROR_TYPE;
+								}
+							}
+							else
+							{
+								try {
+									ZipArchives.validate(paths[p]);
+									types[p] = ZIP_TYPE;
+								}
+								catch (IOException e) {
+									System.err.println("Couldn't open zip-file " + paths[p]);
+									types[p] = ERROR_TYPE;
+								}
+							}
+						}
+						else
+							types[p] = MISSING_TYPE;
+					}
+
+					if (types[p] >= 0)
+						gotAnyPath = true;
+				}
+
+				pathTypes = types;
+				if (gotAnyPath) {
+					if (!fileExists(BOOK_CONFIG_FILE))
+						System.err.println("Couldn't find book.ini file for book " + key);
+				}
+			}
+			return pathTypes;
+		}
+
 		boolean fileExists(String name) {
+			int[] types = getPathTypes();
 			for (int p = 0; p < paths.length; p++) {
-				switch (pathTypes[p]) {
+				switch (types[p]) {
 				case DIR_TYPE:
 					if (new File(paths[p], name).exists())
 						return true;
 					break;
 
 				case ZIP_TYPE:
-					try (final var zf = new ZipFile(paths[p])) {
-						if (zf.getEntry(name) != null)
+					try {
+						if (ZipArchives.contains(paths[p], name))
 							return true;
 					}
 					catch (IOException ioe) {
@@ -149,14 +179,20 @@ public class Books {
 						//return false;
 					}
 					break;
+
+				case PACK_TYPE:
+					if (getPack(p).contains(name))
+						return true;
+					break;
 				}
 			}
 			return false;
 		}
 
 		InputStream getInputStream(String name) {
+			int[] types = getPathTypes();
 			for (int p = 0; p < paths.length; p++) {
-				switch (pathTypes[p]) {
+				switch (types[p]) {
 				case DIR_TYPE:
 					try {
 						return new FileInputStream(new File(paths[p], name));
@@ -167,26 +203,85 @@ public class Books {
 					break;
 				case ZIP_TYPE:
 					try {
-						ZipFile zf = new ZipFile(paths[p]);
-						ZipEntry entry = zf.getEntry(name);
-						if (entry != null)
-							return zf.getInputStream(entry);
+						InputStream in = ZipArchives.getInputStream(paths[p], name);
+						if (in != null)
+							return in;
 					}
 					catch (IOException e) {
 						//System.out.println("Error reading zip-file " + paths[p]);
 					}
+					break;
+				case PACK_TYPE:
+					InputStream in = getPack(p).getInputStream(name);
+					if (in != null)
+						return in;
+					break;
 				}
 			}
-			System.out.println("Couldn't find file " + name);
+			Log.debug(Category.GAME, () -> "Couldn't find file " + name);
 
 			return null;
 		}
 
-		public boolean hasBook() {
-			return (fileExists(BOOK_CONFIG_FILE));
+		/** Get the (already opened) pack for one of the book's paths. */
+		private BookPack getPack(int p) {
+			try {
+				return BookPack.open(paths[p]);
+			}
+			catch (IOException e) {
+				// It opened when the book was found, so this shouldn't happen
+				throw new IllegalStateException(e);
+			}
+		}
+
+		/**
+		 * Close any zip-files held open for this book. They will be re-opened
+		 * if another file is read from the book.
+		 */
+		void closeArchives() {
+			// Nothing has been opened if the paths haven't been looked at
+			int[] types = pathTypes;
+			if (types == null)
+				return;
+			for (int p = 0; p < paths.length; p++)
+				if (types[p] == ZIP_TYPE)
+					ZipArchives.close(paths[p]);
+		}
+
+		/**
+		 * Get the stamp used to check whether what the {@link BookManifest} has on
+		 * this book is still current.
+		 */
+		private synchronized String getStamp() {
+			if (stamp == null)
+				stamp = BookManifest.stamp(paths);
+			return stamp;
+		}
+
+		public synchronized boolean hasBook() {
+			if (hasBook == null) {
+				String cached = BookManifest.get(key, getStamp(), "HasBook");
+				if (cached != null)
+					hasBook = Boolean.valueOf(cached);
+				else {
+					hasBook = Boolean.valueOf(fileExists(BOOK_CONFIG_FILE));
+					BookManifest.put(key, getStamp(), "HasBook", hasBook.toString());
+				}
+			}
+			return hasBook.booleanValue();
 			//return (pathType >= DIR_TYPE);
 		}
 
+		/**
+		 * Find out whatever is needed to list the book. Called on a discovery
+		 * thread when the books are first loaded; usually this just means checking
+		 * the manifest.
+		 */
+		private void discover() {
+			if (hasBook())
+				getOfficialCodewords();
+		}
+
 		public String getKey() { return key; }
 		private int getKeyNumber() {
 			try {
@@ -205,9 +300,10 @@ public class Books {
 		}
 
 		private String[] getAllFilenames() {
+			int[] types = getPathTypes();
 			Vector<String> allFiles = new Vector<>();
 			for (int p = 0; p < paths.length; p++) {
-				switch (pathTypes[p]) {
+				switch (types[p]) {
 				case DIR_TYPE:
 					File dir = new File(paths[p]);
 					String[] contents = dir.list();
@@ -216,21 +312,37 @@ public class Books {
 					}
 					break;
 				case ZIP_TYPE:
-					try (final var zf = new ZipFile(paths[p])) {
-						for (final var e = zf.entries(); e.hasMoreElements(); )
-							allFiles.add(e.nextElement().getName());
+					try {
+						allFiles.addAll(ZipArchives.getNames(paths[p]));
 					}
 					catch (IOException e) {
 						System.err.println("Error reading zip-file " + paths[p]);
 					}
+					break;
+				case PACK_TYPE:
+					allFiles.addAll(getPack(p).getNames());
+					break;
 				}
 			}
 			return allFiles.toArray(new String[0]);
 		}
 
-		private void findSectionRange() {
+		private synchronized void findSectionRange() {
 			if (foundSectionRange) return;
 			foundSectionRange = true;
+			String lowest = BookManifest.get(key, getStamp(), "Lowest");
+			String highest = BookManifest.get(key, getStamp(), "Highest");
+			if (lowest != null && highest != null) {
+				try {
+					lowestSection = Integer.parseInt(lowest);
+					highestSection = Integer.parseInt(highest);
+					return;
+				}
+				catch (NumberFormatException ignored) {
+					// Fall through and look at the files
+				}
+			}
+
 			String[] files = getAllFilenames();
 			int min = Integer.MAX_VALUE;
 			int max = Integer.MIN_VALUE;
@@ -240,21 +352,28 @@ public class Books {
 						int section = Integer.parseInt(file.substring(0, file.length() - 4));
 						if (section < min)
 							min = section;
-						else if (section > max)
+						if (section > max)
 							max = section;
 					}
 					catch (NumberFormatException ignored) {
 					}
 				}
 			}
-			System.out.println("Book " + key + ": lowest section=" + min + ",highest=" + max);
 			lowestSection = min;
 			highestSection = max;
+			Log.debug(Category.GAME, () -> "Book " + key + ": lowest section=" + lowestSection + ",highest=" + highestSection);
+			BookManifest.put(key, getStamp(), "Lowest", Integer.toString(min));
+			BookManifest.put(key, getStamp(), "Highest", Integer.toString(max));
+			BookManifest.save();
 		}
 
 		String[] getOfficialCodewords() {
-			String codewordsStr = getProps().getProperty("Codewords");
-			if (codewordsStr == null)
+			String codewordsStr = BookManifest.get(key, getStamp(), "Codewords");
+			if (codewordsStr == null) {
+				codewordsStr = getProps().getProperty("Codewords", "");
+				BookManifest.put(key, getStamp(), "Codewords", codewordsStr);
+			}
+			if (codewordsStr.length() == 0)
 				return new String[0];
 			String[] codewords = codewordsStr.split(",");
 			for (int c = 0; c < codewords.length; c++)
@@ -263,16 +382,16 @@ public class Books {
 			return codewords;
 		}
 
-		private Properties getProps() {
+		private synchronized Properties getProps() {
 			if (bookProps == null) {
 				InputStream propStream = getInputStream("book.ini");
 				if (propStream != null) {
 					bookProps = new Properties();
-					try {
-						bookProps.load(propStream);
+					try (InputStream in = propStream) {
+						bookProps.load(in);
 					}
 					catch (IOException e) {
-						System.out.println("Error in reading book definition file book.ini");
+						Log.debug(Category.GAME, "Error in reading book definition file book.ini");
 						e.printStackTrace();
 					}
 				}
@@ -383,8 +502,55 @@ public class Books {
 		return availableBooks.toArray(new String[0]);
 	}
 
+	/**
+	 * Close every book zip-file held open. Called when the application exits.
+	 */
+	static void closeArchives() {
+		ZipArchives.closeAll();
+		BookManifest.save();
+	}
+
+	/** The most threads used to look at books in parallel. */
+	private static final int DiscoveryThreads = 4;
+	private static volatile long discoveryTime = -1;
+
+	/**
+	 * Look at every book in the background, a few at a time, so that listing them
+	 * later doesn't have to. Usually each book only has its paths checked against
+	 * the {@link BookManifest}; it's only opened if that is out of date. Anything that
+	 * needs a book before this gets to it does the work itself.
+	 */
+	private void startDiscovery() {
+		final long start = System.nanoTime();
+		int threads = Math.max(1, Math.min(DiscoveryThreads, Runtime.getRuntime().availableProcessors()));
+		final ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "BookDiscovery");
+			t.setDaemon(true);
+			return t;
+		});
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+		for (final BookDetails book : getAllBooks())
+			tasks.add(CompletableFuture.runAsync(book::discover, pool));
+		pool.shutdown();
+		CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).whenComplete((result, e) -> {
+			discoveryTime = (System.nanoTime() - start) / 1000000;
+			if (e != null)
+				Log.warning(Category.GAME, "Error in looking for books: " + e);
+			BookManifest.save();
+			Log.info(Category.GAME, () -> "Found " + bookMap.size() + " books in " + discoveryTime + "ms");
+		});
+	}
+
+	/**
+	 * Get how long it took to look at all the books when they were first loaded.
+	 * @return the time in milliseconds, or -1 if it hasn't finished yet.
+	 */
+	public static long getDiscoveryTime() {
+		return discoveryTime;
+	}
+
 	private static Books canon = null;
-	public static Books getCanon() {
+	public static synchronized Books getCanon() {
 		if (canon == null) {
 			String listingFile = BOOKS_CONFIG_FILE;
 			try {
@@ -421,6 +587,8 @@ public class Books {
 				canon.addBook(new BookDetails("11", "The City in the Clouds", "book11"));
 				canon.addBook(new BookDetails("12", "Into The Underworld", "book12"));
 			}
+
+			canon.startDiscovery();
 		}
 		return canon;
 	}
@@ -7,8 +7,6 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -33,6 +31,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * A cache node is one in which the character can store items or money.
  * Each cache has a name, and can be accessed from any location by using that
@@ -44,16 +44,12 @@ import org.xml.sax.Attributes;
 public class CacheNode extends Node implements ActionListener, MouseListener, ChangeListener {
 	static final String ItemElementName = "itemcache";
 	static final String MoneyElementName = "moneycache";
-	private static Map<String,ItemList> loadedItemCaches;
-	private static Map<String,Integer> loadedMoneyCaches;
-	private static Map<String, List<ChangeListener> > cacheListeners = new HashMap<> ();
-
+	// The caches themselves belong to the current GameSession
 	static ItemList getItemCache(String name) {
 		return getItemCache(name, true);
 	}
 	private static ItemList getItemCache(String name, boolean create) {
-		if (loadedItemCaches == null)
-			loadedItemCaches = new HashMap<>();
+		Map<String,ItemList> loadedItemCaches = GameSession.getCurrent().itemCaches;
 		ItemList items = loadedItemCaches.get(name);
 		if (items == null && create) {
 			items = new ItemList(name);
@@ -62,9 +58,7 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 		return items;
 	}
 	static Iterator<ItemList> getItemCaches() {
-		if (loadedItemCaches == null)
-			loadedItemCaches = new HashMap<>();
-		return loadedItemCaches.values().iterator();
+		return GameSession.getCurrent().itemCaches.values().iterator();
 	}
 
 	static int getMoneyCache(String name) {
@@ -75,8 +69,7 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 			return (moneyIndex < 0 ? 0 : items.getItem(moneyIndex).getMoney());
 		}
 
-		if (loadedMoneyCaches == null)
-			loadedMoneyCaches = new HashMap<>();
+		Map<String,Integer> loadedMoneyCaches = GameSession.getCurrent().moneyCaches;
 		Integer shards = loadedMoneyCaches.get(name);
 		if (shards == null) {
 			shards = 0;
@@ -100,29 +93,22 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 			return;
 		}
 
-		if (loadedMoneyCaches == null)
-			loadedMoneyCaches = new HashMap<>();
-		loadedMoneyCaches.put(name, amount);
+		GameSession.getCurrent().moneyCaches.put(name, amount);
 		for (ChangeListener changeListener : getCacheListeners(name))
 			changeListener.stateChanged(new ChangeEvent(name));
 	}
 	static Iterator<Map.Entry<String,Integer>> getMoneyCaches() {
-		if (loadedMoneyCaches == null)
-			loadedMoneyCaches = new HashMap<>();
-		return loadedMoneyCaches.entrySet().iterator();
+		return GameSession.getCurrent().moneyCaches.entrySet().iterator();
 	}
 
-	private static Set<String> frozenCaches = null;
 	private static boolean isCacheFrozen(String name) {
-		return (frozenCaches != null && frozenCaches.contains(name));
+		return GameSession.getCurrent().frozenCaches.contains(name);
 	}
 	static void setCacheFrozen(String name, boolean b) {
-		if (b) {
-			if (frozenCaches == null)
-				frozenCaches = new HashSet<>();
+		Set<String> frozenCaches = GameSession.getCurrent().frozenCaches;
+		if (b)
 			frozenCaches.add(name);
-		}
-		else if (frozenCaches != null)
+		else
 			frozenCaches.remove(name);
 
 		ItemList items = getItemCache(name, false);
@@ -131,13 +117,11 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 	}
 
 	static void clearCaches() {
-		if (loadedItemCaches != null)
-			loadedItemCaches.clear();
-		if (loadedMoneyCaches != null)
-			loadedMoneyCaches.clear();
-		cacheListeners.clear();
-		if (frozenCaches != null)
-			frozenCaches.clear();
+		GameSession session = GameSession.getCurrent();
+		session.itemCaches.clear();
+		session.moneyCaches.clear();
+		session.cacheListeners.clear();
+		session.frozenCaches.clear();
 	}
 
 	private static void addCacheListener(String cache, ChangeListener l) {
@@ -147,12 +131,7 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 		getCacheListeners(cache).remove(l);
 	}
 	private static List<ChangeListener> getCacheListeners(String name) {
-		List<ChangeListener> l = cacheListeners.get(name);
-		if (l == null) {
-			l = new LinkedList<>();
-			cacheListeners.put(name, l);
-		}
-		return l;
+		return GameSession.getCurrent().cacheListeners.computeIfAbsent(name, n -> new LinkedList<>());
 	}
 
 	private static final int ITEM_CACHE = 0;
@@ -496,7 +475,7 @@ public class CacheNode extends Node implements ActionListener, MouseListener, Ch
 		@Override
 		public void resetExecute() {
 			if (undoAmount >= 0) {
-				System.out.println("Undoing adjustmoney, multiply=" + multiplier);
+				Log.debug(Category.ITEMS, () -> "Undoing adjustmoney, multiply=" + multiplier);
 				setMoney(undoAmount);
 				undoAmount = -1;
 			}
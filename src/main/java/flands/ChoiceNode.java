@@ -13,6 +13,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * In its classic form, a choice node is a description and a section number, listed
  * at the end of a section. Other variations include a checkbox by the choice,
@@ -198,7 +200,7 @@ public class ChoiceNode extends Node implements Executable, ActionListener, Chan
 	@Override
 	public boolean execute(ExecutableGrouper grouper) {
 		// Return without enabling if we don't meet any conditions
-		System.out.println("Disabling choicenode");
+		Log.debug(Category.EXECUTION, "Disabling choicenode");
 		setEnabled(false);
 		if (book != null && !Books.getCanon().getBook(book).hasBook())
 			return true;
@@ -215,7 +217,7 @@ public class ChoiceNode extends Node implements Executable, ActionListener, Chan
 		if (emptyvar != null && isVariableDefined(emptyvar))
 			return true;
 
-		System.out.println("Enabling choicenode");
+		Log.debug(Category.EXECUTION, "Enabling choicenode");
 		setEnabled(true);
 		return true;
 	}
@@ -257,7 +259,7 @@ public class ChoiceNode extends Node implements Executable, ActionListener, Chan
 			setEnabled(selected);
 		}
 		else {
-			System.out.println("GotoNode: stateChanged; shards required=" + shards);
+			Log.debug(Category.EXECUTION, () -> "GotoNode: stateChanged; shards required=" + shards);
 			setEnabled(getAdventurer().getMoney() >= getVariableValue(shards));
 		}
 	}
@@ -18,6 +18,8 @@ import javax.swing.JTextArea;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import flands.Log.Category;
+
 /**
  * Window to display the known (named) codewords that have been set for a character.
  * @see Codewords
@@ -195,12 +197,12 @@ public class CodewordWindow extends JDialog implements ActionListener, ChangeLis
 	}
 
 	void applyNotes() {
-		System.out.println("Ready to apply notes: " + notesArea.getText());
+		Log.debug(Category.GUI, () -> "Ready to apply notes: " + notesArea.getText());
 		getCodewords().setNotes(notesArea.getText());
 	}
 
 	void resetNotes() {
-		System.out.println("Notes are: " + getCodewords().getNotes());
+		Log.debug(Category.GUI, () -> "Notes are: " + getCodewords().getNotes());
 		notesArea.setText(getCodewords().getNotes());
 	}
 }
@@ -1,19 +1,25 @@
 package flands;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import flands.Log.Category;
+
 /**
  * A codeword, as used by FLApp, is a keyword with an integer value, shared
  * across all sections (unlike variables, which are local to a section).
@@ -28,15 +34,19 @@ public class Codewords implements Loadable {
 	private Adventurer owner;
 
 	/*
-	 * A mapping from codeword->"0" or "1"
-	 * Also from section number->"integer"
-	 * A better representation would be a set, but this has built in load and save
-	 * and a simple (editable) format.
+	 * Codewords from the books' official lists are held as bits, indexed by
+	 * getOfficialIndex(). Tick counts for numbered sections are held in tickCounts,
+	 * keyed by book and section packed into an int. Anything else (hidden codewords,
+	 * codewords with values other than 0 or 1, ticks for odd section names) goes in
+	 * otherValues. A missing value is the same as 0.
+	 * The codewords.ini format (from Properties) is still used to load and save them.
 	 */
-	private Properties props;
+	private final BitSet officialCodewords = new BitSet();
+	private final TickCounts tickCounts = new TickCounts();
+	private final Map<String,Integer> otherValues = new HashMap<>();
+	private String notes = null;
 
 	public Codewords(Adventurer adv) {
-		props = new Properties();
 		owner = adv;
 	}
 
@@ -45,13 +55,13 @@ public class Codewords implements Loadable {
 	 */
 	public boolean hasCodeword(String word) {
 		refresh();
-		return !props.getProperty(word, "0").equals("0");
+		return getStoredValue(word) != 0;
 	}
 	/**
 	 * Add a codeword.
 	 */
 	public void addCodeword(String word) {
-		props.setProperty(word, "1");
+		setStoredValue(word, 1);
 		update(word);
 	}
 	/**
@@ -60,10 +70,11 @@ public class Codewords implements Loadable {
 	 */
 	boolean removeCodeword(String word) {
 		refresh();
-		Object val = props.remove(word);
-		if (val != null) {
+		int val = getStoredValue(word);
+		if (val != 0) {
+			setStoredValue(word, 0);
 			update(word);
-			return (val.equals("1"));
+			return (val == 1);
 		}
 		else
 			return false;
@@ -73,7 +84,13 @@ public class Codewords implements Loadable {
 		return getTickCount(Address.getCurrentBookKey(), section);
 	}
 	int getTickCount(String book, String section) {
-		return getValue(book + "/" + section);
+		int key = packTickKey(book, section);
+		if (key == 0)
+			return getValue(book + "/" + section);
+		refresh();
+		synchronized (this) {
+			return tickCounts.get(key);
+		}
 	}
 	public final void addTick(String section) {
 		addTicks(Address.getCurrentBookKey() + "/" + section, 1);
@@ -84,16 +101,7 @@ public class Codewords implements Loadable {
 
 	public int getValue(String name) {
 		refresh();
-		String val = props.getProperty(name, null);
-		if (val != null) {
-			try {
-				return Integer.parseInt(val);
-			}
-			catch (NumberFormatException nfe) {
-				System.err.println("Error parsing integer val for codeword " + name + ": " + nfe);
-			}
-		}
-		return 0;
+		return getStoredValue(name);
 	}
 
 	void adjustValue(String name, int delta) {
@@ -102,82 +110,362 @@ public class Codewords implements Loadable {
 	}
 
 	void setValue(String name, int value) {
-		props.setProperty(name, Integer.toString(value));
+		setStoredValue(name, value);
 		update(name);
 	}
 
 	public void clear() {
-		props.clear();
+		clearStore();
 		update(null);
 	}
 
-	private static final String propFilename = "codewords.ini";
-	private long lastSynch = 0;
+	private synchronized void clearStore() {
+		officialCodewords.clear();
+		tickCounts.clear();
+		otherValues.clear();
+		notes = null;
+	}
+
+	private synchronized int getStoredValue(String name) {
+		int official = getOfficialIndex(name);
+		if (official >= 0 && officialCodewords.get(official))
+			return 1;
+		int key = packTickKey(name);
+		if (key != 0)
+			return tickCounts.get(key);
+		Integer val = otherValues.get(name);
+		return (val == null ? 0 : val);
+	}
+
+	private synchronized void setStoredValue(String name, int value) {
+		int official = getOfficialIndex(name);
+		if (official >= 0) {
+			officialCodewords.set(official, value == 1);
+			if (value == 0 || value == 1) {
+				otherValues.remove(name);
+				return;
+			}
+		}
+		else {
+			int key = packTickKey(name);
+			if (key != 0) {
+				tickCounts.put(key, value);
+				return;
+			}
+		}
+
+		if (value == 0)
+			otherValues.remove(name);
+		else
+			otherValues.put(name, value);
+	}
+
 	/**
-	 * Called to reload the codewords from file.
-	 * This is called before most hasCodeword() calls.
+	 * Add the values from a codewords.ini file to the current ones.
 	 */
-	public void refresh() {
-		if (FLApp.debugging) {
-			long time = System.currentTimeMillis();
-			if (time - lastSynch > 2000)
-				load(owner.getFolderName());
-			lastSynch = time;
+	void read(InputStream in) throws IOException {
+		Properties props = new Properties();
+		props.load(in);
+		read(props);
+	}
+
+	/**
+	 * Add the values loaded from a codewords.ini file to the current ones.
+	 */
+	void read(Properties props) {
+		synchronized (this) {
+			for (String name : props.stringPropertyNames()) {
+				String val = props.getProperty(name);
+				if (name.equals(NotesKey))
+					notes = val;
+				else {
+					try {
+						setStoredValue(name, Integer.parseInt(val));
+					}
+					catch (NumberFormatException nfe) {
+						System.err.println("Error parsing integer val for codeword " + name + ": " + nfe);
+					}
+				}
+			}
 		}
 	}
 
-	private void update(String key) {
-		if (FLApp.debugging) {
-			if (save(owner.getFolderName()))
-				lastSynch = System.currentTimeMillis();
+	/**
+	 * Replace every value with those loaded from a codewords.ini file (eg. one edited
+	 * from outside the game). Listeners are told, on the event thread, about each
+	 * value that changed.
+	 */
+	void replace(Properties props) {
+		List<String> changed = new ArrayList<>();
+		synchronized (this) {
+			Properties before = toProperties();
+			clearStore();
+			read(props);
+			Properties after = toProperties();
+			Set<String> names = new TreeSet<>(before.stringPropertyNames());
+			names.addAll(after.stringPropertyNames());
+			for (String name : names)
+				if (!Objects.equals(before.getProperty(name), after.getProperty(name)))
+					changed.add(name);
 		}
-		fireChangeEvent(key);
+		if (!changed.isEmpty())
+			SwingUtilities.invokeLater(() -> {
+				for (String key : changed)
+					fireChangeEvent(key);
+			});
+	}
+
+	/**
+	 * Get every value in the form used by codewords.ini.
+	 */
+	synchronized Properties toProperties() {
+		Properties props = new Properties();
+		String[] officialNames = getOfficialNames();
+		for (int i = officialCodewords.nextSetBit(0); i >= 0; i = officialCodewords.nextSetBit(i + 1))
+			props.setProperty(officialNames[i], "1");
+		for (int i = 0; i < tickCounts.keys.length; i++)
+			if (tickCounts.keys[i] != 0 && tickCounts.values[i] != 0)
+				props.setProperty(unpackTickKey(tickCounts.keys[i]), Integer.toString(tickCounts.values[i]));
+		for (Map.Entry<String,Integer> e : otherValues.entrySet())
+			props.setProperty(e.getKey(), e.getValue().toString());
+		if (notes != null)
+			props.setProperty(NotesKey, notes);
+		return props;
 	}
 
-	private void load(String path) {
-		if (path == null) return;
-		if (path.length() > 0 && !path.endsWith(File.separator))
-			path = path + File.separator;
-		path += propFilename;
+	/* ********************
+	 * Official codewords
+	 ******************** */
+	private static volatile Map<String,Integer> officialIndex = null;
+	private static volatile String[] officialNames = null;
 
-		try {
-			FileInputStream in = new FileInputStream(path);
-			props.load(in);
+	/** Build the index of every official codeword in the available books. */
+	private static synchronized void indexOfficialCodewords() {
+		if (officialIndex == null) {
+			Map<String,Integer> index = new HashMap<>();
+			List<String> names = new ArrayList<>();
+			Books canon = Books.getCanon();
+			for (String key : canon.getAvailableKeys()) {
+				for (String word : canon.getBook(key).getOfficialCodewords()) {
+					if (!index.containsKey(word)) {
+						index.put(word, names.size());
+						names.add(word);
+					}
+				}
+			}
+			officialNames = names.toArray(new String[0]);
+			officialIndex = index;
 		}
-		catch (FileNotFoundException fnfe) {
-			// OK, default to no codewords
-			props.clear();
+	}
+
+	/** Get the index of an official codeword, or -1 if it isn't one. */
+	private static int getOfficialIndex(String word) {
+		if (officialIndex == null)
+			indexOfficialCodewords();
+		Integer index = officialIndex.get(word);
+		return (index == null ? -1 : index);
+	}
+
+	private static String[] getOfficialNames() {
+		if (officialNames == null)
+			indexOfficialCodewords();
+		return officialNames;
+	}
+
+	/* ***********
+	 * Tick counts
+	 *********** */
+	private static final int SectionBits = 20;
+	private static final int MaxBooks = (1 << (31 - SectionBits)) - 1;
+	private static final Map<String,Integer> bookIndex = new HashMap<>();
+	private static final List<String> bookKeys = new ArrayList<>();
+
+	private static synchronized int getBookIndex(String book) {
+		Integer index = bookIndex.get(book);
+		if (index == null) {
+			if (bookKeys.size() >= MaxBooks)
+				return -1;
+			index = bookKeys.size();
+			bookIndex.put(book, index);
+			bookKeys.add(book);
 		}
-		catch (IOException ioe) {
-			System.err.println("Error in loading codewords from: " + path);
-			props.clear();
+		return index;
+	}
+
+	/**
+	 * Pack a book key and section number into a single (non-zero) int.
+	 * @return the packed key, or 0 if the section isn't a plain number.
+	 */
+	private static int packTickKey(String book, String section) {
+		int length = section.length();
+		if (length == 0 || length > 6 || (section.charAt(0) == '0' && length > 1))
+			// Leading zeroes wouldn't survive unpacking
+			return 0;
+		int number = 0;
+		for (int i = 0; i < length; i++) {
+			char ch = section.charAt(i);
+			if (ch < '0' || ch > '9')
+				return 0;
+			number = number * 10 + (ch - '0');
 		}
+		if (number >= (1 << SectionBits))
+			return 0;
+		int bookIndex = getBookIndex(book);
+		if (bookIndex < 0)
+			return 0;
+		return ((bookIndex + 1) << SectionBits) | number;
 	}
 
-	private boolean save(String path) {
-		if (path.length() > 0 && !path.endsWith(File.separator))
-			path = path + File.separator;
+	/** Pack a "book/section" codeword name; 0 if it isn't one. */
+	private static int packTickKey(String name) {
+		int slash = name.indexOf('/');
+		if (slash <= 0)
+			return 0;
+		return packTickKey(name.substring(0, slash), name.substring(slash + 1));
+	}
+
+	private static synchronized String unpackTickKey(int key) {
+		return bookKeys.get((key >>> SectionBits) - 1) + "/" + (key & ((1 << SectionBits) - 1));
+	}
+
+	/**
+	 * A map from packed tick keys to counts, without boxing.
+	 * Uses open addressing; a key of 0 marks an empty slot, and a count of 0
+	 * is the same as no count at all.
+	 */
+	private static class TickCounts {
+		private int[] keys = new int[64];
+		private int[] values = new int[64];
+		private int size = 0;
 
-		// Make sure the adventurer directory exists
-		File f = new File(path);
-		if (!f.exists())
-			f.mkdir();
+		private int indexOf(int key) {
+			int mask = keys.length - 1;
+			int i = (key * 0x9E3779B9) >>> 16 & mask;
+			while (keys[i] != 0 && keys[i] != key)
+				i = (i + 1) & mask;
+			return i;
+		}
+
+		int get(int key) {
+			int i = indexOf(key);
+			return (keys[i] == key ? values[i] : 0);
+		}
+
+		void put(int key, int value) {
+			int i = indexOf(key);
+			if (keys[i] == 0) {
+				if (value == 0)
+					return;
+				keys[i] = key;
+				if (++size * 2 > keys.length) {
+					values[i] = value;
+					grow();
+					return;
+				}
+			}
+			values[i] = value;
+		}
 
-		path += propFilename;
-		try {
-			FileOutputStream out = new FileOutputStream(path);
-			props.store(out, null);
-			return true;
+		private void grow() {
+			int[] oldKeys = keys, oldValues = values;
+			keys = new int[oldKeys.length * 2];
+			values = new int[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0) {
+					int j = indexOf(oldKeys[i]);
+					keys[j] = oldKeys[i];
+					values[j] = oldValues[i];
+				}
+			}
 		}
-		catch (FileNotFoundException fnfe) {
-			System.err.println("Error in creating output file: " + path);
+
+		void clear() {
+			Arrays.fill(keys, 0);
+			size = 0;
 		}
-		catch (IOException ioe) {
-			System.err.println("Error in saving codewards to: " + path);
+	}
+
+	// Mirrors the codewords to the adventurer's folder in debugging mode
+	private CodewordsJournal journal = null;
+	// Set once these codewords are thrown away (see discard())
+	private boolean discarded = false;
+
+	/**
+	 * Get the journal for the adventurer's current folder, opening a new one
+	 * (and closing any old one) if necessary.
+	 * @return the journal, or <code>null</code> if the adventurer has no folder.
+	 */
+	private CodewordsJournal getJournal(boolean load) {
+		String folder = owner.getFolderName();
+		if (folder == null || discarded)
+			return null;
+		if (journal == null || !journal.getFolder().equals(folder)) {
+			if (journal != null)
+				journal.close();
+			journal = new CodewordsJournal(this, folder);
+			if (load)
+				journal.load();
+			else
+				journal.compactNow();
 		}
-		return false;
+		return journal;
 	}
-	
+
+	/**
+	 * Stop mirroring these codewords to file, as they belong to a game that has been
+	 * closed or replaced. Nothing more is written, so they can't overwrite the files
+	 * of a game that goes on to use the same folder.
+	 */
+	void discard() {
+		discarded = true;
+		if (journal != null) {
+			journal.discard();
+			journal = null;
+		}
+	}
+
+	/**
+	 * Start mirroring to file again after {@link #discard()}, when the game is taken
+	 * back (eg. after a failed load). The files are rewritten from these codewords.
+	 */
+	void reopen() {
+		discarded = false;
+		if (FLApp.debugging)
+			getJournal(false);
+	}
+
+	/**
+	 * In debugging mode, make sure the codewords are being mirrored to file.
+	 * The first time this is called, any codewords already saved in the
+	 * adventurer's folder are loaded; after that, changes made to the file
+	 * are picked up in the background.
+	 */
+	public void refresh() {
+		if (FLApp.debugging)
+			getJournal(true);
+	}
+
+	private void update(String key) {
+		if (FLApp.debugging) {
+			boolean opened = (journal != null);
+			CodewordsJournal j = getJournal(false);
+			if (j != null && opened) {
+				if (key == null)
+					j.compactNow();
+				else
+					j.recordChange(key, getStoredString(key));
+			}
+		}
+		fireChangeEvent(key);
+	}
+
+	/** Get a value in the form it's saved in codewords.ini. */
+	private synchronized String getStoredString(String name) {
+		if (name.equals(NotesKey))
+			return (notes == null ? "" : notes);
+		return Integer.toString(getStoredValue(name));
+	}
+
 	private List<Object> listeners;
 	public void addChangeListener(String key, ChangeListener l) {
 		if (listeners == null)
@@ -211,27 +499,32 @@ public class Codewords implements Loadable {
 	@Override
 	public boolean loadFrom(InputStream in) throws IOException {
 		// TODO: Notify any listeners?
-		props.clear();
-		props.load(in);
+		clearStore();
+		read(in);
 		update(null);
-		props.list(System.out);
+		if (Log.isDebug(Category.ADVENTURER))
+			toProperties().list(System.out);
 		return true;
 	}
 
 	@Override
 	public boolean saveTo(OutputStream out) throws IOException {
-		props.store(out, null);
+		toProperties().store(out, null);
 		return true;
 	}
 	
 	private static final String NotesKey = "*AdventurerNotes*";
 	String getNotes() {
 		refresh();
-		return props.getProperty(NotesKey);
+		synchronized (this) {
+			return notes;
+		}
 	}
 	
 	void setNotes(String text) {
-		props.setProperty(NotesKey, text);
+		synchronized (this) {
+			notes = text;
+		}
 		update(NotesKey);
 	}
 }
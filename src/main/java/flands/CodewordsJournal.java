@@ -0,0 +1,272 @@
+package flands;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import flands.Log.Category;
+
+/**
+ * Mirrors an adventurer's codewords to their folder in debugging mode, so they can
+ * be watched and edited from outside while the game is running.
+ * <p>
+ * Each change is appended to a journal file rather than rewriting codewords.ini;
+ * the journal is folded back into codewords.ini (and emptied) once there have been
+ * no changes for {@link #CompactDelay} milliseconds. codewords.ini is watched for
+ * changes made by anyone else, which are then loaded (with any journalled changes
+ * applied on top). Apart from the first load, all file access happens on a
+ * background thread.
+ */
+final class CodewordsJournal {
+	private static final String CodewordsFilename = "codewords.ini";
+	private static final String JournalFilename = "codewords.journal";
+	/** How long to wait after the last change before rewriting codewords.ini. */
+	static final long CompactDelay = 2000;
+
+	private static ScheduledExecutorService executor = null;
+
+	private static synchronized ScheduledExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "CodewordsJournal");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return executor;
+	}
+
+	private final Codewords codewords;
+	private final String folderName;
+	private final Path folder;
+	private final Path codewordsFile;
+	private final Path journalFile;
+	private WatchService watcher = null;
+	private ScheduledFuture<?> compaction = null;
+	// Once discarded, nothing more is read or written
+	private volatile boolean discarded = false;
+	// The modification time of codewords.ini when we last wrote or read it
+	private FileTime lastKnownTime = null;
+
+	/**
+	 * @param folder the adventurer's folder (which will be created if necessary).
+	 */
+	CodewordsJournal(Codewords codewords, String folder) {
+		this.codewords = codewords;
+		this.folderName = folder;
+		this.folder = FileSystems.getDefault().getPath(folder.length() == 0 ? "." : folder);
+		this.codewordsFile = this.folder.resolve(CodewordsFilename);
+		this.journalFile = this.folder.resolve(JournalFilename);
+		try {
+			Files.createDirectories(this.folder);
+			watcher = FileSystems.getDefault().newWatchService();
+			this.folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			Thread t = new Thread(this::watch, "CodewordsWatcher");
+			t.setDaemon(true);
+			t.start();
+		}
+		catch (IOException e) {
+			Log.warning(Category.ADVENTURER, "Can't watch codewords in " + folder + ": " + e);
+		}
+	}
+
+	String getFolder() { return folderName; }
+
+	/**
+	 * Load codewords.ini and then any changes left in the journal (eg. by a game
+	 * that didn't get to compact it). This is done immediately, on the calling thread.
+	 */
+	void load() {
+		codewords.read(readFiles());
+	}
+
+	/**
+	 * Record a change to one value.
+	 * @param value the new value, in the form written to codewords.ini.
+	 */
+	void recordChange(String name, String value) {
+		final byte[] line = toLine(name, value);
+		getExecutor().execute(() -> {
+			if (discarded)
+				return;
+			try (OutputStream out = Files.newOutputStream(journalFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+				out.write(line);
+			}
+			catch (IOException e) {
+				Log.warning(Category.ADVENTURER, "Error in writing to " + journalFile + ": " + e);
+			}
+		});
+		scheduleCompaction(CompactDelay);
+	}
+
+	/**
+	 * Rewrite codewords.ini from the current codewords as soon as possible,
+	 * after any journal entries already queued.
+	 */
+	void compactNow() {
+		scheduleCompaction(0);
+	}
+
+	private synchronized void scheduleCompaction(long delay) {
+		if (compaction != null)
+			compaction.cancel(false);
+		compaction = getExecutor().schedule(this::compact, delay, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Write every codeword to codewords.ini, and empty the journal.
+	 * The file is written to one side first, so anyone reading it never sees half of it.
+	 */
+	private void compact() {
+		if (discarded)
+			return;
+		Path temp = folder.resolve(CodewordsFilename + ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				codewords.toProperties().store(out, null);
+			}
+			Files.move(temp, codewordsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			synchronized (this) {
+				lastKnownTime = Files.getLastModifiedTime(codewordsFile);
+			}
+			Files.deleteIfExists(journalFile);
+		}
+		catch (IOException e) {
+			Log.warning(Category.ADVENTURER, "Error in saving codewords to " + codewordsFile + ": " + e);
+		}
+	}
+
+	/**
+	 * Read codewords.ini, with any changes left in the journal applied on top.
+	 */
+	private Properties readFiles() {
+		Properties props = new Properties();
+		try {
+			try (InputStream in = Files.newInputStream(codewordsFile)) {
+				props.load(in);
+			}
+			synchronized (this) {
+				lastKnownTime = Files.getLastModifiedTime(codewordsFile);
+			}
+		}
+		catch (NoSuchFileException e) {
+			// OK, nothing saved yet
+		}
+		catch (IOException e) {
+			Log.warning(Category.ADVENTURER, "Error in loading codewords from " + codewordsFile + ": " + e);
+		}
+
+		try (InputStream in = Files.newInputStream(journalFile)) {
+			props.load(in);
+		}
+		catch (NoSuchFileException e) {
+			// Nothing waiting to be compacted
+		}
+		catch (IOException e) {
+			Log.warning(Category.ADVENTURER, "Error in loading codewords from " + journalFile + ": " + e);
+		}
+		return props;
+	}
+
+	/** Load codewords.ini if someone other than us has changed it. */
+	private void reloadIfChanged() {
+		if (discarded)
+			return;
+		try {
+			FileTime time = Files.getLastModifiedTime(codewordsFile);
+			synchronized (this) {
+				if (time.equals(lastKnownTime))
+					return;
+			}
+		}
+		catch (IOException e) {
+			return;
+		}
+		Log.debug(Category.ADVENTURER, () -> "Reloading changed " + codewordsFile);
+		// Whatever is in the file now is what the codewords should be
+		codewords.replace(readFiles());
+	}
+
+	/** Runs on its own thread, waiting for changes to the folder. */
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watcher.take();
+				for (WatchEvent<?> event : key.pollEvents()) {
+					if (CodewordsFilename.equals(String.valueOf(event.context())))
+						getExecutor().execute(this::reloadIfChanged);
+				}
+				if (!key.reset())
+					break;
+			}
+		}
+		catch (InterruptedException | ClosedWatchServiceException e) {
+			// Closed
+		}
+	}
+
+	/**
+	 * Stop watching the folder, and bring codewords.ini up to date.
+	 */
+	void close() {
+		compactNow();
+		stopWatching();
+	}
+
+	/**
+	 * Stop watching the folder, and drop anything not yet written: the codewords
+	 * are being thrown away, and another game may be about to use the same folder.
+	 */
+	void discard() {
+		discarded = true;
+		synchronized (this) {
+			if (compaction != null)
+				compaction.cancel(false);
+		}
+		stopWatching();
+	}
+
+	private void stopWatching() {
+		if (watcher != null) {
+			try {
+				watcher.close();
+			}
+			catch (IOException ignored) {}
+		}
+	}
+
+	/** Format a single value as a line of a Properties file. */
+	private static byte[] toLine(String name, String value) {
+		Properties props = new Properties();
+		props.setProperty(name, value);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			props.store(out, null);
+		}
+		catch (IOException ignored) {}
+		// Skip the date comment
+		byte[] bytes = out.toByteArray();
+		int start = 0;
+		while (start < bytes.length && bytes[start++] != '\n') ;
+		return Arrays.copyOfRange(bytes, start, bytes.length);
+	}
+}
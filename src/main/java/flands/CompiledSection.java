@@ -0,0 +1,369 @@
+package flands;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * The parsed form of a section file, from which any number of fresh node trees
+ * can be built by {@link ParserHandler#build(CompiledSection)} without touching
+ * the XML again.
+ * <p>
+ * The section is held as a flat list of start and end tags. Each tag carries the
+ * (already condensed) text that came before it; since ParserHandler only trims the
+ * start of that text in some cases, both the trimmed and untrimmed versions are kept.
+ * Instances are never modified after compilation, so can be shared freely.
+ * <p>
+ * A compiled section can also be saved in a compact binary form (see
+ * {@link #writeTo(OutputStream, byte[])}), so that books can ship with their sections
+ * already compiled by {@link SectionCompiler}; loading that is a simple read loop.
+ * The format is: {@link #Magic} and {@link #Version}; the length and CRC-32 of the
+ * XML it was compiled from, so that a file left behind by an edit isn't used; a
+ * table of every distinct string used (names, attribute values, text); then the
+ * tags, with each string given as an index into the table; then the size and
+ * destinations.
+ */
+final class CompiledSection {
+	static final byte START_TAG = 0;
+	static final byte END_TAG = 1;
+
+	/** The extension of a section file in binary form, alongside the usual ".xml". */
+	static final String BinaryExtension = ".fls";
+	private static final int Magic = 0x4a464c53; // "JFLS"
+	private static final int Version = 2;
+	/** The largest count believed when reading, so a corrupt file can't ask for a huge array. */
+	private static final int MaxCount = 1 << 24;
+
+	private final byte[] tags;
+	private final String[] names;
+	private final Attributes[] atts;
+	private final String[] trimmedContent;
+	private final String[] untrimmedContent;
+	private final int size;
+	private final Address[] destinations;
+
+	private CompiledSection(Compiler c) {
+		int count = c.tags.size();
+		tags = new byte[count];
+		for (int i = 0; i < count; i++)
+			tags[i] = c.tags.get(i);
+		names = c.names.toArray(new String[0]);
+		atts = c.atts.toArray(new Attributes[0]);
+		trimmedContent = c.trimmedContent.toArray(new String[0]);
+		untrimmedContent = c.untrimmedContent.toArray(new String[0]);
+		size = c.size;
+		destinations = c.destinations.toArray(new Address[0]);
+	}
+
+	private CompiledSection(byte[] tags, String[] names, Attributes[] atts, String[] trimmedContent,
+			String[] untrimmedContent, int size, Address[] destinations) {
+		this.tags = tags;
+		this.names = names;
+		this.atts = atts;
+		this.trimmedContent = trimmedContent;
+		this.untrimmedContent = untrimmedContent;
+		this.size = size;
+		this.destinations = destinations;
+	}
+
+	/** The number of start and end tags. */
+	int getTagCount() { return tags.length; }
+	/** Either {@link #START_TAG} or {@link #END_TAG}. */
+	byte getTagType(int index) { return tags[index]; }
+	/** The lower-case element name of a start tag. */
+	String getName(int index) { return names[index]; }
+	/** The attributes of a start tag. These must not be modified. */
+	Attributes getAttributes(int index) { return atts[index]; }
+
+	/**
+	 * Get the condensed text that came before the given tag.
+	 * @param trimStart whether the handler is currently trimming leading whitespace.
+	 * @return the text, or <code>null</code> if there were no characters at all.
+	 */
+	String getContent(int index, boolean trimStart) {
+		return (trimStart ? trimmedContent : untrimmedContent)[index];
+	}
+
+	/**
+	 * Get the sections this one can lead to directly, through its goto, choice
+	 * and extrachoice elements. The book of an address will be <code>null</code>
+	 * where it's the same as this section's.
+	 */
+	Address[] getDestinations() { return destinations; }
+
+	/** The illustration shown at the top of the section, if it has one. */
+	String getImageFilename() {
+		return (tags.length > 0 && tags[0] == START_TAG ? atts[0].getValue("image") : null);
+	}
+
+	/** A rough measure of the memory used, in characters. */
+	int getSize() { return size; }
+
+	/**
+	 * Parse a section file.
+	 * @throws SAXException if the XML is badly formed.
+	 */
+	static CompiledSection compile(InputStream in) throws IOException, SAXException {
+		Compiler c = new Compiler();
+		ParserPool.parse(in, c);
+		return new CompiledSection(c);
+	}
+
+	/**
+	 * Write the section in binary form.
+	 * @param source the XML the section was compiled from.
+	 */
+	void writeTo(OutputStream out, byte[] source) throws IOException {
+		// Give each distinct string an index, in order of first use
+		Map<String,Integer> strings = new LinkedHashMap<>();
+		for (int i = 0; i < tags.length; i++) {
+			if (tags[i] == START_TAG) {
+				addString(strings, names[i]);
+				for (int a = 0; a < atts[i].getLength(); a++) {
+					addString(strings, atts[i].getURI(a));
+					addString(strings, atts[i].getLocalName(a));
+					addString(strings, atts[i].getQName(a));
+					addString(strings, atts[i].getType(a));
+					addString(strings, atts[i].getValue(a));
+				}
+			}
+			addString(strings, trimmedContent[i]);
+			addString(strings, untrimmedContent[i]);
+		}
+		for (Address destination : destinations) {
+			addString(strings, destination.book);
+			addString(strings, destination.section);
+		}
+
+		DataOutputStream dout = new DataOutputStream(new BufferedOutputStream(out));
+		dout.writeInt(Magic);
+		dout.writeInt(Version);
+		dout.writeInt(source.length);
+		dout.writeInt(checksum(source));
+		writeCount(dout, strings.size());
+		for (String str : strings.keySet()) {
+			byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			writeCount(dout, bytes.length);
+			dout.write(bytes);
+		}
+
+		writeCount(dout, tags.length);
+		for (int i = 0; i < tags.length; i++) {
+			dout.writeByte(tags[i]);
+			if (tags[i] == START_TAG) {
+				writeString(dout, strings, names[i]);
+				writeCount(dout, atts[i].getLength());
+				for (int a = 0; a < atts[i].getLength(); a++) {
+					writeString(dout, strings, atts[i].getURI(a));
+					writeString(dout, strings, atts[i].getLocalName(a));
+					writeString(dout, strings, atts[i].getQName(a));
+					writeString(dout, strings, atts[i].getType(a));
+					writeString(dout, strings, atts[i].getValue(a));
+				}
+			}
+			writeString(dout, strings, trimmedContent[i]);
+			writeString(dout, strings, untrimmedContent[i]);
+		}
+
+		writeCount(dout, size);
+		writeCount(dout, destinations.length);
+		for (Address destination : destinations) {
+			writeString(dout, strings, destination.book);
+			writeString(dout, strings, destination.section);
+		}
+		dout.flush();
+	}
+
+	private static int checksum(byte[] source) {
+		CRC32 crc = new CRC32();
+		crc.update(source);
+		return (int)crc.getValue();
+	}
+
+	private static void addString(Map<String,Integer> strings, String str) {
+		if (str != null && !strings.containsKey(str))
+			strings.put(str, strings.size());
+	}
+
+	/** Write a non-negative number in as few bytes as possible, seven bits at a time. */
+	private static void writeCount(DataOutputStream out, int count) throws IOException {
+		while ((count & ~0x7f) != 0) {
+			out.writeByte((count & 0x7f) | 0x80);
+			count >>>= 7;
+		}
+		out.writeByte(count);
+	}
+
+	private static int readCount(DataInputStream in) throws IOException {
+		int count = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			count |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				if (count < 0 || count > MaxCount)
+					break;
+				return count;
+			}
+		}
+		throw new IOException("Bad number in compiled section");
+	}
+
+	/** Strings are written as their index plus one, with 0 meaning <code>null</code>. */
+	private static void writeString(DataOutputStream out, Map<String,Integer> strings, String str) throws IOException {
+		writeCount(out, str == null ? 0 : strings.get(str) + 1);
+	}
+
+	private static String readString(DataInputStream in, String[] strings) throws IOException {
+		int index = readCount(in);
+		if (index > strings.length)
+			throw new IOException("Bad string index in compiled section");
+		return (index == 0 ? null : strings[index - 1]);
+	}
+
+	/**
+	 * Read a section written by {@link #writeTo(OutputStream, byte[])}.
+	 * @param source the section's XML as it is now.
+	 * @throws IOException if it can't be read, isn't a compiled section of the right
+	 * version, or wasn't compiled from this XML.
+	 */
+	static CompiledSection read(InputStream in, byte[] source) throws IOException {
+		DataInputStream din = new DataInputStream(new BufferedInputStream(in));
+		if (din.readInt() != Magic)
+			throw new IOException("Not a compiled section");
+		if (din.readInt() != Version)
+			throw new IOException("Compiled section is the wrong version");
+		if (din.readInt() != source.length || din.readInt() != checksum(source))
+			throw new IOException("Compiled section is out of date");
+
+		String[] strings = new String[readCount(din)];
+		byte[] bytes = new byte[256];
+		for (int s = 0; s < strings.length; s++) {
+			int length = readCount(din);
+			if (length > bytes.length)
+				bytes = new byte[Math.max(length, bytes.length * 2)];
+			din.readFully(bytes, 0, length);
+			strings[s] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+		}
+
+		int count = readCount(din);
+		byte[] tags = new byte[count];
+		String[] names = new String[count];
+		Attributes[] atts = new Attributes[count];
+		String[] trimmedContent = new String[count];
+		String[] untrimmedContent = new String[count];
+		for (int i = 0; i < count; i++) {
+			tags[i] = din.readByte();
+			if (tags[i] == START_TAG) {
+				String name = readString(din, strings);
+				if (name == null)
+					throw new IOException("Missing element name in compiled section");
+				// Interned, as they are by the compiler
+				names[i] = name.intern();
+				AttributesImpl a = new AttributesImpl();
+				for (int n = readCount(din); n > 0; n--) {
+					String uri = readString(din, strings);
+					String localName = readString(din, strings);
+					String qName = readString(din, strings);
+					String type = readString(din, strings);
+					a.addAttribute(uri, localName, qName, type, readString(din, strings));
+				}
+				atts[i] = a;
+			}
+			else if (tags[i] != END_TAG)
+				throw new IOException("Bad tag in compiled section");
+			trimmedContent[i] = readString(din, strings);
+			untrimmedContent[i] = readString(din, strings);
+		}
+
+		int size = readCount(din);
+		Address[] destinations = new Address[readCount(din)];
+		for (int d = 0; d < destinations.length; d++) {
+			String book = readString(din, strings);
+			destinations[d] = new Address(book, readString(din, strings));
+		}
+		return new CompiledSection(tags, names, atts, trimmedContent, untrimmedContent, size, destinations);
+	}
+
+	/**
+	 * Records the SAX events of a section file. Text is accumulated and condensed
+	 * in the same way ParserHandler does it.
+	 */
+	private static class Compiler extends DefaultHandler {
+		private final List<Byte> tags = new ArrayList<>();
+		private final List<String> names = new ArrayList<>();
+		private final List<Attributes> atts = new ArrayList<>();
+		private final List<String> trimmedContent = new ArrayList<>();
+		private final List<String> untrimmedContent = new ArrayList<>();
+		private int size = 0;
+		private final List<Address> destinations = new ArrayList<>();
+
+		private final TextNormalizer trimmed = new TextNormalizer();
+		private final TextNormalizer untrimmed = new TextNormalizer();
+		private boolean anyCharacters = false;
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes xmlAtts) {
+			addContent(false);
+			String name = localName.toLowerCase().intern();
+			tags.add(START_TAG);
+			names.add(name);
+			atts.add(new AttributesImpl(xmlAtts));
+			size += 16 + xmlAtts.getLength() * 16;
+
+			if (name.equals(GotoNode.ElementName) || name.equals(ChoiceNode.ElementName) || name.equals(ExtraChoice.ElementName)) {
+				String section = xmlAtts.getValue(GotoNode.SectionAttribute);
+				if (section != null) {
+					Address address = new Address(xmlAtts.getValue("book"), section);
+					if (!destinations.contains(address))
+						destinations.add(address);
+				}
+			}
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) {
+			addContent(true);
+			tags.add(END_TAG);
+			names.add(null);
+			atts.add(null);
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (length > 0) {
+				trimmed.append(ch, start, length, !anyCharacters);
+				untrimmed.append(ch, start, length, false);
+				anyCharacters = true;
+			}
+		}
+
+		private void addContent(boolean trimEnd) {
+			String trimmedStr = null, untrimmedStr = null;
+			if (anyCharacters) {
+				trimmedStr = trimmed.take(trimEnd);
+				untrimmedStr = untrimmed.take(trimEnd);
+				if (untrimmedStr.equals(trimmedStr))
+					untrimmedStr = trimmedStr;
+				size += trimmedStr.length() + (untrimmedStr == trimmedStr ? 0 : untrimmedStr.length());
+			}
+			trimmedContent.add(trimmedStr);
+			untrimmedContent.add(untrimmedStr);
+			anyCharacters = false;
+		}
+	}
+}
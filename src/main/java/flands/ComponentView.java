@@ -14,6 +14,8 @@ import javax.swing.text.Position;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.View;
 
+import flands.Log.Category;
+
 /**
  * Complete copy of ComponentView, part of the JDK.
  * This seems to be the class causing problems in some instances; I'm hoping to solve
@@ -102,7 +104,7 @@ public class ComponentView extends View {
     @Override
 	public void setParent(View p) {
     	if (p == null)
-    		System.out.println("ComponentView(null) called");
+    		Log.debug(Category.DOCUMENT, "ComponentView(null) called");
     	super.setParent(p);
     	setComponentParent();
     	/*
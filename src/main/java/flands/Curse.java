@@ -9,6 +9,8 @@ import java.util.Properties;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * A curse on the character - either a curse (magical), disease, or poison, although
  * the latter two are usually treated the same. Each curse will generally have
@@ -80,12 +82,13 @@ public class Curse implements XMLOutput {
 		if (cumulative) {
 			// Add any adjust effects together
 			for (Effect e = c.effect; e != null; e = e.nextEffect()) {
-				System.out.println("Adding effect " + e + " to " + effect);
-				effect.addEffect(e, true);
+				Effect added = e;
+				Log.debug(Category.ADVENTURER, () -> "Adding effect " + added + " to " + effect);
+				effect.addEffect(added, true);
 			}
 		}
 		else
-			System.out.println("Adding curses together doesn't make sense if they're not cumulative");
+			Log.debug(Category.ADVENTURER, "Adding curses together doesn't make sense if they're not cumulative");
 	}
 	public Item getItem() { return item; }
 	public void setItem(Item i) {
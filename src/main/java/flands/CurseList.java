@@ -21,6 +21,8 @@ import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPopupMenu;
 
+import flands.Log.Category;
+
 /**
  * The set of curses on the character. Includes methods for adding, matching and
  * removing curses from the list.
@@ -51,7 +53,7 @@ public class CurseList extends AbstractListModel<Curse> implements MouseListener
 			if ((c.getType() == Curse.DISEASE_TYPE || c.getType() == Curse.POISON_TYPE) &&
 				getAdventurer().getBlessings().hasBlessing(Blessing.DISEASE)) {
 				// Don't add the curse, but remove the blessing
-				System.out.println("Immunity cancels this curse");
+				Log.debug(Category.ADVENTURER, "Immunity cancels this curse");
 				getAdventurer().getBlessings().removeBlessing(Blessing.DISEASE);
 				return;
 			}
@@ -69,7 +71,7 @@ public class CurseList extends AbstractListModel<Curse> implements MouseListener
 			fireIntervalAdded(this, getSize() - 1, getSize() - 1);
 		}
 		else {
-			System.out.println("Trying for cumulative curse");
+			Log.debug(Category.ADVENTURER, "Trying for cumulative curse");
 			Curse thisc = curses.get(curses.indexOf(c));
 			if (thisc.isCumulative()) {
 				thisc.addCurse(c);
@@ -108,7 +110,8 @@ public class CurseList extends AbstractListModel<Curse> implements MouseListener
 		for (int i = 0; i < getSize(); i++) {
 			Curse c = getCurse(i);
 			if (match.matches(c)) {
-				System.out.println("Curse " + i + "=" + c.getName() + " is matched");
+				if (Log.isDebug(Category.ADVENTURER))
+					Log.debug(Category.ADVENTURER, "Curse " + i + "=" + c.getName() + " is matched");
 				matches[count++] = i;
 			}
 		}
@@ -1,5 +1,8 @@
 package flands;
 
+import flands.Log.Category;
+
+
 /**
  * Encapsulates a dice expression, of the form 'Xd + y'.
  * @see Roller
@@ -14,8 +17,8 @@ public class DiceExpression {
 	 * where x is the number of dice and
 	 * y is the adjustment.
 	 */
-	DiceExpression(String exp) {
-		exp = exp.toUpperCase();
+	DiceExpression(String expression) {
+		String exp = expression.toUpperCase();
 		dice = 0;
 		adjustment = 0;
 
@@ -25,7 +28,7 @@ public class DiceExpression {
 				dice = Integer.parseInt(exp.substring(0, index).trim());
 			}
 			catch (NumberFormatException nfe) {
-				System.out.println("Expected number before D: " + exp);
+				Log.debug(Category.EXECUTION, () -> "Expected number before D: " + exp);
 			}
 		}
 
@@ -40,7 +43,7 @@ public class DiceExpression {
 				adjustment = Integer.parseInt(index < 0 ? exp : exp.substring(index+1));
 			}
 			catch (NumberFormatException nfe) {
-				System.out.println("Expected adjustment number: " + exp);
+				Log.debug(Category.EXECUTION, () -> "Expected adjustment number: " + exp);
 			}
 		}
 	}
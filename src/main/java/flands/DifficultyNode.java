@@ -13,6 +13,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Action node that handles difficulty rolls (of the form, "make a X roll at Difficulty Y").
  * The result is stored in a variable, usually to be used by DifficultyResultNode; the
@@ -43,7 +45,7 @@ public class DifficultyNode extends ActionNode implements Executable, Roller.Lis
 	public void init(Attributes atts) {
 		level = getIntValue(atts, "level", -1);
 		if (level < 0)
-			System.out.println("Bad value for difficulty:level attribute: " + atts.getValue("level"));
+			Log.debug(Category.EXECUTION, () -> "Bad value for difficulty:level attribute: " + atts.getValue("level"));
 		var = atts.getValue("var");
 		abilities = Adventurer.getAbilityTypes(atts.getValue("ability"));
 		if (abilities.length == 1)
@@ -120,13 +122,13 @@ public class DifficultyNode extends ActionNode implements Executable, Roller.Lis
 	public boolean execute(ExecutableGrouper grouper) {
 		if (result < 0 && (flag == null || getFlags().getFlag(flag).getState())) {
 			// Set up for user to roll
-			System.out.println("DifficultyNode: ready to roll!");
+			Log.debug(Category.EXECUTION, "DifficultyNode: ready to roll!");
 			setEnabled(true);
 			return !force;
 		}
 		else {
 			// Already rolled
-			System.out.println("DifficultyNode: execute called after already rolled (or flag isn't set)!");
+			Log.debug(Category.EXECUTION, "DifficultyNode: execute called after already rolled (or flag isn't set)!");
 			return true;
 		}
 	}
@@ -180,7 +182,8 @@ public class DifficultyNode extends ActionNode implements Executable, Roller.Lis
 		if (adjustments != null) {
 			for (AdjustNode adjustment : adjustments)
 				delta += adjustment.getAdjustment();
-			System.out.println("Adjustment for difficulty=" + delta);
+			int total = delta;
+			Log.debug(Category.EXECUTION, () -> "Adjustment for difficulty=" + total);
 		}
 
 		roller = new Roller(adv.getDifficultyDice(), abilityScore + delta);
@@ -9,6 +9,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Handles the result of a difficulty roll.
  * @author Jonathan Mann
@@ -106,7 +108,7 @@ public class DifficultyResultNode extends ActionNode implements Executable {
 			gotoParagraph.handleEndTag();
 		}
 
-		System.out.println("DifficultyResultNode adding itself as Executable child");
+		Log.debug(Category.EXECUTION, "DifficultyResultNode adding itself as Executable child");
 		addExecutableNode(this);
 
 		return super.handleEndTag();
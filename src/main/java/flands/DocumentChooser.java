@@ -16,6 +16,8 @@ import javax.swing.JScrollPane;
 import javax.swing.ListSelectionModel;
 import javax.swing.text.StyledDocument;
 
+import flands.Log.Category;
+
 /**
  * Pop-up to display a list of formatted items, of which the player must choose one or more.
  * @author Jonathan Mann
@@ -94,7 +96,7 @@ public class DocumentChooser extends JDialog implements java.awt.event.ActionLis
 		String command = evt.getActionCommand();
 		if (command.equals(CommandButtons.okCommand)) {
 			selectedIndices = list.getSelectedIndices();
-			System.out.println("Selected indices has length " + selectedIndices.length);
+			Log.debug(Category.DOCUMENT, () -> "Selected indices has length " + selectedIndices.length);
 		}
 		else if (command.equals(CommandButtons.cancelCommand))
 			;
@@ -7,6 +7,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * General effect node, used as child of a 'thing' which has an effect attached.
  * @author Jonathan Mann
@@ -52,7 +54,7 @@ public class EffectNode extends Node {
 		else if (curse != null)
 			curse.addEffect(effect);
 		else
-			System.out.println("EffectNode: didn't have item or curse to add effect to!");
+			Log.debug(Category.EXECUTION, "EffectNode: didn't have item or curse to add effect to!");
 	}
 
 	@Override
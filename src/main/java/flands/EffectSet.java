@@ -1,13 +1,17 @@
 package flands;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.text.AttributeSet;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 
+import flands.Log.Category;
+
 /**
  * Keeps track of all the things affecting the players abilities.
  * A sorted list of effects, or items, is kept for each ability: the natural ability
@@ -42,18 +46,34 @@ public class EffectSet {
 		 * - records without Effects are in no particular order (simple items only have +/- effect)
 		 * - Effects are sorted by description if present
 		 * - Effects are sorted by type (AURA, WIELD, USE, TOOL in order)
+		 * - anything else is told apart by its source, in a fixed (if arbitrary) order
 		 */
 		@Override
 		public int compareTo(EffectRecord r) {
-			if ((src == r.src || src.equals(r.src)) && effect == r.effect) return 0;
+			boolean sameSrc = (src == r.src || src.equals(r.src));
+			if (sameSrc && effect == r.effect) return 0;
 
-			if (effect == null) return 1;
+			if (effect == null) {
+				if (r.effect != null) return 1;
+			}
 			else if (r.effect == null) return -1;
 			else {
 				int effectcmp = effect.compareTo(r.effect);
-				return (effectcmp != 0 ? effectcmp :
-					src.hashCode() - r.src.hashCode());
+				if (effectcmp != 0 || sameSrc)
+					return effectcmp;
 			}
+			return compareSources(src, r.src);
+		}
+
+		/**
+		 * Order two unequal sources. Subtracting hash codes could overflow and give
+		 * an ordering that changes from one comparison to the next.
+		 */
+		private static int compareSources(Object s1, Object s2) {
+			int cmp = Integer.compare(s1.hashCode(), s2.hashCode());
+			if (cmp == 0)
+				cmp = Integer.compare(System.identityHashCode(s1), System.identityHashCode(s2));
+			return cmp;
 		}
 
 		public boolean equals(Object o) {
@@ -87,9 +107,31 @@ public class EffectSet {
 		public String toString() { return "[src=" + src + ",effect=" + effect + "]"; }
 	}
 
+	/** The modifiers (Adventurer.MODIFIER_*) that adjusted values are remembered for. */
+	private static final int ModifierCount = 5;
+
 	private Adventurer owner;
 	private SortedSet[] statRelated;
 	private boolean[] updatedAbilities;
+	/*
+	 * The last result of adjustAbility for each ability and modifier, the value it
+	 * started from, and the count of item changes at the time. These stay good until
+	 * the ability's effects change (see abilityUpdated), or any item or effect is changed
+	 * in place (see itemChanged).
+	 */
+	private boolean[][] adjustedValid;
+	private int[][] adjustedFrom, adjustedValue, adjustedStamp;
+
+	/*
+	 * Counts changes made directly to items and effects (bonuses, wielded or worn state),
+	 * which may alter adjusted values without going through this class.
+	 */
+	private static final AtomicInteger itemChanges = new AtomicInteger();
+
+	/** Note that an item or effect has been changed in a way that could alter an ability. */
+	static void itemChanged() {
+		itemChanges.incrementAndGet();
+	}
 
 	public EffectSet(Adventurer owner) {
 		this.owner = owner;
@@ -97,6 +139,10 @@ public class EffectSet {
 		for (int i = 0; i < statRelated.length; i++)
 			statRelated[i] = new TreeSet<EffectRecord>();
 		updatedAbilities = new boolean[statRelated.length];
+		adjustedValid = new boolean[statRelated.length][ModifierCount];
+		adjustedFrom = new int[statRelated.length][ModifierCount];
+		adjustedValue = new int[statRelated.length][ModifierCount];
+		adjustedStamp = new int[statRelated.length][ModifierCount];
 	}
 
 	public Adventurer getAdventurer() { return owner; }
@@ -114,6 +160,7 @@ public class EffectSet {
 
 	private void abilityUpdated(int a) {
 		updatedAbilities[a] = true;
+		Arrays.fill(adjustedValid[a], false);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -137,11 +184,11 @@ public class EffectSet {
 		
 		for (int a = a1; a < a2; a++) {
 			if (!getStatRelated(a).contains(r)) {
-				System.out.println("Didn't already have this ability effect");
+				Log.debug(Category.ADVENTURER, "Didn't already have this ability effect");
 				getStatRelated(a).add(r);
 			}
 			else
-				System.out.println("Already had this ability effect");
+				Log.debug(Category.ADVENTURER, "Already had this ability effect");
 			
 			abilityUpdated(a); // either way - the ability effect may have been modified
 		}
@@ -232,7 +279,29 @@ public class EffectSet {
 		return adjustAbility(ability, value, Adventurer.MODIFIER_AFFECTED);
 	}
 
+	/**
+	 * Apply the effects on an ability to the given value. The result is remembered,
+	 * so asking again (with the same value) is cheap until the ability's effects,
+	 * or any item, change.
+	 */
 	int adjustAbility(int ability, int value, int modifier) {
+		if (modifier < 0 || modifier >= ModifierCount)
+			return calculateAbility(ability, value, modifier);
+
+		int stamp = itemChanges.get();
+		if (adjustedValid[ability][modifier] && adjustedFrom[ability][modifier] == value &&
+				adjustedStamp[ability][modifier] == stamp)
+			return adjustedValue[ability][modifier];
+
+		int adjusted = calculateAbility(ability, value, modifier);
+		adjustedFrom[ability][modifier] = value;
+		adjustedValue[ability][modifier] = adjusted;
+		adjustedStamp[ability][modifier] = stamp;
+		adjustedValid[ability][modifier] = true;
+		return adjusted;
+	}
+
+	private int calculateAbility(int ability, int value, int modifier) {
 		boolean applyTool = true, applyArmour = true, applyAura = true;
 		switch (modifier) {
 		case Adventurer.MODIFIER_NATURAL:
@@ -3,6 +3,8 @@ package flands;
 import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 
+import flands.Log.Category;
+
 /**
  * The standard implementation of ExecutableGrouper. Generally used by Nodes
  * (and with support for this).
@@ -33,12 +35,28 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 		}
 	}
 
+	/**
+	 * Records where execution stopped: the child that was blocked, and its place
+	 * in the list, so that it can be picked up again from the next child.
+	 */
+	private static final class Continuation {
+		private final Executable blocked;
+		private final int index;
+
+		private Continuation(Executable blocked, int index) {
+			this.blocked = blocked;
+			this.index = index;
+		}
+	}
+
 	private ArrayList<Executable> executableList = new ArrayList<>();
 	private String debugName;
 	// The Executable node that should be passed as an argument to parent groupers (in continueExecution())
 	private Executable owner;
-	// The separate thread that Executables are being called on
-	private Thread thread = null;
+	// Where to carry on when the blocked child calls back
+	private Continuation parked = null;
+	// Total time spent executing children, not counting time spent blocked
+	private long executionNanos = 0;
 	// The grouper running this Executable
 	private ExecutableGrouper grouper = null;
 	private boolean autoAction = false;
@@ -75,20 +93,18 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 	 */
 	@Override
 	public void continueExecution(Executable eDone, boolean inSeparateThread) {
-		System.out.println("continueExecution callback from child " + eDone);
+		Log.debug(Category.EXECUTION, () -> "continueExecution callback from child " + eDone);
 		int startAtIndex = 0;
 		if (eDone != null)
-			startAtIndex = executableList.indexOf(eDone) + 1;
-
-		if (inSeparateThread)
-			thread = Thread.currentThread();
+			startAtIndex = resumeIndex(eDone);
 
 		boolean finished = startExecution(startAtIndex);
-		thread = null;
 
 		if (finished) {
 			UndoManager.getCurrent().ignoreCalls(false);
-			if (grouper != null) {
+			if (grouper == null)
+				logExecutionTime();
+			else {
 				// Tell the parent who called us (some time ago) that we're finished
 				ExecutableGrouper parent = grouper;
 				//grouper = null;
@@ -103,12 +119,9 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 	@Override
 	public boolean execute(ExecutableGrouper grouper) {
 		this.grouper = grouper;
-		if (grouper.isSeparateThread())
-			thread = Thread.currentThread();
 
 		UndoManager.getCurrent().ignoreCalls(true);
 		boolean finished = startExecution(0);
-		thread = null;
 		if (finished) {
 			UndoManager.getCurrent().ignoreCalls(false);
 		}
@@ -117,13 +130,37 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 
 	boolean willCallContinue() { return (grouper != null); }
 	void setCallback(ExecutableGrouper grouper) { this.grouper = grouper; }
-	
+
+	/**
+	 * Find where to carry on after a child has finished. This is normally the
+	 * child after the one that was parked; any other child is looked for in the list.
+	 */
+	private int resumeIndex(Executable eDone) {
+		Continuation c = parked;
+		parked = null;
+		if (c != null && c.blocked == eDone)
+			return c.index + 1;
+
+		Log.debug(Category.EXECUTION, () -> "continueExecution from " + eDone + " wasn't the parked child; searching");
+		return executableList.indexOf(eDone) + 1;
+	}
+
 	/**
 	 * Step through the list of Executables, executing each in turn.
 	 * @return <code>true</code> if each one returns <code>true</code>;
 	 * <code>false</code> when one is blocked.
 	 */
 	private boolean startExecution(int eIndex) {
+		long start = System.nanoTime();
+		try {
+			return executeFrom(eIndex);
+		}
+		finally {
+			executionNanos += System.nanoTime() - start;
+		}
+	}
+
+	private boolean executeFrom(int eIndex) {
 		for (int e = eIndex; e < executableList.size(); e++) {
 			Executable executable = executableList.get(e);
 			//System.out.println("Will execute child " + e + ": " + get(e));
@@ -134,28 +171,28 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 				if (n.isEnabled())
 					n.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, debugName));
 			}
-			if (!canContinue)
+			if (!canContinue) {
+				parked = new Continuation(executable, e);
 				return false;
+			}
 		}
 		return true;
 	}
 
-	/** Return whether this is running on a separate thread. */
+	/** Return whether this is running on the game thread, away from the event thread. */
 	@Override
 	public boolean isSeparateThread() {
-		return Thread.currentThread() == thread;
+		return GameThread.isCurrent();
 	}
 
 	/**
 	 * Start executing each child in turn.
 	 * This can be called on the root to start the whole process.
-	 * @param separateThread whether a separate thread should be created to do it.
+	 * @param separateThread whether to do it on the game thread rather than this one.
 	 */
 	void startExecution(boolean separateThread) {
-		if (separateThread) {
-			thread = new Thread(this);
-			thread.start();
-		}
+		if (separateThread)
+			GameThread.execute(this);
 		else
 			run();
 	}
@@ -163,9 +200,23 @@ public class ExecutableRunner implements ExecutableGrouper, Executable, Runnable
 	/** Runnable method. */
 	@Override
 	public void run() {
+		parked = null;
+		executionNanos = 0;
 		UndoManager.getCurrent().ignoreCalls(true);
-		if (startExecution(0))
+		if (startExecution(0)) {
 			UndoManager.getCurrent().ignoreCalls(false);
+			logExecutionTime();
+		}
+	}
+
+	/**
+	 * Get the time spent executing the children since this was started,
+	 * in nanoseconds. Time spent waiting on a blocked child isn't counted.
+	 */
+	long getExecutionTime() { return executionNanos; }
+
+	private void logExecutionTime() {
+		Log.debug(Category.EXECUTION, () -> String.format("%s finished in %.3fms", this, executionNanos / 1e6));
 	}
 
 	private void resetChildren() {
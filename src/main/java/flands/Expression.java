@@ -1,6 +1,8 @@
 package flands;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * A simple expression parser and evaluator. Accepted identifiers must start with a
@@ -14,6 +16,11 @@ import java.util.Arrays;
  * SetVarNode extends the implementation of Resolver to recognise 'armour', 'weapon',
  * 'stamina', 'crew', 'shards', and ability names.
  * <p>
+ * An expression is parsed once, and any parts of it that don't involve identifiers
+ * are worked out there and then. A {@link SlotResolver} can also have each identifier
+ * looked up once, in {@link #bind(SlotResolver)}, so that evaluating it again
+ * doesn't involve comparing names.
+ * <p>
  * Constructed from hazy memories of Compiler Construction and a simple EBNF grammar.
  * 
  * @author Jonathan Mann
@@ -23,25 +30,59 @@ public class Expression {
 		int resolveIdentifier(String name);
 	}
 
+	/**
+	 * A Resolver that can turn an identifier into a number ahead of time, and
+	 * then resolve it from that number.
+	 */
+	public interface SlotResolver extends Resolver {
+		/**
+		 * @return a slot number for the identifier, or <code>-1</code> if it should
+		 * be resolved by name each time.
+		 */
+		int bindIdentifier(String name);
+		int resolveSlot(int slot, String name);
+	}
+
 	public static abstract class ExpNode {
 		static final int NO_OP = 0;
 		public abstract int evaluate(Resolver r);
+		/** Return a simpler node that gives the same result, or this node. */
+		ExpNode fold() { return this; }
 	}
 
 	private String text;
 	private int off;
 	private ExpNode root;
+	private final List<Ident> identifiers = new ArrayList<>();
 
 	public Expression(String text) {
 		this.text = format(text);
 		off = 0;
-		root = expr1();
+		root = expr1().fold();
 	}
 
 	public ExpNode getRoot() {
 		return root;
 	}
 
+	public int evaluate(Resolver r) {
+		return root.evaluate(r);
+	}
+
+	/** Whether the expression contains no identifiers, and so always has the same value. */
+	public boolean isConstant() {
+		return (root instanceof Num);
+	}
+
+	/**
+	 * Look up the slot for every identifier. The expression should then only be
+	 * evaluated with the same resolver.
+	 */
+	public void bind(SlotResolver r) {
+		for (Ident i : identifiers)
+			i.slot = r.bindIdentifier(i.ident);
+	}
+
 	private static char endch = '$';
 	private String format(String text) {
 		StringBuilder sb = new StringBuilder();
@@ -150,9 +191,11 @@ public class Expression {
 				break;
 		}
 		
-		String id = text.substring(off, end);
+		String id = text.substring(off, end).intern();
 		off = end;
-		return new Ident(id);
+		Ident i = new Ident(id);
+		identifiers.add(i);
+		return i;
 	}
 
 	private static class Expr1 extends ExpNode {
@@ -180,6 +223,17 @@ public class Expression {
 			return 0;
 		}
 
+		@Override
+		ExpNode fold() {
+			n1 = n1.fold();
+			if (op == NO_OP)
+				return n1;
+			n2 = n2.fold();
+			if (n1 instanceof Num && n2 instanceof Num)
+				return new Num(evaluate(null));
+			return this;
+		}
+
 		public String toString() {
 			String s1 = n1.toString();
 			switch (op) {
@@ -219,6 +273,18 @@ public class Expression {
 			return 0;
 		}
 
+		@Override
+		ExpNode fold() {
+			n1 = n1.fold();
+			if (op == NO_OP)
+				return n1;
+			n2 = n2.fold();
+			// Leave division by zero to fail when evaluated, as it always has
+			if (n1 instanceof Num && n2 instanceof Num && (op != DIVIDE_OP || ((Num)n2).val != 0))
+				return new Num(evaluate(null));
+			return this;
+		}
+
 		public String toString() {
 			String s1 = n1.toString();
 			switch (op) {
@@ -256,6 +322,16 @@ public class Expression {
 			return 0;
 		}
 
+		@Override
+		ExpNode fold() {
+			n = n.fold();
+			if (lead == PLUS_LEAD)
+				return n;
+			if (n instanceof Num)
+				return new Num(-((Num)n).val);
+			return this;
+		}
+
 		public String toString() {
 			String s = n.toString();
 			return (lead == MINUS_LEAD ? "-" + s : s);
@@ -281,6 +357,7 @@ public class Expression {
 
 	private static class Ident extends ExpNode {
 		private String ident;
+		private int slot = -1;
 
 		Ident(String ident) {
 			this.ident = ident;
@@ -288,6 +365,8 @@ public class Expression {
 
 		@Override
 		public int evaluate(Resolver r) {
+			if (slot >= 0)
+				return ((SlotResolver)r).resolveSlot(slot, ident);
 			return r.resolveIdentifier(ident);
 		}
 
@@ -15,6 +15,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An extra choice is one which will be enabled in particular sections,
  * eg. the entrance to the sewers in Yellowport. They are first seen as ActionNodes,
@@ -270,7 +272,7 @@ public class ExtraChoice extends ActionNode implements Executable {
 
 		void checkMenu() {
 			if (choiceMenu == null) {
-				System.out.println("ExtraChoice.List.checkMenu() called, menu has not yet been set");
+				Log.debug(Category.EXECUTION, "ExtraChoice.List.checkMenu() called, menu has not yet been set");
 				return;
 			}
 
@@ -21,13 +21,14 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.PrintStream;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.swing.JComponent;
 import javax.swing.JFileChooser;
@@ -41,16 +42,16 @@ import javax.swing.JTextPane;
 import javax.swing.JToolTip;
 import javax.swing.Popup;
 import javax.swing.PopupFactory;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileFilter;
 import javax.swing.text.Document;
 import javax.swing.text.Element;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 
 import org.xml.sax.SAXException;
 
 import flands.resources.Resources;
+import flands.Log.Category;
 
 /**
  * The main window. This should coordinate other classes and watch for user
@@ -398,8 +399,9 @@ public class FLApp extends JFrame implements MouseListener,
 			Books.BookDetails book = Address.getCurrentBook();
 			String mapFile = book.getMapFilename();
 			String mapTitle = book.getMapTitle();
-			if (mapFile != null) {
-				mapWindow = createImageWindow(book.getInputStream(mapFile), mapTitle, false);
+			if (mapFile != null)
+				mapWindow = createImageWindow(book, mapFile, mapTitle, false);
+			if (mapWindow != null) {
 				WindowProperties windowProps = WindowProperties.create("LocalMap", userProps);
 				if (windowProps == null) {
 					Dimension screenSize = getActualScreenSize();
@@ -520,8 +522,7 @@ public class FLApp extends JFrame implements MouseListener,
 	}
 
 	private boolean gotoSection(String section) {
-		if (gotoFile(Address.getCurrentBook().getInputStream(section + ".xml"),
-				     Address.getCurrentBookKey())) {
+		if (gotoFile(new Address(Address.getCurrentBookKey(), section))) {
 			currentSection = section;
 			((SectionNode)rootNode).setSection(currentSection);
 			if (adventurer != null)
@@ -532,54 +533,184 @@ public class FLApp extends JFrame implements MouseListener,
 			return false;
 	}
 
+	private boolean isCurrentSection(Address address) {
+		return address.getBook().equals(Address.getCurrentBookKey()) &&
+			address.section.equals(currentSection);
+	}
+
 	boolean gotoAddress(Address address) {
-		if (address.getBook().equals(Address.getCurrentBookKey()) &&
-			address.section.equals(currentSection))
+		cancelNavigation();
+		if (isCurrentSection(address))
 			// Same section!
 			// If we allow this, a <return> might break - so ignore.
 			return true;
 
-		if (gotoFile(address.getStream(), address.getBook())) {
-			if (Address.setCurrentBookKey(address.getBook())) {
-				updateLocalMap();
-				updateActiveRules(Address.getCurrentBook().getRequiredRules());
-			}
-			currentSection = address.section;
-			((SectionNode)rootNode).setSection(currentSection);
-			if (adventurer != null)
-				adventurer.getExtraChoices().checkMenu();
-			else if (starting == null) {
-				starting = Adventurer.loadStarting(Address.getCurrentBook());
-
-				// Resize and center the window again
-				//centerWindow(true);
-			}
+		if (gotoFile(address)) {
+			enteredAddress(address);
 			return true;
 		}
 		else
 			return false;
 	}
 
+	/**
+	 * Update the current book and section after the section at the given
+	 * address has been displayed.
+	 */
+	private void enteredAddress(Address address) {
+		if (Address.setCurrentBookKey(address.getBook())) {
+			updateLocalMap();
+			updateActiveRules(Address.getCurrentBook().getRequiredRules());
+		}
+		currentSection = address.section;
+		((SectionNode)rootNode).setSection(currentSection);
+		if (adventurer != null)
+			adventurer.getExtraChoices().checkMenu();
+		else if (starting == null) {
+			starting = Adventurer.loadStarting(Address.getCurrentBook());
+
+			// Resize and center the window again
+			//centerWindow(true);
+		}
+	}
+
+	private ExecutorService sectionLoader = null;
+	private CompletableFuture<SectionNode> pendingNavigation = null;
+
+	private ExecutorService getSectionLoader() {
+		if (sectionLoader == null) {
+			sectionLoader = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "SectionLoader");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return sectionLoader;
+	}
+
+	/**
+	 * Go to a section without blocking the event thread while it is read and parsed.
+	 * Building the section's nodes touches the adventurer and Swing components, so that,
+	 * along with displaying the section and starting its execution, is done back on the
+	 * event thread. This must be called on the event thread.
+	 * <p>
+	 * If another navigation starts before this one has finished, this one is cancelled;
+	 * so several quick clicks only take the player to the last of them.
+	 * @return a future that gives the new root node, or fails if the section couldn't
+	 * be loaded, or is cancelled if it was overtaken.
+	 */
+	CompletableFuture<SectionNode> navigate(final Address address) {
+		return navigate(address, null);
+	}
+
+	/**
+	 * Go to a section as {@link #navigate(Address)} does, first running the given
+	 * task on the event thread once the section has been loaded, just before it is
+	 * shown. The task isn't run if this navigation is cancelled or fails to load,
+	 * so it can hold changes that should only be made if the player really leaves.
+	 */
+	CompletableFuture<SectionNode> navigate(final Address address, final Runnable beforeShow) {
+		cancelNavigation();
+		if (isCurrentSection(address)) {
+			if (beforeShow != null)
+				beforeShow.run();
+			return CompletableFuture.completedFuture((SectionNode)rootNode);
+		}
+
+		SectionPrefetcher.cancel();
+		textPane.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+		final CompletableFuture<SectionNode> result = new CompletableFuture<>();
+		pendingNavigation = result;
+		// Run both halves against this game, whichever threads they end up on
+		Executor loader = GameSession.bind(getSectionLoader());
+		Executor edt = GameSession.bind((Executor)SwingUtilities::invokeLater);
+		CompletableFuture.supplyAsync(() -> {
+			try {
+				return SectionCache.get(address);
+			}
+			catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, loader).whenCompleteAsync((section, ex) -> {
+			if (result.isDone())
+				// Cancelled by a later navigation
+				return;
+			pendingNavigation = null;
+			if (ex != null) {
+				ex.printStackTrace();
+				textPane.setCursor(Cursor.getDefaultCursor());
+				result.completeExceptionally(ex);
+				return;
+			}
+
+			if (beforeShow != null)
+				beforeShow.run();
+			if (showSection(address, section)) {
+				enteredAddress(address);
+				result.complete((SectionNode)rootNode);
+			}
+			else {
+				textPane.setCursor(Cursor.getDefaultCursor());
+				result.completeExceptionally(new IOException("Couldn't load section " + address));
+			}
+		}, edt);
+		return result;
+	}
+
+	/**
+	 * Cancel any navigation still loading, so that it can't replace a section
+	 * that has been gone to since.
+	 */
+	private void cancelNavigation() {
+		if (pendingNavigation != null) {
+			pendingNavigation.cancel(false);
+			pendingNavigation = null;
+			textPane.setCursor(Cursor.getDefaultCursor());
+		}
+	}
+
 	private void updateLocalMap() {
 		Books.BookDetails book = Address.getCurrentBook();
 		if (mapWindow != null) {
 			String mapFile = book.getMapFilename();
 			if (mapFile != null)
-				updateImage(mapWindow, loadImage(book.getInputStream(mapFile)), book.getMapTitle());
+				updateImage(mapWindow, loadImage(book, mapFile), book.getMapTitle());
 		}
 		String iconFilename = book.getIconFilename();
 		if (iconFilename != null)
 			setIconImage(loadImage(iconFilename));
 	}
 
-	private boolean gotoFile(InputStream in, String book)  {
+	private boolean gotoFile(Address address)  {
+		// This jump takes priority over any navigate() still loading
+		cancelNavigation();
+		CompiledSection section;
+		try {
+			SectionPrefetcher.cancel();
+			section = SectionCache.get(address);
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+		return showSection(address, section);
+	}
+
+	/**
+	 * Build a new node tree for the compiled section, display it and start its execution.
+	 */
+	private boolean showSection(Address address, CompiledSection section) {
+		if (section == null) {
+			Log.debug(Category.GAME, () -> "Couldn't find section " + address);
+			return false;
+		}
 		try {
 			ParserHandler handler = getHandler();
-			handler.setBook(book);
-			SAXParser parser = createSAXParser();
-			parser.parse(in, handler);
+			handler.setBook(address.getBook());
+			handler.build(section);
+			SectionPrefetcher.prefetch(section, address.getBook());
 
-			// Parsing is now finished!
+			// Building is now finished!
 			closeSectionWindows();
 			unhighlight();
 			if (lastRootNode != null)
@@ -604,6 +735,8 @@ public class FLApp extends JFrame implements MouseListener,
 	SectionDocument getCurrentDocument() { return document; }
 
 	void returnFromSection() {
+		// Going back takes priority over any navigate() still loading
+		cancelNavigation();
 		if (lastDocument != null) {
 			closeSectionWindows();
 			unhighlight();
@@ -716,7 +849,7 @@ public class FLApp extends JFrame implements MouseListener,
 			} catch (javax.swing.text.BadLocationException e) {
 				// Often happens around ComponentViews
 				if (!reportedBadLocation) {
-					System.out.println(Resources.GuiTextFormat("BadLocationException", e));
+					Log.debug(Category.GAME, () -> Resources.GuiTextFormat("BadLocationException", e));
 					reportedBadLocation = true;
 				}
 			}
@@ -824,8 +957,8 @@ public class FLApp extends JFrame implements MouseListener,
 		return createImageWindow(i, title, sectionOnly);
 	}
 
-	ImageWindow createImageWindow(InputStream in, String title, boolean sectionOnly) {
-		Image i = loadImage(in);
+	ImageWindow createImageWindow(Books.BookDetails book, String imageFilename, String title, boolean sectionOnly) {
+		Image i = loadImage(book, imageFilename);
 		return createImageWindow(i, title, sectionOnly);
 	}
 
@@ -860,7 +993,8 @@ public class FLApp extends JFrame implements MouseListener,
 	*/
 
 	private void updateImage(ImageWindow iw, Image i, String title) {
-		iw.setImage(i, title);
+		if (i != null)
+			iw.setImage(i, title);
 	}
 
 	// Notification that an action has taken place - something affecting the game state.
@@ -876,6 +1010,9 @@ public class FLApp extends JFrame implements MouseListener,
 		}
 
 		saveUserProperties();
+		Books.closeArchives();
+		Log.debug(Category.GAME, () -> SectionCache.getStatistics() + " " + ImageCache.getStatistics());
+		Log.debug(Category.PARSER, Node::getElementStatistics);
 		setVisible(false);
 		dispose();
 		System.exit(0);
@@ -1010,7 +1147,8 @@ public class FLApp extends JFrame implements MouseListener,
 			if (globalMapWindow == null)
 				globalMapWindow = createImageWindow("global.jpg",
 						Resources.GuiText("GlobalMapTitle"), false);
-			globalMapWindow.setVisible(true);
+			if (globalMapWindow != null)
+				globalMapWindow.setVisible(true);
 			break;
 		case showShipListCommand:
 			showShipWindow();
@@ -1103,6 +1241,8 @@ public class FLApp extends JFrame implements MouseListener,
 		showStartWindow();
 		if (recenter)
 			gotoSection("New");
+		if (adventurer != null)
+			adventurer.getCodewords().discard();
 		adventurer = null;
 		starting = null;
 		Address.setCurrentBookKey(null);
@@ -1153,10 +1293,9 @@ public class FLApp extends JFrame implements MouseListener,
 		if (result == JFileChooser.APPROVE_OPTION) {
 			File file = chooser.getSelectedFile();
 			userProps.setProperty("SaveDir", file.getParent());
-			String path = file.getPath();
-			if (!path.endsWith(".dat"))
-				path += ".dat";
-			System.out.println("Chosen path " + path);
+			String name = file.getPath();
+			String path = (name.endsWith(".dat") ? name : name + ".dat");
+			Log.debug(Category.GAME, () -> "Chosen path " + path);
 			return path;
 		}
 		else
@@ -1176,14 +1315,20 @@ public class FLApp extends JFrame implements MouseListener,
 			filename = saveFilename;
 		File loadFile = null;
 		if (load) {
+			// A section still loading mustn't replace the loaded one
+			cancelNavigation();
 			loadFile = new File(filename);
 			if (!loadFile.exists())
 				return;
-			System.out.println("File last modified: " + loadFile.lastModified());
+			if (Log.isDebug(Category.GAME))
+				Log.debug(Category.GAME, "File last modified: " + loadFile.lastModified());
 			
 			if (!endGame(Resources.GuiText("SaveBeforeLoadGameQuery")))
 				return;
 
+			// Stop the old game's codewords being written over the new ones
+			if (oldAdv != null)
+				oldAdv.getCodewords().discard();
 			adventurer = new Adventurer();
 		}
 		else if (!hasPickedAdventurer())
@@ -1207,6 +1352,8 @@ public class FLApp extends JFrame implements MouseListener,
 
 		if (load) {
 			if (handler.load()) {
+				// In case one was started while asking about saving
+				cancelNavigation();
 				if (oldAdv == null)
 					restoreMainWindowBounds();
 
@@ -1296,7 +1443,10 @@ public class FLApp extends JFrame implements MouseListener,
 			}
 			else {
 				JOptionPane.showMessageDialog(this, new String[] { Resources.GuiText("LoadGameFailMessage1"), Resources.GuiText("LoadGameFailMessage2") }, Resources.GuiText("LoadGameFailTitle"), JOptionPane.ERROR_MESSAGE);
+				adventurer.getCodewords().discard();
 				adventurer = oldAdv;
+				if (oldAdv != null)
+					oldAdv.getCodewords().reopen();
 			}
 		}
 		else {
@@ -1310,102 +1460,27 @@ public class FLApp extends JFrame implements MouseListener,
 	}
 
 	/**
-	 * Load an image from a file.
+	 * Load an image from a file in the application folder.
+	 * @return the image, or <code>null</code> if it couldn't be read.
 	 */
 	private Image loadImage(String filename) {
-		return getToolkit().createImage(filename);
+		return ImageCache.get(null, filename);
 	}
 
 	/**
-	 * Load an image from an InputStream.
+	 * Load an image from a book.
+	 * @return the image, or <code>null</code> if it couldn't be read.
 	 */
-	Image loadImage(InputStream in) {
-		try {
-			byte[] bs = new byte[Math.max(8192, in.available() + 8)];
-			int len = 0;
-			int count;
-			while ((count = in.read(bs, len, bs.length - len)) >= 0) {
-				//System.out.println("Read " + count + " bytes");
-				len += count;
-				if (len + in.available() >= bs.length) {
-					byte[] temp = bs;
-					bs = new byte[bs.length * 2];
-					System.out.println("Extended byte array to " + bs.length);
-					System.arraycopy(temp, 0, bs, 0, len);
-				}
-			}
-			return getToolkit().createImage(bs, 0, len);
-		}
-		catch (IOException ioe) {
-			ioe.printStackTrace();
-		}
-		return null;
+	Image loadImage(Books.BookDetails book, String filename) {
+		return ImageCache.get(book.getKey(), filename);
 	}
 
 	/**
-	 * Convert a simple wildcarded string (that uses ? or * marks)
-	 * into a regex pattern for pattern-matching.
+	 * Create a new SAX parser. Most parsing should go through {@link ParserPool}
+	 * instead, which reuses them.
 	 */
-	static Pattern createNamePattern(String name) {
-		StringBuilder patternStr = new StringBuilder("^");
-		for (int i = 0; i < name.length(); i++) {
-			char ch = name.charAt(i);
-			if (ch == '*')
-				patternStr.append(".*");
-			else if (ch == '?')
-				patternStr.append('.');
-			else
-				patternStr.append(ch);
-		}
-		patternStr.append('$');
-		return Pattern.compile(patternStr.toString());
-	}
-
-	private static OutputStream standardOut;
-	private static PrintStream defaultOut;
-	private static void blockOutput() {
-		if (defaultOut == null)
-			defaultOut = System.out;
-
-		if (defaultOut == System.out) {
-			standardOut = new OutputStream() {
-				@Override
-				public void write(byte[] b, int off, int len) {
-					/* ignore all output */
-				}
-				@Override
-				public void write(int b) {
-					/* ignore all output */
-				}
-			};
-			System.setOut(new PrintStream(standardOut));
-		}
-	}
-
-	public static void unblockOutput() {
-		if (defaultOut != System.out)
-			System.setOut(defaultOut);
-	}
-
-	private static SAXParserFactory saxParserFactory = null;
-
-	private static SAXParserFactory getSaxParserFactory() {
-		if (saxParserFactory == null) {
-			saxParserFactory = SAXParserFactory.newInstance();
-			saxParserFactory.setNamespaceAware(true);
-		}
-		return saxParserFactory;
-	}
-
 	static SAXParser createSAXParser() throws SAXException {
-		SAXParser saxParser = null;
-		try {
-			saxParser = getSaxParserFactory().newSAXParser();
-		}
-		catch (ParserConfigurationException e) {
-			e.printStackTrace();
-		}
-		return saxParser;
+		return ParserPool.newParser();
 	}
 
 	public static void main(String args[]) {
@@ -1425,10 +1500,10 @@ public class FLApp extends JFrame implements MouseListener,
 		*/
 		FLApp app = FLApp.getSingle();
 		debugging = false;
-		if (args.length > 0)
+		if (args.length > 0) {
 			debugging = true;
-		else
-			blockOutput();
+			Log.setLevel(Log.Level.DEBUG);
+		}
 
 		String section = null;
 		if (args.length > 1) {
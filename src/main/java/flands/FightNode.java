@@ -3,8 +3,6 @@ package flands;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Properties;
 
@@ -15,6 +13,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * The node that handles combat for the character. Rather complicated: players may flee
  * some fights at arbitrary moments, the enemy may do different sorts of damage,
@@ -25,8 +25,6 @@ import org.xml.sax.Attributes;
  */
 public class FightNode extends Node implements Executable, ActionListener, Roller.Listener {
 	public static final String ElementName = "fight";
-	private static List<FightNode> groupFights = new LinkedList<>();
-
 	private static class FightIterator implements Iterator<FightNode> {
 		private String group;
 		private Iterator<FightNode> i;
@@ -69,7 +67,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	}
 
 	private static Iterator<FightNode> getFights(String group) {
-		return new FightIterator(groupFights.iterator(), group);
+		return new FightIterator(GameSession.getCurrent().groupFights.iterator(), group);
 	}
 
 	private EnemyDetails detailsNode;
@@ -125,19 +123,19 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 			ItemList cacheItems = CacheNode.getItemCache(useCache);
 			if (cacheItems != null) {
 				EffectSet effects = cacheItems.createTempEffects();
-				System.out.println("Stats before=(" + combat + "," + defence + "," + stamina + ")");
+				Log.debug(Category.COMBAT, () -> "Stats before=(" + combat + "," + defence + "," + stamina + ")");
 				int combatRaise = effects.adjustAbility(Adventurer.ABILITY_COMBAT, combat) - combat;
 				combat += combatRaise;
 				defence = effects.adjustAbility(Adventurer.ABILITY_DEFENCE, defence) + combatRaise;
 				stamina = effects.adjustAbility(Adventurer.ABILITY_STAMINA, stamina);
-				System.out.println("Stats after=(" + combat + "," + defence + "," + stamina + ")");
+				Log.debug(Category.COMBAT, () -> "Stats after=(" + combat + "," + defence + "," + stamina + ")");
 				cacheItems.dumpTempEffects();
 			}
 		}
 		group = atts.getValue("group");
 		attackDice = getIntValue(atts, "attackDice", 2);
 		if (group != null)
-			groupFights.add(this);
+			GameSession.getCurrent().groupFights.add(this);
 		if (enemy == null || combat < 0 || defence < 0 || stamina < 0)
 			System.err.println("<fight> element is missing some attributes: needs name, combat, defence, and stamina");
 
@@ -181,9 +179,10 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	protected Element createElement() { return null; }
 
 	private int getPlayerCombat() {
-		if (cachedAttackBonus != 0) {
-			attackBonus = cachedAttackBonus;
-			cachedAttackBonus = 0;
+		GameSession session = GameSession.getCurrent();
+		if (session.cachedAttackBonus != 0) {
+			attackBonus = session.cachedAttackBonus;
+			session.cachedAttackBonus = 0;
 		}
 		return getAdventurer().getAbilityValue(Adventurer.ABILITY_COMBAT, Adventurer.MODIFIER_AFFECTED) + attackBonus;
 	}
@@ -280,7 +279,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	 * This is only relevant when <code>done</code> is false, so that the node knows whether to proceed.
 	 */
     private boolean damagePlayer(int damage, boolean done) {
-		System.out.println("damagePlayer(" + done + ") called");
+		Log.debug(Category.COMBAT, () -> "damagePlayer(" + done + ") called");
 		boolean death = false;
 		if (damage > 0) {
 			if (damageNode == null || !damageNode.isReplacement()) {
@@ -364,7 +363,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	}
 
 	private void enableFlee() {
-		System.out.println("Enabling Flee gotos");
+		Log.debug(Category.COMBAT, "Enabling Flee gotos");
 		if (fleeChoiceNode != null) {
 			fleeChoiceNode.execute(null);
 			UndoManager.getCurrent().add(fleeChoiceNode);
@@ -376,7 +375,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	}
 
 	private void disableFlee() {
-		System.out.println("Disabling Flee gotos");
+		Log.debug(Category.COMBAT, "Disabling Flee gotos");
 		if (fleeChoiceNode != null)
 			fleeChoiceNode.setEnabled(false);
 		if (fleeGotoNode != null)
@@ -384,18 +383,19 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 	}
 
 	private void hookupNodes() {
-		if (roundNodes.size() > 0) {
-			roundNode = roundNodes.remove(0);
+		GameSession session = GameSession.getCurrent();
+		if (session.roundNodes.size() > 0) {
+			roundNode = session.roundNodes.remove(0);
 			roundNode.setOwner(this);
 		}
 
-		if (damageNodes.size() > 0) {
-			damageNode = damageNodes.remove(0);
+		if (session.damageNodes.size() > 0) {
+			damageNode = session.damageNodes.remove(0);
 			damageNode.setOwner(this);
 		}
 
-		if (fleeNodes.size() > 0) {
-			fleeNode = fleeNodes.remove(0);
+		if (session.fleeNodes.size() > 0) {
+			fleeNode = session.fleeNodes.remove(0);
 			fleeNode.setOwner(this);
 		}
 
@@ -870,7 +870,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		}
 
 		public void execute() {
-			System.out.println("FightNode.DefendNode.execute() called");
+			Log.debug(Category.COMBAT, "FightNode.DefendNode.execute() called");
 			attackNumber = 0;
 			damageDone = 0;
 			setEnabled(true);
@@ -938,10 +938,9 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		}
 	}
 
-	private static List<RoundNode> roundNodes = new LinkedList<>();
 	static RoundNode createRoundNode(Node parent) {
 		RoundNode round = new RoundNode(parent);
-		roundNodes.add(round);
+		GameSession.getCurrent().roundNodes.add(round);
 		return round;
 	}
 
@@ -992,7 +991,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 			setEnabled(true);
 			Node parent = getParent();
 			while (!isEnabled()) {
-				System.out.println("RoundNode still not enabled: enabling parent nodes");
+				Log.debug(Category.COMBAT, "RoundNode still not enabled: enabling parent nodes");
 				parent.setEnabled(true);
 				parent = parent.getParent();
 			}
@@ -1020,7 +1019,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		public boolean isSeparateThread() { return false; }
 		@Override
 		public void continueExecution(Executable eDone, boolean inSeparateThread) {
-			System.out.println("FightNode.RoundNode.continueExecution called");
+			Log.debug(Category.COMBAT, "FightNode.RoundNode.continueExecution called");
 			owner.roundNodePerformed(this);
 		}
 
@@ -1039,10 +1038,9 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		}
 	}
 
-	private static List<DamageNode> damageNodes = new LinkedList<>();
 	static DamageNode createDamageNode(Node parent) {
 		DamageNode damage = new DamageNode(parent);
-		damageNodes.add(damage);
+		GameSession.getCurrent().damageNodes.add(damage);
 		return damage;
 	}
 
@@ -1065,7 +1063,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 			else if (type.startsWith("repl"))
 				replace = true;
 			else
-				System.out.println("fightdamage: type is unrecognised (should be 'add' or 'replace': " + type);
+				Log.debug(Category.COMBAT, () -> "fightdamage: type is unrecognised (should be 'add' or 'replace': " + type);
 
 			super.init(atts);
 		}
@@ -1101,7 +1099,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 			setEnabled(true);
 			Node parent = getParent();
 			while (!isEnabled()) {
-				System.out.println("DamageNode still not enabled: enabling parent nodes");
+				Log.debug(Category.COMBAT, "DamageNode still not enabled: enabling parent nodes");
 				parent.setEnabled(true);
 				parent = parent.getParent();
 			}
@@ -1129,7 +1127,7 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		public boolean isSeparateThread() { return false; }
 		@Override
 		public void continueExecution(Executable eDone, boolean inSeparateThread) {
-			System.out.println("FightNode.DamageNode.continueExecution called");
+			Log.debug(Category.COMBAT, "FightNode.DamageNode.continueExecution called");
 			owner.damageNodePerformed(this);
 		}
 		@Override
@@ -1147,10 +1145,9 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 		}
 	}
 
-	private static List<FleeNode> fleeNodes = new LinkedList<>();
 	static FleeNode createFleeNode(Node parent) {
 		FleeNode flee = new FleeNode(parent);
-		fleeNodes.add(flee);
+		GameSession.getCurrent().fleeNodes.add(flee);
 		return flee;
 	}
 
@@ -1264,17 +1261,16 @@ public class FightNode extends Node implements Executable, ActionListener, Rolle
 				getAdventurer().getEffects().removeAbilityPotionBonus(Adventurer.ABILITY_COMBAT);
 		}
 		if (group != null)
-			groupFights.remove(this);
+			GameSession.getCurrent().groupFights.remove(this);
 	}
 
-	private static int cachedAttackBonus = 0;
 	/**
 	 * Add an attack bonus. This will be 'grabbed' by the first AttackNode that occurs
 	 * after this is set.
 	 * @param bonus the amount to add to attack rolls; may be positive or negative.
 	 */
 	static void setAttackBonus(int bonus) {
-		cachedAttackBonus = bonus;
+		GameSession.getCurrent().cachedAttackBonus = bonus;
 	}
 
 	private class SkipNode extends ActionNode {
@@ -6,6 +6,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 
+import flands.Log.Category;
+
 
 /**
  * Each section may use one or more named flags, each of which is either 'clear'
@@ -112,7 +114,7 @@ public class Flag {
 	private boolean removeListener(Listener l) {
 		listeners.remove(l);
 		if (listeners.size() == 0) {
-			System.out.println("Flag '" + name + "' removing itself");
+			Log.debug(Category.EXECUTION, () -> "Flag '" + name + "' removing itself");
 			return true;
 		}
 		return false;
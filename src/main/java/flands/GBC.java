@@ -7,6 +7,8 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 
+import flands.Log.Category;
+
 /**
  * Designed after the <a href="http://www.horstmann.com/articles/Taming_the_GridBagLayout.html">examples</a>
  * given by Cay Horstmann at his site.
@@ -181,7 +183,7 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 			int badToken = parseIndex++;
 			while (parseIndex < len && Character.isLetter(str.charAt(parseIndex)))
 			parseIndex++;
-			System.out.println("Unrecognised token: " + str.substring(badToken, parseIndex));
+			Log.debug(Category.GUI, () -> "Unrecognised token: " + str.substring(badToken, parseIndex));
 		}
 
 		return (parseIndex < len);
@@ -198,11 +200,12 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 		while (nextIndex < len && Character.isDigit(str.charAt(nextIndex)))
 			nextIndex++;
 
+		String number = str.substring(parseIndex, nextIndex);
 		try {
-			val = Integer.parseInt(str.substring(parseIndex, nextIndex));
+			val = Integer.parseInt(number);
 		}
 		catch (NumberFormatException nfe) {
-			System.out.println("Bad integer in substring: " + str.substring(parseIndex, nextIndex));
+			Log.debug(Category.GUI, () -> "Bad integer in substring: " + number);
 		}
 		parseIndex = nextIndex;
 		return val;
@@ -218,11 +221,12 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 		int nextIndex = parseIndex + 1;
 		while (nextIndex < len && (Character.isDigit(str.charAt(nextIndex)) || str.charAt(nextIndex) == '.'))
 			nextIndex++;
+		String number = str.substring(parseIndex, nextIndex);
 		try {
-			val = Double.parseDouble(str.substring(parseIndex, nextIndex));
+			val = Double.parseDouble(number);
 		}
 		catch (NumberFormatException nfe) {
-			System.out.println("Bad double in substring: " + str.substring(parseIndex, nextIndex));
+			Log.debug(Category.GUI, () -> "Bad double in substring: " + number);
 		}
 		parseIndex = nextIndex;
 		return val;
@@ -246,7 +250,7 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 			fill = NONE;
 			break;
 		default:
-			System.out.println("Unrecognised fill type: " + str.substring(parseIndex));
+			Log.debug(Category.GUI, () -> "Unrecognised fill type: " + str.substring(parseIndex));
 		}
 		while (parseIndex < len && Character.isLetter(str.charAt(parseIndex)))
 			parseIndex++;
@@ -278,7 +282,7 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 		else if (s.startsWith("w"))
 			anchor = WEST;
 		else
-			System.out.println("Unrecognised anchor type: " + s);
+			Log.debug(Category.GUI, () -> "Unrecognised anchor type: " + s);
 		while (parseIndex < len && Character.isLetter(str.charAt(parseIndex)))
 			parseIndex++;
     }
@@ -313,7 +317,7 @@ public final class GBC extends GridBagConstraints implements Cloneable {
 			insets.right = parseInt(insets.right);
 			break;
 		default:
-			System.out.println("Bad token: " + str.substring(parseIndex - 6));
+			Log.debug(Category.GUI, () -> "Bad token: " + str.substring(parseIndex - 6));
 			while (parseIndex < len && Character.isLetter(str.charAt(parseIndex)))
 			parseIndex++;
 		}
@@ -0,0 +1,116 @@
+package flands;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.swing.event.ChangeListener;
+
+/**
+ * The state of one game in progress: the current book, the undo history, the pool
+ * of objects to be saved, the named item and money caches, and the fight and item
+ * group nodes waiting to be linked up in the section being built. What used to be
+ * held in static fields (eg. by Address, UndoManager, XMLPool, CacheNode and
+ * FightNode) now lives here, and those classes look it up through {@link #getCurrent()}.
+ * <p>
+ * Normally there is just the one shared session, belonging to the application
+ * window. Other sessions can be created to play without it (for testing, say);
+ * code is run against one with {@link #run(Runnable)}, which makes it current for
+ * that thread while it runs. Work handed on to another thread must take the session
+ * with it, using {@link #bind(Runnable)} or {@link #bind(Executor)}; the game thread
+ * and dice rolls do this already. Book data is read-only, and is shared by them all.
+ */
+public final class GameSession {
+	private static final GameSession shared = new GameSession(true);
+	private static final ThreadLocal<GameSession> bound = new ThreadLocal<>();
+
+	/** Get the session that the current thread is working on. */
+	public static GameSession getCurrent() {
+		GameSession session = bound.get();
+		return (session != null ? session : shared);
+	}
+
+	/** Get the session belonging to the application window. */
+	static GameSession getShared() { return shared; }
+
+	private final boolean isShared;
+	private Adventurer adventurer = null;
+	private Adventurer dummyAdventurer = null;
+
+	String currentBookKey = null;
+	XMLPool pool = null;
+	UndoManager undo = null;
+
+	final Map<String, ItemList> itemCaches = new HashMap<>();
+	final Map<String, Integer> moneyCaches = new HashMap<>();
+	final Map<String, List<ChangeListener>> cacheListeners = new HashMap<>();
+	final Set<String> frozenCaches = new HashSet<>();
+
+	final List<FightNode> groupFights = new LinkedList<>();
+	final List<FightNode.RoundNode> roundNodes = new LinkedList<>();
+	final List<FightNode.DamageNode> damageNodes = new LinkedList<>();
+	final List<FightNode.FleeNode> fleeNodes = new LinkedList<>();
+	int cachedAttackBonus = 0;
+	final List<ItemGroupNode> itemGroupNodes = new LinkedList<>();
+
+	private GameSession(boolean isShared) {
+		this.isShared = isShared;
+	}
+
+	/** Create a session with its own adventurer, separate from the application window. */
+	public GameSession(Adventurer adventurer) {
+		this(false);
+		this.adventurer = adventurer;
+	}
+
+	/**
+	 * Get the adventurer being played. The shared session plays the application's
+	 * adventurer; if there isn't one yet, a stand-in is returned.
+	 */
+	Adventurer getAdventurer() {
+		Adventurer adv = (isShared ? FLApp.getSingle().getAdventurer() : adventurer);
+		if (adv != null) return adv;
+
+		if (dummyAdventurer == null)
+			dummyAdventurer = new Adventurer();
+		return dummyAdventurer;
+	}
+
+	/**
+	 * Run a task against this session: while it runs, this is the current session
+	 * for the calling thread. Sessions may be nested.
+	 */
+	public void run(Runnable task) {
+		GameSession previous = bound.get();
+		bound.set(this);
+		try {
+			task.run();
+		}
+		finally {
+			if (previous == null)
+				bound.remove();
+			else
+				bound.set(previous);
+		}
+	}
+
+	/** Wrap a task so that it runs against the caller's current session, whichever thread runs it. */
+	static Runnable bind(Runnable task) {
+		GameSession session = getCurrent();
+		return () -> session.run(task);
+	}
+
+	/** Wrap an executor so that its tasks run against the caller's current session. */
+	static Executor bind(Executor executor) {
+		GameSession session = getCurrent();
+		return task -> executor.execute(() -> session.run(task));
+	}
+
+	public String toString() {
+		return (isShared ? "GameSession(shared)" : "GameSession(" + adventurer + ")");
+	}
+}
@@ -0,0 +1,50 @@
+package flands;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import flands.Log.Category;
+
+/**
+ * The one thread on which game logic runs when it has to run away from the
+ * event thread (eg. when a condition is belatedly met by a change elsewhere).
+ * Tasks are run one at a time, in the order they were given.
+ */
+final class GameThread {
+	private static ExecutorService executor = null;
+	private static volatile Thread thread = null;
+
+	private GameThread() {}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "GameLogic");
+				t.setDaemon(true);
+				thread = t;
+				return t;
+			});
+		}
+		return executor;
+	}
+
+	/** Queue a task to run on the game thread, against the caller's current session. */
+	static void execute(Runnable task) {
+		Runnable bound = GameSession.bind(task);
+		getExecutor().execute(() -> {
+			try {
+				bound.run();
+			}
+			catch (RuntimeException e) {
+				// Don't let one failure take the thread down with it
+				Log.warning(Category.EXECUTION, "Error in game logic: " + e);
+				e.printStackTrace();
+			}
+		});
+	}
+
+	/** Check whether the current thread is the game thread. */
+	static boolean isCurrent() {
+		return Thread.currentThread() == thread;
+	}
+}
@@ -3,6 +3,7 @@ package flands;
 
 import java.awt.event.ActionEvent;
 import java.util.Properties;
+import java.util.concurrent.CancellationException;
 
 import javax.swing.JOptionPane;
 import javax.swing.event.ChangeEvent;
@@ -14,6 +15,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An action node that sends the character to a different section (and possibly book).
  * @author Jonathan Mann
@@ -176,7 +179,7 @@ public class GotoNode extends ActionNode implements Executable, ChangeListener,
 			}
 		}
 
-		System.out.println("Goto(" + section + ") adding itself as child");
+		Log.debug(Category.EXECUTION, () -> "Goto(" + section + ") adding itself as child");
 		addExecutableNode(this);
 
 		return super.handleEndTag();
@@ -255,32 +258,18 @@ public class GotoNode extends ActionNode implements Executable, ChangeListener,
 			return;
 		}
 
-		int currentShipIndex = -1;
+		final int currentShipIndex;
 		if (setSail) {
 			int[] ships = getShips().findShipsHere();
 			if (ships.length > 1) {
 				JOptionPane.showMessageDialog(FLApp.getSingle(), new Object[] {"You have multiple ships docked here.", "Please pick one."}, "Multiple Ships", JOptionPane.INFORMATION_MESSAGE);
 				return;
 			}
-			System.out.println("Setting sail in ship " + ships[0]);
+			Log.debug(Category.EXECUTION, () -> "Setting sail in ship " + ships[0]);
 			currentShipIndex = ships[0];
 		}
-		/*
-		 * Note: We have to be careful in ActionNodes that are present in item UseEffects.
-		 * When loaded, they won't have any reference to a SectionNode root.
-		 * Any calls that depend on finding a SectionNode root will cause exceptions.
-		 */
-		String todock = (getRoot() == null ? null : getRoot().getToDockLocation());
-		if (todock != null) {
-			// All ships at sea will move on to this dock
-			System.out.println("Docking ships at " + todock);
-			getShips().setAtDock(todock);
-		}
-		if (currentShipIndex >= 0) {
-			// Except for the ship we're sailing in
-			System.out.println("Setting ship " + currentShipIndex + " to be at sea");
-			getShips().getShip(currentShipIndex).setDocked(null); // ie. at sea
-		}
+		else
+			currentShipIndex = -1;
 		if (codewords != null && codewords.length > 0) {
 			boolean proceed = andCodewords;
 			for (String codeword : codewords) {
@@ -301,31 +290,59 @@ public class GotoNode extends ActionNode implements Executable, ChangeListener,
 			// codeword isn't present
 		}
 
+		/*
+		 * Note: We have to be careful in ActionNodes that are present in item UseEffects.
+		 * When loaded, they won't have any reference to a SectionNode root.
+		 * Any calls that depend on finding a SectionNode root will cause exceptions.
+		 */
+		String todock = (getRoot() == null ? null : getRoot().getToDockLocation());
+		boolean leavingDock = (getDockLocation() != null || todock != null);
+		// The ships are only moved if we really get there: the section is loaded
+		// in the background, and another click may go somewhere else instead
+		Runnable moveShips = () -> {
+			if (todock != null) {
+				// All ships at sea will move on to this dock
+				Log.debug(Category.EXECUTION, () -> "Docking ships at " + todock);
+				getShips().setAtDock(todock);
+			}
+			if (currentShipIndex >= 0) {
+				// Except for the ship we're sailing in
+				Log.debug(Category.EXECUTION, () -> "Setting ship " + currentShipIndex + " to be at sea");
+				getShips().getShip(currentShipIndex).setDocked(null); // ie. at sea
+			}
+			if (leavingDock) {
+				if (setSail)
+					getShips().setAtSea();
+				else
+					getShips().setOnLand();
+			}
+		};
+
 		//super.actionPerformed(e); // original location of this call - did it matter?
-		if (getDockLocation() != null || todock != null) {
-			// ie. we're leaving a dock
-			if (setSail)
-				getShips().setAtSea();
-			else
-				getShips().setOnLand();
-		}
 		Address address = new Address(book, section);
-		System.out.println("Goto node activated with event=" + e);
-		System.out.println("I will jump to " + address + " now...");
-		boolean went = FLApp.getSingle().gotoAddress(address);
-		if (!went) {
-			System.err.println("Goto failure: " + address);
-			// TODO: Undo all the ship dock changes
-			return;
-		}
+		Log.debug(Category.EXECUTION, () -> "Goto node activated with event=" + e);
+		Log.debug(Category.EXECUTION, () -> "I will jump to " + address + " now...");
+		// Can't be clicked again while the section loads
+		setEnabled(false);
+		FLApp.getSingle().navigate(address, moveShips).whenComplete((root, ex) -> {
+			if (ex != null) {
+				if (!(ex instanceof CancellationException))
+					Log.warning(Category.EXECUTION, "Goto failure: " + address);
+				// The ships haven't been moved (unless the section was loaded but
+				// couldn't be shown), so the goto can be tried again
+				// TODO: Undo the ship dock changes in that last case
+				setEnabled(true);
+				return;
+			}
 
-		super.actionPerformed(e); // tell any listeners
+			super.actionPerformed(e); // tell any listeners
 
-		if (!keepEnabled)
-			setEnabled(false);
-		if (callContinue)
-			// This makes 'visits' work - but it's not really necessary in the majority of cases
-			continueNodeExecution(this, false);
+			if (keepEnabled)
+				setEnabled(true);
+			if (callContinue)
+				// This makes 'visits' work - but it's not really necessary in the majority of cases
+				continueNodeExecution(this, false);
+		});
 
 		/* Doing this breaks 6.628 (if you immediately revisit it)
 		if (flag != null)
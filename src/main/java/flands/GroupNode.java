@@ -10,6 +10,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An action node that collects together one or more other action nodes;
  * when execution reaches it, its behaviour depends on the first node within it;
@@ -98,7 +100,8 @@ public class GroupNode extends ActionNode implements Executable, ExecutableGroup
 		//queryNode = actionChildren.get(0);
 
 		if (queryNode != null) {
-			System.out.println("GroupNode.isEnabled() called, current child=" + execChildren.indexOf(queryNode));
+			if (Log.isDebug(Category.EXECUTION))
+				Log.debug(Category.EXECUTION, "GroupNode.isEnabled() called, current child=" + execChildren.indexOf(queryNode));
 			childCallingParent = true;
 			boolean result = queryNode.isEnabled();
 			childCallingParent = false;
@@ -115,7 +118,7 @@ public class GroupNode extends ActionNode implements Executable, ExecutableGroup
 
 	@Override
 	public boolean execute(ExecutableGrouper eg) {
-		System.out.println("GroupNode.execute() called");
+		Log.debug(Category.EXECUTION, "GroupNode.execute() called");
 		if (execChildren.size() > 0) {
 			// Start executing each of our children
 			// This will most likely enable the first only, which is
@@ -221,7 +224,7 @@ public class GroupNode extends ActionNode implements Executable, ExecutableGroup
 
 	@Override
 	public void addIntermediateNode(Node n) {
-		System.out.println("GroupNode.addIntermediateNode(" + n + ") called");
+		Log.debug(Category.EXECUTION, () -> "GroupNode.addIntermediateNode(" + n + ") called");
 	}
 
 	private ActionNode currentNode = null;
@@ -233,19 +236,20 @@ public class GroupNode extends ActionNode implements Executable, ExecutableGroup
 			// Figure out which child just executed
 			index = execChildren.indexOf(eDone);
 			if (index < 0)
-				System.out.println("GroupNode.continueExecution(" + eDone + "): child not recognised");
+				Log.debug(Category.EXECUTION, () -> "GroupNode.continueExecution(" + eDone + "): child not recognised");
 		}
 
 		for (int i = index+1; i < execChildren.size(); i++) {
 			// Execute the next child
-			System.out.println("GroupNode: continuing to child " + i);
+			if (Log.isDebug(Category.EXECUTION))
+				Log.debug(Category.EXECUTION, "GroupNode: continuing to child " + i);
 			Executable e = execChildren.get(i);
 			if (e instanceof ActionNode) {
 				currentNode = (ActionNode)e;
 				UndoManager.getCurrent().add(new ExecutableWrapper(currentNode));
 				boolean finished = ((Executable)currentNode).execute(this);
-				if (!finished && !currentNode.isEnabled())
-					System.out.println("GroupNode.continueExecution(): child " + i + " blocked, but isn't enabled");
+				if (!finished && !currentNode.isEnabled() && Log.isDebug(Category.EXECUTION))
+					Log.debug(Category.EXECUTION, "GroupNode.continueExecution(): child " + i + " blocked, but isn't enabled");
 				boolean continues = currentNode.doGroupAction(this);
 				if (continues) {
 					// continueExecution was/will be called in the meantime
@@ -337,7 +341,7 @@ public class GroupNode extends ActionNode implements Executable, ExecutableGroup
 					System.err.println("GroupNode.ExecutableWrapper: couldn't find previous ActionNode");
 			}
 
-			System.out.println("GroupNode.ExecutableWrapper.resetExecute() called");
+			Log.debug(Category.EXECUTION, "GroupNode.ExecutableWrapper.resetExecute() called");
 
 			if (e != null)
 				e.resetExecute();
@@ -11,6 +11,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * A conditional node; if its conditions are met, execution will continue to
  * its child nodes.
@@ -26,7 +28,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 	public static final String ElementName = IfElementName;
 	private int type;
 
-	private String ifElseVarName;
+	private int ifElseSlot;
 	private boolean not;
 	private String[] codewords = null;
 	private boolean andCodewords;
@@ -40,6 +42,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 	private String book;
 	private String wordName;
 	private String var;
+	private int varSlot;
 	private String greaterThan;
 	private String lessThan;
 	private String equals;
@@ -86,7 +89,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 	private static final String ShardsAttribute = "shards";
 	@Override
 	public void init(Attributes xmlAtts) {
-		ifElseVarName = getRoot().getIfElseVarName(type == IF_TYPE);
+		ifElseSlot = getRoot().getIfElseSlot(type == IF_TYPE);
 		not = getBooleanValue(xmlAtts, "not", false);
 		codewords = split(xmlAtts.getValue(CodewordAttribute));
 		andCodewords = andSplitter;
@@ -100,6 +103,8 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		book = xmlAtts.getValue("book");
 		wordName = xmlAtts.getValue("name");
 		var = xmlAtts.getValue("var");
+		if (var != null)
+			varSlot = getVariableSlot(var);
 		greaterThan = xmlAtts.getValue("greaterthan");
 		lessThan = xmlAtts.getValue("lessthan");
 		equals = xmlAtts.getValue("equals");
@@ -208,11 +213,11 @@ public class IfNode extends Node implements Executable, ChangeListener {
 
 	@Override
 	public boolean handleEndTag() {
-		System.out.println("IfNode adding itself as Executable child");
+		Log.debug(Category.EXECUTION, "IfNode adding itself as Executable child");
 		addExecutableNode(this);
 		if (type == IF_TYPE || type == ELSEIF_TYPE)
 			// Pass on our var name so any following elseifs or elses can use it.
-			getRoot().setElseVarName(ifElseVarName);
+			getRoot().setElseSlot(ifElseSlot);
 		return super.handleEndTag();
 	}
 
@@ -221,18 +226,18 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		boolean executeBlock = true;
 		if (type == IF_TYPE)
 			// Reset - there may have been an earlier if/else in this section
-			removeVariable(ifElseVarName);
+			removeVariable(ifElseSlot);
 		
 		if (type == ELSE_TYPE || type == ELSEIF_TYPE)
 			// Only execute if the last IF or ELSEIF didn't
-			executeBlock = (getVariableValue(ifElseVarName) != 1);
+			executeBlock = (getVariableValue(ifElseSlot) != 1);
 
 		if (executeBlock && (type == IF_TYPE || type == ELSEIF_TYPE)) {
 			// Still need to meet conditions
 			executeBlock = meetsConditions();
 			if (not) executeBlock = !executeBlock;
 			if (executeBlock)
-				setVariableValue(ifElseVarName, 1);
+				setVariableValue(ifElseSlot, 1);
 		}
 
 		if (!executeBlock)
@@ -310,14 +315,14 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		if (shards != null) {
 			int money = (cache == null ? adv.getMoney() : CacheNode.getMoneyCache(cache));
 			if (money >= getAttributeValue(shards)) {
-				System.out.println("Have enough money");
+				Log.debug(Category.EXECUTION, "Have enough money");
 				return true;
 			}
 		}
 
 		if (book != null) {
 			if (Books.getCanon().getBook(book).hasBook()) {
-				System.out.println("Have book '" + book + "'");
+				Log.debug(Category.EXECUTION, () -> "Have book '" + book + "'");
 				return true;
 			}
 		}
@@ -329,7 +334,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		}
 
 		if (var != null) {
-			int val = getVariableValue(var);
+			int val = getVariableValue(varSlot);
 			if (checkComparisons(val))
 				return true;
 		}
@@ -346,13 +351,13 @@ public class IfNode extends Node implements Executable, ChangeListener {
 			else if (gender.toLowerCase().startsWith("f") && !adv.isMale())
 				return true;
 			else
-				System.out.println("IfNode: can't understand gender attribute: " + gender);
+				Log.debug(Category.EXECUTION, () -> "IfNode: can't understand gender attribute: " + gender);
 		}
 
 		if (item != null) {
 			ItemList items = (cache == null ? getItems() : CacheNode.getItemCache(cache));
 			int[] matches = items.findMatches(item);
-			System.out.println("Found " + matches.length + " matches for if");
+			Log.debug(Category.EXECUTION, () -> "Found " + matches.length + " matches for if");
 			if (greaterThan == null && lessThan == null && equals == null) {
 				if (matches.length > 0)
 					return true;
@@ -394,7 +399,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		else if (ship >= 0 || crew >= 0 || cargo != 0) {
 			int shipIndex = getShips().getSingleShip();
 			if (shipIndex < 0)
-				System.out.println("IfNode: couldn't find single ship to check conditions!");
+				Log.debug(Category.EXECUTION, "IfNode: couldn't find single ship to check conditions!");
 			else {
 				Ship s = getShips().getShip(shipIndex);
 				if (ship >= 0 && s.getType() == ship)
@@ -419,7 +424,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 		// At this point we've failed to meet any conditions
 		// But if conditions depend on shards or items, we want to stay aware of changes
 		if (!not && ignoreChangeEvents) {
-			System.out.println("Adding IfNode change listeners");
+			Log.debug(Category.EXECUTION, "Adding IfNode change listeners");
 			ignoreChangeEvents = false;
 			if (item != null)
 				getItems().addChangeListener(this);
@@ -440,7 +445,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 			// Hey - can't do that now, or we get a ConcurrentModificationException
 			// This is because the object firing the event is iterating through the listeners right now,
 			// and we can't remove ourself from that list at the same time
-			System.out.println("Conditions belatedly met: " + (not ? "not is true" : "not is false"));
+			Log.debug(Category.EXECUTION, () -> "Conditions belatedly met: " + (not ? "not is true" : "not is false"));
 			ignoreChangeEvents = true;
 			setEnabled(true);
 			if (runner != null)
@@ -466,7 +471,7 @@ public class IfNode extends Node implements Executable, ChangeListener {
 	@Override
     public void dispose() {
 		// Might be present as listener at these two points, or might not
-		System.out.println("Disposing of IfNode listeners");
+		Log.debug(Category.EXECUTION, "Disposing of IfNode listeners");
 		if (item != null)
 			getItems().removeChangeListener(this);
 		if (shards != null && cache == null)
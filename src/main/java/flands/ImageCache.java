@@ -0,0 +1,262 @@
+package flands;
+
+import java.awt.image.BufferedImage;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import flands.Log.Category;
+
+/**
+ * Cache of decoded images (maps, icons and section illustrations), so that
+ * coming back to an illustrated section or switching between books doesn't mean
+ * decoding the same image again. Images are kept while their total size is under
+ * {@link #MaxBytes}; older ones beyond that are only softly held, so they stay
+ * around until memory runs short.
+ * <p>
+ * Images are identified by book and filename; a <code>null</code> book means a
+ * file in the application's own folder. Images that are wanted now are decoded
+ * on the thread that wants them; prefetched images are decoded, one at a time, on
+ * a background thread.
+ */
+final class ImageCache {
+	static final long MaxBytes = 64L << 20;
+
+	private static final Map<String,BufferedImage> images = new LinkedHashMap<>(32, 0.75f, true);
+	private static final Map<String,SoftReference<BufferedImage>> softImages = new HashMap<>();
+	private static final Map<String,Decode> pending = new HashMap<>();
+	private static long totalBytes = 0;
+	private static int hits = 0, misses = 0;
+
+	/**
+	 * An image that is being, or waiting to be, decoded. A prefetch waits its turn on
+	 * the background thread; if the image is wanted before that turn comes, whoever
+	 * wants it takes the decode over and does it straight away.
+	 */
+	private static final class Decode {
+		final CompletableFuture<BufferedImage> result = new CompletableFuture<>();
+		// Guarded by ImageCache.class
+		boolean started = false;
+		Future<?> task = null;
+	}
+
+	private static ExecutorService executor = null;
+
+	private ImageCache() {}
+
+	private static ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "ImageCache");
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			});
+		}
+		return executor;
+	}
+
+	private static String getKey(String book, String filename) {
+		return (book == null ? filename : book + "/" + filename);
+	}
+
+	/** The memory used by a decoded image, roughly. */
+	private static long getBytes(BufferedImage image) {
+		return (long)image.getWidth() * image.getHeight() * 4;
+	}
+
+	/**
+	 * Start decoding an image in the background, unless it's already cached or being
+	 * decoded. This can be cancelled by {@link #cancelPrefetches()} until it starts.
+	 */
+	static synchronized void prefetch(String book, String filename) {
+		String key = getKey(book, filename);
+		if (pending.containsKey(key) || getCached(key) != null)
+			return;
+
+		Decode d = new Decode();
+		pending.put(key, d);
+		d.task = getExecutor().submit(() -> {
+			synchronized (ImageCache.class) {
+				if (d.started || pending.get(key) != d)
+					// Taken over, or cancelled
+					return;
+				d.started = true;
+			}
+			runDecode(key, d, book, filename);
+		});
+	}
+
+	/**
+	 * Cancel any prefetches that haven't started yet.
+	 */
+	static synchronized void cancelPrefetches() {
+		for (var i = pending.values().iterator(); i.hasNext(); ) {
+			Decode d = i.next();
+			if (!d.started) {
+				d.task.cancel(false);
+				d.result.complete(null);
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * Get an image. If it isn't cached, it is decoded on the calling thread, unless
+	 * it's already being decoded, in which case this waits for that to finish.
+	 * @return the image, or <code>null</code> if it couldn't be found or read.
+	 */
+	static BufferedImage get(String book, String filename) {
+		String key = getKey(book, filename);
+		Decode d;
+		boolean decodeHere = false;
+		synchronized (ImageCache.class) {
+			BufferedImage image = getCached(key);
+			if (image != null) {
+				hits++;
+				return image;
+			}
+
+			d = pending.get(key);
+			if (d == null) {
+				misses++;
+				d = new Decode();
+				pending.put(key, d);
+			}
+			else
+				hits++;
+			if (!d.started) {
+				// Don't wait for the background thread to get round to it
+				d.started = true;
+				if (d.task != null)
+					d.task.cancel(false);
+				decodeHere = true;
+			}
+		}
+
+		if (decodeHere)
+			return runDecode(key, d, book, filename);
+
+		try {
+			return d.result.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e) {
+			Log.warning(Category.GAME, "Error in decoding image " + key + ": " + e.getCause());
+		}
+		return null;
+	}
+
+	/** Decode an image, then cache it and hand it to anyone waiting, even if decoding failed. */
+	private static BufferedImage runDecode(String key, Decode d, String book, String filename) {
+		BufferedImage image = null;
+		try {
+			image = decode(book, filename);
+		}
+		finally {
+			put(key, d, image);
+			d.result.complete(image);
+		}
+		return image;
+	}
+
+	private static BufferedImage getCached(String key) {
+		BufferedImage image = images.get(key);
+		if (image == null) {
+			SoftReference<BufferedImage> ref = softImages.remove(key);
+			if (ref != null) {
+				image = ref.get();
+				if (image != null)
+					add(key, image);
+			}
+		}
+		return image;
+	}
+
+	private static synchronized void put(String key, Decode d, BufferedImage image) {
+		if (pending.get(key) == d)
+			pending.remove(key);
+		if (image != null)
+			add(key, image);
+	}
+
+	private static void add(String key, BufferedImage image) {
+		BufferedImage old = images.put(key, image);
+		if (old != null)
+			totalBytes -= getBytes(old);
+		totalBytes += getBytes(image);
+
+		// Demote the oldest images (but never the one just added)
+		var i = images.entrySet().iterator();
+		while (images.size() > 1 && totalBytes > MaxBytes) {
+			Map.Entry<String,BufferedImage> e = i.next();
+			totalBytes -= getBytes(e.getValue());
+			softImages.put(e.getKey(), new SoftReference<>(e.getValue()));
+			i.remove();
+		}
+	}
+
+	private static BufferedImage decode(String book, String filename) {
+		long start = System.nanoTime();
+		try (InputStream in = open(book, filename)) {
+			if (in == null) {
+				Log.warning(Category.GAME, "Couldn't find image " + getKey(book, filename));
+				return null;
+			}
+			BufferedImage image = ImageIO.read(in);
+			if (image == null)
+				Log.warning(Category.GAME, "Unrecognised image format: " + getKey(book, filename));
+			else
+				Log.debug(Category.GAME, () -> "Decoded image " + getKey(book, filename) + " in " + (System.nanoTime() - start) / 1000000 + "ms");
+			return image;
+		}
+		catch (IOException | RuntimeException e) {
+			// ImageIO can throw all sorts on a corrupt file
+			Log.warning(Category.GAME, "Error in reading image " + getKey(book, filename) + ": " + e);
+			return null;
+		}
+	}
+
+	private static InputStream open(String book, String filename) {
+		if (book != null)
+			return Books.getCanon().getBook(book).getInputStream(filename);
+		try {
+			return new FileInputStream(filename);
+		}
+		catch (FileNotFoundException e) {
+			return null;
+		}
+	}
+
+	/** Remove every image. */
+	static synchronized void clear() {
+		images.clear();
+		softImages.clear();
+		totalBytes = 0;
+	}
+
+	static synchronized int getHits() { return hits; }
+	static synchronized int getMisses() { return misses; }
+	static synchronized int getImageCount() { return images.size(); }
+	static synchronized long getTotalBytes() { return totalBytes; }
+
+	static synchronized String getStatistics() {
+		softImages.values().removeIf(ref -> ref.get() == null);
+		return "ImageCache[images=" + images.size() + ",bytes=" + totalBytes + ",soft=" + softImages.size() +
+			",hits=" + hits + ",misses=" + misses + "]";
+	}
+}
@@ -84,11 +84,12 @@ public class ImageNode extends ActionNode {
 
 
 			imageWindow = FLApp.getSingle()
-				.createImageWindow(bookInfo.getInputStream(filename),
+				.createImageWindow(bookInfo, filename,
 								   (title == null ? "Illustration" : title),
 								   true);
 		}
-		imageWindow.setVisible(true);
+		if (imageWindow != null)
+			imageWindow.setVisible(true);
 	}
 
 	@Override
@@ -1,11 +1,21 @@
 package flands;
 
+import java.awt.Container;
+import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.SwingUtilities;
 
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -75,11 +85,10 @@ public class ImageView extends View {
 			int scaledHeight = (int)(i.getHeight(null)*scale);
 			int offX = (alloc.width - scaledWidth)/2;
 			int offY = (alloc.height - scaledHeight)/2;
-			if (drawer.draw(scaledWidth, scaledHeight)) {
-				// Same as last scale - copy the prerendered image
-				g.clipRect(alloc.x+offX, alloc.y+offY, scaledWidth, scaledHeight);
-				g.drawImage(drawer.buffer, alloc.x+offX, alloc.y+offY, null);
-			}
+			Image scaled = drawer.get(scaledWidth, scaledHeight);
+			if (scaled != null)
+				// Already scaled to this size - copy the prerendered image
+				g.drawImage(scaled, alloc.x+offX, alloc.y+offY, null);
 			else
 				// Draw a quickly scaled version for now
 				g.drawImage(i, alloc.x+offX, alloc.y+offY, scaledWidth, scaledHeight, null);
@@ -217,58 +226,82 @@ public class ImageView extends View {
     private Image i;
     private BufferDrawer drawer;
     
-    private class BufferDrawer implements Runnable {
-    	private Image buffer;
-    	private Graphics2D bufferG;
-    	private boolean drawn;
-    	private int scaledWidth, scaledHeight;
-    	private int drawingWidth, drawingHeight;
-    	
-    	BufferDrawer() {
-    		drawn = false;
-    		scaledWidth = -1;
-    		scaledHeight = -1;
+    /** The most scaled copies of the image kept, for the most recent sizes. */
+    private static final int MaxScaledImages = 2;
+    private static ExecutorService scaler = null;
+
+    /** All scaling is done on one thread, shared by every ImageView. */
+    private static synchronized ExecutorService getScaler() {
+    	if (scaler == null) {
+    		scaler = Executors.newSingleThreadExecutor(r -> {
+    			Thread t = new Thread(r, "ImageScaler");
+    			t.setDaemon(true);
+    			t.setPriority(Thread.MIN_PRIORITY);
+    			return t;
+    		});
+    	}
+    	return scaler;
+    }
+
+    /**
+     * Keeps high-quality scaled copies of the image. Scaling is done in the
+     * background; when a copy is ready, the view is repainted. If the size
+     * changes again first (as it will while a window is being resized), any
+     * scaling for the old size that hasn't been done yet is dropped.
+     * Apart from the scaling itself, everything happens on the event thread.
+     */
+    private class BufferDrawer {
+    	private final Map<Dimension,Image> scaled = new LinkedHashMap<Dimension,Image>(4, 0.75f, true) {
+    		@Override
+    		protected boolean removeEldestEntry(Map.Entry<Dimension,Image> eldest) {
+    			return size() > MaxScaledImages;
+    		}
+    	};
+    	/** The size most recently asked for. */
+    	private volatile Dimension wanted = null;
+    	private Future<?> pending = null;
+
+    	/**
+    	 * Get the image scaled to the given size, starting the scaling if it hasn't been done.
+    	 * @return the scaled image, or <code>null</code> if it isn't ready yet.
+    	 */
+    	Image get(int width, int height) {
+    		if (width <= 0 || height <= 0)
+    			return null;
+    		Dimension size = new Dimension(width, height);
+    		Image image = scaled.get(size);
+    		if (image != null)
+    			return image;
+
+    		if (!size.equals(wanted)) {
+    			wanted = size;
+    			if (pending != null)
+    				pending.cancel(false);
+    			pending = getScaler().submit(() -> scale(size));
+    		}
+    		return null;
     	}
 
-    	public boolean draw(int width, int height) {
-    		if (width == scaledWidth && height == scaledHeight)
-    			return drawn;
-    		
-    		drawn = false;
-    		scaledWidth = width;
-    		scaledHeight = height;
-    		new Thread(this).start();
-    		
-    		return false;
+    	/** Runs on the scaling thread. */
+    	private void scale(Dimension size) {
+    		if (!size.equals(wanted))
+    			return;
+
+    		BufferedImage buffer = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+    		Graphics2D bufferG = buffer.createGraphics();
+    		bufferG.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    		bufferG.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    		bufferG.drawImage(i, 0, 0, size.width, size.height, null);
+    		bufferG.dispose();
+
+    		SwingUtilities.invokeLater(() -> {
+    			scaled.put(size, buffer);
+    			if (size.equals(wanted)) {
+    				Container c = getContainer();
+    				if (c != null && alloc != null)
+    					c.repaint(alloc.x, alloc.y, alloc.width, alloc.height);
+    			}
+    		});
     	}
-    	
-		@Override
-		public void run() {
-			drawn = false;
-			drawingWidth = scaledWidth;
-			drawingHeight = scaledHeight;
-			
-			if (buffer == null)
-				buffer = getContainer().createImage(i.getWidth(null), i.getHeight(null));
-			if (bufferG != null)
-				bufferG.dispose();
-			bufferG = (Graphics2D)buffer.getGraphics();
-			bufferG.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-			bufferG.drawImage(i, 0, 0, drawingWidth, drawingHeight, null);
-			
-			if (drawingWidth == scaledWidth && drawingHeight == scaledHeight) {
-				drawn = true;
-				if (bufferG != null) {
-					bufferG.dispose();
-					bufferG = null;
-				}
-				
-				int offX = (alloc.width - drawingWidth)/2;
-				int offY = (alloc.height - drawingHeight)/2;
-				Graphics g = getGraphics();
-				g.clipRect(alloc.x+offX, alloc.y+offY, drawingWidth, drawingHeight);
-				g.drawImage(buffer, alloc.x+offX, alloc.y+offY, null);
-			}
-		}
     }
 }
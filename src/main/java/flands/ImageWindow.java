@@ -7,18 +7,16 @@ import java.awt.Frame;
 import java.awt.Image;
 import java.awt.Insets;
 
-import javax.swing.ImageIcon;
 import javax.swing.JDialog;
-import javax.swing.JLabel;
 import javax.swing.JScrollPane;
 
 /**
  * Pop-up window to show an image, with scrollbars used as necessary.
- * Used to display the maps.
+ * Used to display the maps, which can be zoomed (see {@link TiledImagePanel}).
  * @author Jonathan Mann
  */
 public class ImageWindow extends JDialog {
-	private JLabel imageLabel;
+	private TiledImagePanel imagePanel;
 
 	public ImageWindow(Frame f, Image i, String title) {
 		super(f, title);
@@ -30,8 +28,8 @@ public class ImageWindow extends JDialog {
 	}
 
 	private void init(Image i) {
-		imageLabel = new JLabel(new ImageIcon(i));
-		JScrollPane imagePane = new JScrollPane(imageLabel);
+		imagePanel = new TiledImagePanel(i);
+		JScrollPane imagePane = new JScrollPane(imagePanel);
 		imagePane.setWheelScrollingEnabled(true);
 		imagePane.getHorizontalScrollBar().setUnitIncrement(5);
 		imagePane.getVerticalScrollBar().setUnitIncrement(5);
@@ -48,7 +46,13 @@ public class ImageWindow extends JDialog {
 	}
 
 	void setImage(Image i, String title) {
-		imageLabel.setIcon(new ImageIcon(i));
+		imagePanel.setImage(i);
 		setTitle(title);
 	}
+
+	@Override
+	public void dispose() {
+		imagePanel.dispose();
+		super.dispose();
+	}
 }
@@ -7,7 +7,6 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Properties;
-import java.util.regex.Pattern;
 
 import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
@@ -19,6 +18,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Or, a possession; sometihng the character has in their inventory or leaves
  * in a cache. Weapons can be wielded to boost Combat; Armour can be worn to
@@ -49,13 +50,14 @@ public class Item implements XMLOutput {
 	public static Item createItem(String elementName, String itemName) {
 		if (itemName != null && itemName.contains("|")) {
 			// Create a chain of items
-			System.out.println("Creating item chain from attributes");
+			Log.debug(Category.ITEMS, "Creating item chain from attributes");
 			String[] itemNames = itemName.split("\\|");
 			Item firstItem = null;
 			Item prevItem = null;
 			for (int i = 0; i < itemNames.length; i++) {
 				Item currItem = createItem(elementName, itemNames[i]);
-				System.out.println("Item " + i + ": " + currItem.toDebugString());
+				if (Log.isDebug(Category.ITEMS))
+					Log.debug(Category.ITEMS, "Item " + i + ": " + currItem.toDebugString());
 				if (prevItem == null)
 					firstItem = currItem;
 				else
@@ -75,7 +77,7 @@ public class Item implements XMLOutput {
 			return new Armour(itemName);
 
 		if (itemName != null)
-			System.out.println("Item element type unrecognised: " + elementName);
+			Log.debug(Category.ITEMS, () -> "Item element type unrecognised: " + elementName);
 		return null;
 	}
 
@@ -126,7 +128,7 @@ public class Item implements XMLOutput {
 
 	private String name;
 	private boolean checkedForWildcards = false;
-	private Pattern namePattern = null;
+	private NameMatcher namePattern = null;
 	private Effect effect = null;
 	private Curse curse = null;
 	public String getName() { return name; }
@@ -167,7 +169,10 @@ public class Item implements XMLOutput {
 	private int bonus;
 	private String bonusStr;
 	public int getBonus() { return bonus; }
-	void setBonus(int b) { this.bonus = b; }
+	void setBonus(int b) {
+		this.bonus = b;
+		EffectSet.itemChanged();
+	}
 	String getBonusString() {
 		return (bonus > 0) ? "+" + bonus :
 			((bonus < 0) ? "" + bonus : "");
@@ -327,7 +332,7 @@ public class Item implements XMLOutput {
 		if (nextItem != null)
 			nextItem.init(xmlAtts);
 		else if (name != null && name.contains("|")) {
-			System.out.println("Creating chained items from name " + name);
+			Log.debug(Category.ITEMS, () -> "Creating chained items from name " + name);
 			String[] names = name.split("\\|");
 			Item currItem = this;
 			for (int i = 0; i < names.length; i++) {
@@ -337,7 +342,8 @@ public class Item implements XMLOutput {
 					currItem = newItem;
 				}
 				currItem.name = names[i];
-				System.out.println("Item " + i + ": " + currItem.toDebugString());
+				if (Log.isDebug(Category.ITEMS))
+					Log.debug(Category.ITEMS, "Item " + i + ": " + currItem.toDebugString());
 			}
 		}
 
@@ -349,7 +355,7 @@ public class Item implements XMLOutput {
 				tags = "," + tags;
 			if (!tags.endsWith(","))
 				tags = tags + ",";
-			System.out.println("Item matches tags " + tags);
+			Log.debug(Category.ITEMS, () -> "Item matches tags " + tags);
 		}
 	}
 
@@ -389,7 +395,7 @@ public class Item implements XMLOutput {
 			tags = "," + tag + ",";
 		else
 			tags = "," + tag + tags;
-		System.out.println("Tag string now = " + tags);
+		Log.debug(Category.ITEMS, () -> "Tag string now = " + tags);
 	}
 	void addTags(String tagString) {
 		String[] split = tagString.split(",");
@@ -407,7 +413,7 @@ public class Item implements XMLOutput {
 		if (index >= 0) {
 			tags = tags.substring(0, index+1) + // up to and including leading comma
 			tags.substring(index + match.length()); // remainder of string, after tailing comma
-			System.out.println("Tag string now = " + tags);
+			Log.debug(Category.ITEMS, () -> "Tag string now = " + tags);
 		}
 	}
 
@@ -420,9 +426,9 @@ public class Item implements XMLOutput {
 		String name = getName().toLowerCase();
 		if (!checkedForWildcards) {
 			checkedForWildcards = true;
-			if (name.length() > 1 && (name.indexOf('?') >= 0 || name.indexOf('*') >= 0)) {
+			if (name.length() > 1 && NameMatcher.hasWildcards(name)) {
 				// Do wildcard matching
-				namePattern = FLApp.createNamePattern(name);
+				namePattern = NameMatcher.get(name);
 				return matchNamePattern(item);
 			}
 		}
@@ -430,7 +436,7 @@ public class Item implements XMLOutput {
 		return name.equals("?") || name.equals("*") || name.equals(item.getName().toLowerCase());
 	}
 	private boolean matchNamePattern(Item item) {
-		return namePattern.matcher(item.getName().toLowerCase()).matches();
+		return namePattern.matches(item.getName().toLowerCase());
 	}
 	public boolean matches(Item i) {
 		if (group != null && (i.group == null || !group.equals(i.group))) return false;
@@ -626,6 +632,7 @@ public class Item implements XMLOutput {
 		public void setWielded(boolean b) {
 			if (wielded != b) {
 				wielded = b;
+				EffectSet.itemChanged();
 				updateDocument();
 			}
 		}
@@ -801,6 +808,7 @@ public class Item implements XMLOutput {
 		void setWorn(boolean b) {
 			if (worn != b) {
 				worn = b;
+				EffectSet.itemChanged();
 				updateDocument();
 			}
 		}
@@ -19,25 +19,20 @@ import org.xml.sax.Attributes;
 public class ItemGroupNode extends Node {
 	public static String ElementName = "items";
 
-	private static List<ItemGroupNode> groupNodes;
 	private static void addGroupNode(ItemGroupNode node) {
-		if (groupNodes == null)
-			groupNodes = new LinkedList<>();
-		groupNodes.add(node);
+		GameSession.getCurrent().itemGroupNodes.add(node);
 	}
 
 	static ItemGroupNode getGroupNode(String name) {
-		if (groupNodes != null) {
-			for (ItemGroupNode n : groupNodes) {
-				if (n.name.equals(name))
-					return n;
-			}
+		for (ItemGroupNode n : GameSession.getCurrent().itemGroupNodes) {
+			if (n.name.equals(name))
+				return n;
 		}
 		return null;
 	}
 
 	private static void removeGroupNode(ItemGroupNode node) {
-		groupNodes.remove(node);
+		GameSession.getCurrent().itemGroupNodes.remove(node);
 	}
 
 	private String name;
@@ -0,0 +1,97 @@
+package flands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of where items are in an ItemList, by lower-case name and by type,
+ * so that finding the items a pattern Item could match doesn't mean trying every
+ * item in the list. It answers with candidates only: each must still be checked
+ * with {@link Item#matches(Item)}.
+ * <p>
+ * The index must be thrown away whenever items are added, removed or moved.
+ * Money items are always offered as candidates for a name, since their names
+ * change along with the amount. Tags aren't indexed, because they can be changed
+ * on an item already in the list; they are left to the final check.
+ */
+final class ItemIndex {
+	private static final int[] None = new int[0];
+
+	private final Map<String, int[]> byName = new HashMap<>();
+	private final int[][] byType = new int[Item.ARMOUR_TYPE + 1][];
+	private final int[] money;
+
+	ItemIndex(List<Item> items) {
+		Map<String, List<Integer>> names = new HashMap<>();
+		List<List<Integer>> types = new ArrayList<>(byType.length);
+		for (int t = 0; t < byType.length; t++)
+			types.add(new ArrayList<>());
+		List<Integer> moneyItems = new ArrayList<>();
+
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			if (item.isMoney())
+				moneyItems.add(i);
+			else if (item.getName() != null)
+				names.computeIfAbsent(item.getName().toLowerCase(), n -> new ArrayList<>()).add(i);
+			int type = item.getType();
+			if (type >= 0 && type < byType.length)
+				types.get(type).add(i);
+		}
+
+		for (Map.Entry<String, List<Integer>> e : names.entrySet())
+			byName.put(e.getKey(), toArray(e.getValue()));
+		for (int t = 0; t < byType.length; t++)
+			byType[t] = toArray(types.get(t));
+		money = toArray(moneyItems);
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		if (list.isEmpty())
+			return None;
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = list.get(i);
+		return array;
+	}
+
+	/**
+	 * Get the indices (in ascending order) of the items that could be matched by
+	 * the given pattern Item.
+	 * @return <code>null</code> if every item must be tried.
+	 */
+	int[] getCandidates(Item match) {
+		Class<?> c = match.getClass();
+		if (c == Item.Weapon.class || c == Item.Tool.class || c == Item.Armour.class) {
+			// These only match items of their own type
+			int type = match.getType();
+			return (type >= 0 && type < byType.length ? byType[type] : null);
+		}
+
+		if (c == Item.class) {
+			// Same tests as Item.matchName
+			String name = match.getName().toLowerCase();
+			if (name.equals("?") || name.equals("*") || NameMatcher.hasWildcards(name))
+				return null;
+			return merge(byName.getOrDefault(name, None), money);
+		}
+
+		return null;
+	}
+
+	private static int[] merge(int[] a, int[] b) {
+		if (b.length == 0) return a;
+		if (a.length == 0) return b;
+		int[] merged = new int[a.length + b.length];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length)
+			merged[k++] = (a[i] < b[j] ? a[i++] : b[j++]);
+		while (i < a.length)
+			merged[k++] = a[i++];
+		while (j < b.length)
+			merged[k++] = b[j++];
+		return merged;
+	}
+}
@@ -13,9 +13,12 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import javax.swing.AbstractListModel;
 import javax.swing.JList;
@@ -30,6 +33,8 @@ import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 import javax.swing.text.StyledDocument;
 
+import flands.Log.Category;
+
 /**
  * A list of items.
  * The usual case is the one held by the other player, but then I realised I could reuse
@@ -50,6 +55,8 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 
 	private static final int MAX_ITEM_COUNT = 12;
 	private ArrayList<Item> items;
+	// Built when first needed by findMatches, and dropped whenever the items change
+	private ItemIndex itemIndex = null;
 
 	// The currently 'active' items
 	private Item.Weapon wielded = null;
@@ -134,6 +141,11 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 			listeners.remove(l);
 	}
 	private void notifyListeners() {
+		if (batchDepth > 0) {
+			batchNotify = true;
+			return;
+		}
+
 		if (listeners != null) {
 			ChangeEvent evt = new ChangeEvent(this);
 			for (ChangeListener listener : listeners) {
@@ -288,6 +300,14 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 	}
 
 	private void notifyCurrencyListeners(String currency) {
+		if (batchDepth > 0) {
+			if (currency == null)
+				batchAllCurrencies = true;
+			else
+				batchCurrencies.add(currency);
+			return;
+		}
+
 		if (currencyListeners != null) {
 			ChangeEvent evt = new ChangeEvent(this);
 			for (Iterator<Object> i = currencyListeners.iterator(); i.hasNext(); ) {
@@ -331,12 +351,13 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 			if (shardsLimit >= 0 &&
 				(moneyIndex < 0 ? 0 : getItem(moneyIndex).getMoney() + i.getMoney()) > shardsLimit) {
 				// this money would exceed our limit
-				System.out.println("Can't add this much money to the cache - refuse");
+				Log.debug(Category.ITEMS, "Can't add this much money to the cache - refuse");
 				return false;
 			}
 
 			if (moneyIndex < 0) {
 				items.add(index, i);
+				itemIndex = null;
 				if (itemLimit >= 0)
 					// Money shouldn't count as a 'real' item
 					itemLimit++;
@@ -352,6 +373,7 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 				moneyItem.adjustMoney(i.getMoney());
 				if (moneyItem.getMoney() <= 0) {
 					items.remove(moneyIndex);
+					itemIndex = null;
 					fireIntervalRemoved(this, moneyIndex, moneyIndex);
 					if (itemLimit > 0)
 						itemLimit--;
@@ -365,6 +387,7 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 
 		if (getFreeSpace() > 0) {
 			items.add(index, i);
+			itemIndex = null;
 
 			// Figure out how this affects abilities
 			if (getAdventurer() != null)
@@ -488,10 +511,15 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 		int[] indices = new int[getItemCount()];
 		int count = 0;
 		while (match != null) {
-			for (int i = 0; i < getItemCount(); i++) {
+			// Only look at the items that could match this alternative
+			int[] candidates = getItemIndex().getCandidates(match);
+			int candidateCount = (candidates == null ? getItemCount() : candidates.length);
+			for (int c = 0; c < candidateCount; c++) {
+				int i = (candidates == null ? c : candidates[c]);
 				Item item = getItem(i);
 				if (match.matches(item)) {
-					System.out.println("Item " + i + " " + item.toDebugString() + " matched by " + match.toDebugString());
+					if (Log.isDebug(Category.ITEMS))
+						Log.debug(Category.ITEMS, "Item " + i + " " + item.toDebugString() + " matched by " + match.toDebugString());
 					if (!respectKeepTag || !item.hasKeepTag())
 						indices[count++] = i;
 				}
@@ -524,10 +552,17 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 		}
 	}
 
+	private ItemIndex getItemIndex() {
+		if (itemIndex == null)
+			itemIndex = new ItemIndex(items);
+		return itemIndex;
+	}
+
 	boolean areItemsSame(int[] indices) {
 		for (int i = 1; i < indices.length; i++)
 			if (!getItem(indices[i-1]).matches(getItem(indices[i]))) {
-				System.out.println("Item " + indices[i-1] + " != " + indices[i]);
+				if (Log.isDebug(Category.ITEMS))
+					Log.debug(Category.ITEMS, "Item " + indices[i-1] + " != " + indices[i]);
 				return false;
 			}
 		return true;
@@ -546,6 +581,7 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 	void removeItem(int index) {
 		if (index < getItemCount()) {
 			Item removed = items.remove(index);
+			itemIndex = null;
 			fireIntervalRemoved(this, index, index);
 			if (getAdventurer() != null) {
 				fireIntervalAdded(this, MAX_ITEM_COUNT-1, MAX_ITEM_COUNT-1); // keep #spaces constant
@@ -570,7 +606,10 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 			if (weaponLock)
 				// Removing the 'locked' weapon will cancel the lock
 				weaponLock = false;
-			getWielded(true);
+			if (batchDepth > 0)
+				batchFindWeapon = true;
+			else
+				getWielded(true);
 		}
 		else if (removed == worn) {
 			worn.setWorn(false);
@@ -579,7 +618,10 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 			if (armourLock)
 				// See above
 				armourLock = false;
-			getWorn(true);
+			if (batchDepth > 0)
+				batchFindArmour = true;
+			else
+				getWorn(true);
 		}
 		if (removed.getType() == Item.TOOL_TYPE) {
 			Item.Tool t = (Item.Tool)removed;
@@ -593,7 +635,10 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 				if (tools[a] == t) {
 					tools[a] = null;
 					getEffects().removeStatRelated(a, t);
-					getTool(a, true);
+					if (batchDepth > 0)
+						batchFindTools[a] = true;
+					else
+						getTool(a, true);
 				}
 			}
 		}
@@ -601,6 +646,121 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 		adjustEffects(removed, Effect.TYPE_TOOL, false);
 	}
 
+	/**
+	 * The changes that can be made to a list inside {@link ItemList#batch(Consumer)}.
+	 */
+	interface Editor {
+		int getItemCount();
+		Item getItem(int index);
+		boolean addItem(Item i);
+		void removeItem(int index);
+		boolean removeItem(Item i);
+	}
+
+	private final Editor editor = new Editor() {
+		@Override
+		public int getItemCount() { return ItemList.this.getItemCount(); }
+		@Override
+		public Item getItem(int index) { return ItemList.this.getItem(index); }
+		@Override
+		public boolean addItem(Item i) { return ItemList.this.addItem(i); }
+		@Override
+		public void removeItem(int index) { ItemList.this.removeItem(index); }
+		@Override
+		public boolean removeItem(Item i) { return ItemList.this.removeItem(i); }
+	};
+
+	// State kept while a batch of changes is being made; see batch()
+	private int batchDepth = 0;
+	private int batchStartSize;
+	private boolean batchListChanged, batchNotify, batchAllCurrencies;
+	private boolean batchFindWeapon, batchFindArmour;
+	private boolean[] batchFindTools;
+	private final Set<String> batchCurrencies = new LinkedHashSet<>();
+
+	/**
+	 * Make a number of changes to the list as one.
+	 * Each item's effects are still added or removed as it goes, but the list display,
+	 * the owner's abilities and any currency listeners are only told once, at the end;
+	 * and if the wielded weapon, worn armour or a tool is removed, a replacement is
+	 * only looked for at the end. Batches may be nested.
+	 */
+	void batch(Consumer<Editor> changes) {
+		if (batchDepth++ == 0) {
+			batchStartSize = getSize();
+			batchListChanged = batchNotify = batchAllCurrencies = false;
+			batchFindWeapon = batchFindArmour = false;
+			batchFindTools = new boolean[Adventurer.ABILITY_COUNT];
+			batchCurrencies.clear();
+		}
+
+		try {
+			changes.accept(editor);
+		}
+		finally {
+			if (--batchDepth == 0)
+				endBatch();
+		}
+	}
+
+	private void endBatch() {
+		if (getAdventurer() != null) {
+			if (batchFindWeapon)
+				getWielded(true);
+			if (batchFindArmour)
+				getWorn(true);
+			for (int a = 0; a < batchFindTools.length; a++)
+				if (batchFindTools[a])
+					getTool(a, true);
+		}
+
+		if (batchListChanged) {
+			// Report the change in size properly, as ListModel listeners expect
+			int size = getSize();
+			if (size < batchStartSize)
+				super.fireIntervalRemoved(this, size, batchStartSize - 1);
+			else if (size > batchStartSize)
+				super.fireIntervalAdded(this, batchStartSize, size - 1);
+			int common = Math.min(batchStartSize, size);
+			if (common > 0)
+				super.fireContentsChanged(this, 0, common - 1);
+		}
+		if (batchNotify)
+			notifyListeners();
+		if (batchAllCurrencies)
+			notifyCurrencyListeners(null);
+		else {
+			for (String currency : batchCurrencies)
+				notifyCurrencyListeners(currency);
+		}
+		batchCurrencies.clear();
+	}
+
+	// While in a batch, list events are put off until the end
+	@Override
+	protected void fireContentsChanged(Object source, int index0, int index1) {
+		if (batchDepth > 0)
+			batchListChanged = true;
+		else
+			super.fireContentsChanged(source, index0, index1);
+	}
+
+	@Override
+	protected void fireIntervalAdded(Object source, int index0, int index1) {
+		if (batchDepth > 0)
+			batchListChanged = true;
+		else
+			super.fireIntervalAdded(source, index0, index1);
+	}
+
+	@Override
+	protected void fireIntervalRemoved(Object source, int index0, int index1) {
+		if (batchDepth > 0)
+			batchListChanged = true;
+		else
+			super.fireIntervalRemoved(source, index0, index1);
+	}
+
 	void removeAll() { removeAll(true); }
 
 	void removeAll(boolean respectKeepTag) {
@@ -608,12 +768,16 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 		if (itemCount == 0) return;
 
 		if (respectKeepTag) {
-			System.out.println("Removing items, respecting keep tag");
-			for (int i = items.size() - 1; i >= 0; i--)
-				if (!getItem(i).hasKeepTag())
-					removeItem(i);
-				else
-					System.out.println("Keep tag on item " + getItem(i));
+			Log.debug(Category.ITEMS, "Removing items, respecting keep tag");
+			batch(e -> {
+				for (int i = e.getItemCount() - 1; i >= 0; i--) {
+					Item item = e.getItem(i);
+					if (!item.hasKeepTag())
+						e.removeItem(i);
+					else
+						Log.debug(Category.ITEMS, () -> "Keep tag on item " + item);
+				}
+			});
 		}
 		else {
 			if (itemLimit > 0) {
@@ -630,6 +794,7 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 			}
 
 			items.clear();
+			itemIndex = null;
 			fireIntervalRemoved(this, 0, itemCount - 1);
 
 			if (getAdventurer() != null) {
@@ -765,6 +930,9 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 
 			adjustEffects(i, Effect.TYPE_AURA, true);
 			adjustEffects(i, Effect.TYPE_TOOL, true);
+			if (getEffects() != null)
+				// The item's bonus may have changed without its records changing
+				getEffects().notifyEffectsUpdated(i);
 			notifyListeners();
 		}
 	}
@@ -1156,7 +1324,7 @@ public class ItemList extends AbstractListModel<StyledDocument> implements GameL
 	@Override
 	public void eventOccurred(GameEvent evt) {
 		if (evt.getID() == GameEvent.NEW_SECTION) {
-			System.out.println("ItemList got NewSection event");
+			Log.debug(Category.ITEMS, "ItemList got NewSection event");
 			armourLock = false;
 			weaponLock = false;
 		}
@@ -10,6 +10,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Action node that contains an item to be taken.
  * @author Jonathan Mann
@@ -160,7 +162,7 @@ public class ItemNode extends ActionNode implements Executable, ChangeListener,
 				taken = true;
 			}
 			if (indices.length > 1)
-				System.out.println(indices.length + " possible items to replace: I picked the first one!");
+				Log.debug(Category.ITEMS, () -> indices.length + " possible items to replace: I picked the first one!");
 		}
 		else if (getItems().addItem(item))
 			taken = true;
@@ -197,7 +199,7 @@ public class ItemNode extends ActionNode implements Executable, ChangeListener,
 	@Override
 	public void flagChanged(String name, boolean state) {
 		if (flag != null && flag.equals(name)) {
-			System.out.println("ItemNode: flag '" + name + "' = " + state);
+			Log.debug(Category.ITEMS, () -> "ItemNode: flag '" + name + "' = " + state);
 			if (state && quantity != 0)
 				setEnabled(true);
 			else
@@ -10,6 +10,8 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
+import flands.Log.Category;
+
 /**
  * Loads or saves a set of Loadable objects from/to a zip-file. 
  * @author Jonathan Mann
@@ -41,7 +43,7 @@ public class LoadableHandler {
 		boolean success = true;
 		for (Loadable l : elements) {
 			String entryFilename = l.getFilename();
-			System.err.println("Looking for zip entry " + entryFilename);
+			Log.debug(Category.SAVE, () -> "Looking for zip entry " + entryFilename);
 			if (entryFilename == null || entryFilename.length() == 0)
 				continue;
 			try {
@@ -7,6 +7,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Contains all XML-based information in a saved game - the items, curses,
  * and caches.
@@ -122,11 +124,13 @@ public class LoadableNode extends Node  {
 				Node n = i.next();
 				if (n instanceof ItemNode) {
 					Item item = ((ItemNode)n).getItem();
-					System.out.print("Item in list: ");
-					try {
-						item.outputXML(System.out, "");
+					if (Log.isDebug(Category.SAVE)) {
+						System.out.print("Item in list: ");
+						try {
+							item.outputXML(System.out, "");
+						}
+						catch (IOException ignored) {}
 					}
-					catch (IOException ignored) {}
 					items.addItem(item);
 				}
 			}
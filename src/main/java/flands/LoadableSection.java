@@ -8,8 +8,6 @@ import java.io.OutputStream;
 
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.SAXParser;
-
 /**
  * Wrapper for SectionNodes, that lets us store and retrieve one from any filename.
  * Using this we can define a 'current' and 'previous' section and restore them
@@ -58,12 +56,13 @@ public class LoadableSection implements Loadable {
 		section = din.readUTF();
 		Address address = new Address(book, section);
 
-		InputStream sectionStream = address.getStream();
 		try {
+			CompiledSection compiled = SectionCache.get(address);
+			if (compiled == null)
+				throw new IOException("Couldn't find section " + address);
 			ParserHandler handler = getHandler();
 			handler.setBook(book);
-			SAXParser parser = FLApp.createSAXParser();
-			parser.parse(sectionStream, handler);
+			handler.build(compiled);
 		}
 		catch (SAXException e) {
 			e.printStackTrace();
@@ -0,0 +1,111 @@
+package flands;
+
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Diagnostic output, split into categories that can each be switched on or off.
+ * Messages below a category's level are dropped before any formatting is done:
+ * either pass a constant string, pass a {@link Supplier} that builds the message,
+ * or check {@link #isDebug(Category)} first when the message is expensive to build.
+ * <p>
+ * By default only warnings are shown. Debugging mode (any command-line argument)
+ * turns on debug output for every category; the <code>flands.log</code> system
+ * property can instead name the categories to debug, separated by commas
+ * (e.g. <code>-Dflands.log=parser,items</code>).
+ */
+public final class Log {
+	/** Message levels, from most to least important. */
+	public enum Level { WARNING, INFO, DEBUG }
+
+	/** Areas of the program whose output can be switched on separately. */
+	public enum Category {
+		/** Reading sections and other XML. */
+		PARSER,
+		/** Building and laying out section documents. */
+		DOCUMENT,
+		/** Running section nodes: conditions, variables, gotos and so on. */
+		EXECUTION,
+		/** Fights. */
+		COMBAT,
+		/** Possessions, caches and trading. */
+		ITEMS,
+		/** Abilities, effects, blessings, curses, codewords and ships. */
+		ADVENTURER,
+		/** Undo handling. */
+		UNDO,
+		/** Books, sections and the main window. */
+		GAME,
+		/** Loading and saving games. */
+		SAVE,
+		/** Other windows and dialogs. */
+		GUI;
+
+		private Level level = Level.WARNING;
+	}
+
+	private Log() {}
+
+	static {
+		String categories = System.getProperty("flands.log");
+		if (categories != null) {
+			for (String name : categories.split(",")) {
+				try {
+					Category.valueOf(name.trim().toUpperCase()).level = Level.DEBUG;
+				}
+				catch (IllegalArgumentException e) {
+					System.err.println("Unknown log category: " + name);
+				}
+			}
+		}
+	}
+
+	/** Set the level of messages shown for a category. */
+	public static void setLevel(Category c, Level level) {
+		c.level = level;
+	}
+
+	/** Set the level of messages shown for every category. */
+	public static void setLevel(Level level) {
+		for (Category c : Category.values())
+			c.level = level;
+	}
+
+	public static boolean isLoggable(Category c, Level level) {
+		return level.compareTo(c.level) <= 0;
+	}
+
+	/** Check whether debug messages are shown for a category. */
+	public static boolean isDebug(Category c) {
+		return c.level == Level.DEBUG;
+	}
+
+	public static void debug(Category c, String message) {
+		if (c.level == Level.DEBUG)
+			print(System.out, c, message);
+	}
+
+	public static void debug(Category c, Supplier<String> message) {
+		if (c.level == Level.DEBUG)
+			print(System.out, c, message.get());
+	}
+
+	public static void info(Category c, String message) {
+		if (c.level != Level.WARNING)
+			print(System.out, c, message);
+	}
+
+	public static void info(Category c, Supplier<String> message) {
+		if (c.level != Level.WARNING)
+			print(System.out, c, message.get());
+	}
+
+	/** Warnings are always shown, on the error stream. */
+	public static void warning(Category c, String message) {
+		print(System.err, c, message);
+	}
+
+	private static void print(PrintStream out, Category c, String message) {
+		out.println(c.name().toLowerCase() + ": " + message);
+	}
+}
@@ -20,6 +20,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Action node that generally 'removes' something from the character. The functionality
  * varies depending on the type of thing being affected; the complementary function
@@ -107,7 +109,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 		val = atts.getValue("cargo");
 		if (val != null) {
 			cargo = Ship.getCargo(val);
-			System.out.println("Cargo type=" + cargo);
+			Log.debug(Category.ITEMS, () -> "Cargo type=" + cargo);
 		}
 
 		crew = getIntValue(atts, "crew", 0);
@@ -157,8 +159,8 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 			for (AdjustNode adjustment : adjustments)
 				delta += adjustment.getAdjustment();
 
-		System.out.println("Adjustment for LoseNode=" + delta);
 		lastAdjustment = delta;
+		Log.debug(Category.ITEMS, () -> "Adjustment for LoseNode=" + lastAdjustment);
 		return delta;
 	}
 
@@ -272,11 +274,11 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 		
 		if (price != null) {
 			if (canPayInFull()) {
-				System.out.println("LoseNode.execute(): can pay in full now");
+				Log.debug(Category.ITEMS, "LoseNode.execute(): can pay in full now");
 				setEnabled(true);
 			}
 			if (!actionDoesAnything() && item == null && shards == null && cargo == Ship.NO_CARGO) {
-				System.out.println("LoseNode.execute(): will set flag now");
+				Log.debug(Category.ITEMS, "LoseNode.execute(): will set flag now");
 				actionPerformed(null); // see 5.365 for an example of why
 			}
 			return true;
@@ -289,7 +291,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 			setEnabled(true);
 			// Return false and pause until user activates this node
 			if (hidden) {
-				System.out.println("Performing hidden action");
+				Log.debug(Category.ITEMS, "Performing hidden action");
 				actionPerformed(null);
 				return true;
 			}
@@ -426,7 +428,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 
 		int[] curseIndices = null;
 		if (curse != null) {
-			System.out.println("Looking for curses matching " + curse);
+			Log.debug(Category.ITEMS, () -> "Looking for curses matching " + curse);
 			CurseList curses = getCurses();
 			int[] indices = curses.findMatches(curse);
 			if (indices.length > 1 && !hidden && !curse.getName().equals("*")) {
@@ -441,7 +443,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 		if (cargo == Ship.MATCH_SINGLE_CARGO) {
 			int[] indices = getShips().findShipsHere();
 			if (indices.length > 1)
-				System.out.println("Lose ship/cargo/crew: too many ships here - don't know to handle this!");
+				Log.debug(Category.ITEMS, "Lose ship/cargo/crew: too many ships here - don't know to handle this!");
 
 			if (indices.length > 0) {
 				Ship s = getShips().getShip(indices[0]);
@@ -512,9 +514,11 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 
 		if (item != null) {
 			// itemIndices selected above
-			ItemList items = getAffectedItems();
-			for (int i = Math.min(itemCount-1, itemIndices.length-1); i >= 0; i--)
-				items.removeItem(itemIndices[i]);
+			int[] lost = itemIndices;
+			getAffectedItems().batch(items -> {
+				for (int i = Math.min(itemCount-1, lost.length-1); i >= 0; i--)
+					items.removeItem(lost[i]);
+			});
 			//if (indices.length > 0)
 			//	items.removeItem(indices[0]);
 		}
@@ -526,14 +530,16 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 					int num = Integer.parseInt(chance.substring(0, index));
 					int den = Integer.parseInt(chance.substring(index+1));
 					double fraction = ((double)num) / den;
-					System.out.println("Chance of losing each item is " + fraction);
-					ItemList items = getAffectedItems();
-					for (int i = items.getItemCount() - 1; i >= 0; i--) {
-						double r = Math.random();
-						System.out.println("Result for item " + i + "=" + r);
-						if (r < fraction && !items.getItem(i).hasKeepTag())
-							items.removeItem(i);
-					}
+					Log.debug(Category.ITEMS, () -> "Chance of losing each item is " + fraction);
+					getAffectedItems().batch(items -> {
+						for (int i = items.getItemCount() - 1; i >= 0; i--) {
+							double r = Math.random();
+							if (Log.isDebug(Category.ITEMS))
+								Log.debug(Category.ITEMS, "Result for item " + i + "=" + r);
+							if (r < fraction && !items.getItem(i).hasKeepTag())
+								items.removeItem(i);
+						}
+					});
 					doneRemove = true;
 				}
 				catch (NumberFormatException nfe) { System.err.println("Couldn't parse 'chance' attribute: " + chance); }
@@ -544,9 +550,11 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 				ItemList items = getAffectedItems();
 				int moneyIndex = items.getMoneyItem();
 				if (moneyIndex >= 0) {
-					for (int i = items.getItemCount() - 1; i >= 0; i--)
-						if (i != moneyIndex)
-							items.removeItem(i);
+					items.batch(e -> {
+						for (int i = e.getItemCount() - 1; i >= 0; i--)
+							if (i != moneyIndex)
+								e.removeItem(i);
+					});
 					doneRemove = true;
 				}
 			}
@@ -569,11 +577,12 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 			CurseList curses = getCurses();
 			if (curseIndices.length > 0) {
 				if (!curse.getName().equals("*")) {
-					System.out.println("Removing curse " + curseIndices[0]);
-					curses.removeCurse(curseIndices[0]);
+					int curseIndex = curseIndices[0];
+					Log.debug(Category.ITEMS, () -> "Removing curse " + curseIndex);
+					curses.removeCurse(curseIndex);
 				}
 				else {
-					System.out.println("Removing all matching curses");
+					Log.debug(Category.ITEMS, "Removing all matching curses");
 					for (int i = curseIndices.length - 1; i >= 0; i--)
 						curses.removeCurse(curseIndices[i]);
 				}
@@ -590,7 +599,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 		if (ship || cargo != Ship.NO_CARGO || crew != 0) {
 			int[] indices = getShips().findShipsHere();
 			if (indices.length > 1)
-				System.out.println("Lose ship/cargo/crew: too many ships here - don't know to handle this!");
+				Log.debug(Category.ITEMS, "Lose ship/cargo/crew: too many ships here - don't know to handle this!");
 
 			if (indices.length > 0) {
 				Ship s = getShips().getShip(indices[0]);
@@ -667,7 +676,7 @@ public class LoseNode extends ActionNode implements Executable, Roller.Listener,
 
 	@Override
 	protected String getTipText() {
-		System.out.println("Entering LoseNode.getTipText() method");
+		Log.debug(Category.ITEMS, "Entering LoseNode.getTipText() method");
 		List<String> lines = new LinkedList<>();
 
 		String text = null;
@@ -9,6 +9,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Grouping node for a market - contains ItemNodes, TradeNodes and the (internal class)
  * HeaderNode, arranged as a table. It may also contain special TradeEventNodes that
@@ -169,7 +171,7 @@ public class MarketNode extends TableNode implements Executable {
 					headers[i] = atts.getValue(attName);
 					if (headers[i] == null) {
 						if (i < 2)
-							System.out.println("Expected at least two headers here: " + atts);
+							Log.debug(Category.ITEMS, () -> "Expected at least two headers here: " + atts);
 						break;
 					}
 				}
@@ -0,0 +1,86 @@
+package flands;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Matches names against a simple wildcarded pattern, where <code>*</code> stands for
+ * any run of characters and <code>?</code> for any single character; every other
+ * character stands for itself. Matching is case-sensitive, so callers that want to
+ * ignore case should lower-case both sides first.
+ * <p>
+ * Matchers are shared: {@link #get(String)} hands back the same one for the same
+ * pattern, from a cache of those most recently asked for.
+ */
+final class NameMatcher {
+	/** The most matchers kept in the cache. */
+	private static final int MaxCached = 256;
+
+	private static final Map<String, NameMatcher> cache = new LinkedHashMap<String, NameMatcher>(64, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, NameMatcher> eldest) {
+			return size() > MaxCached;
+		}
+	};
+
+	private final String pattern;
+	private final boolean wildcards;
+
+	private NameMatcher(String pattern) {
+		this.pattern = pattern;
+		this.wildcards = hasWildcards(pattern);
+	}
+
+	/** Get the matcher for a pattern. */
+	static NameMatcher get(String pattern) {
+		synchronized (cache) {
+			NameMatcher m = cache.get(pattern);
+			if (m == null) {
+				m = new NameMatcher(pattern);
+				cache.put(pattern, m);
+			}
+			return m;
+		}
+	}
+
+	/** Check whether a string holds any wildcard characters. */
+	static boolean hasWildcards(String s) {
+		return s.indexOf('*') >= 0 || s.indexOf('?') >= 0;
+	}
+
+	String getPattern() { return pattern; }
+
+	/** Check whether the whole of the given name matches the pattern. */
+	boolean matches(String name) {
+		if (!wildcards)
+			return pattern.equals(name);
+
+		// Walk both strings together. On a mismatch, go back to the last '*'
+		// and let it swallow one more character of the name.
+		int p = 0, n = 0;
+		int starP = -1, starN = 0;
+		int plen = pattern.length(), nlen = name.length();
+		while (n < nlen) {
+			char pc = (p < plen ? pattern.charAt(p) : 0);
+			if (p < plen && pc == '*') {
+				starP = p++;
+				starN = n;
+			}
+			else if (p < plen && (pc == '?' || pc == name.charAt(n))) {
+				p++;
+				n++;
+			}
+			else if (starP >= 0) {
+				p = starP + 1;
+				n = ++starN;
+			}
+			else
+				return false;
+		}
+		while (p < plen && pattern.charAt(p) == '*')
+			p++;
+		return p == plen;
+	}
+
+	public String toString() { return "NameMatcher(" + pattern + ")"; }
+}
@@ -13,6 +13,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.text.AbstractDocument.AbstractElement;
 import javax.swing.text.AttributeSet;
@@ -24,6 +26,8 @@ import javax.swing.text.View;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Superclass of a hierarchy of program nodes.
  * Some nodes represent purely textual elements, others represent purely
@@ -164,133 +168,149 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 	}
 
 	/**
-	 * This implementation creates any known Node type and adds it as a child
+	 * Creates a node for an element, as a child of the given parent.
+	 * May return <code>null</code> if it turns out not to recognise the name.
+	 */
+	interface Factory {
+		Node create(String name, Node parent);
+	}
+
+	/** A registered element, with (in parser debugging) how often and how long its nodes took to create. */
+	private static final class ElementType {
+		private final Factory factory;
+		private int created = 0;
+		private long nanos = 0;
+
+		private ElementType(Factory factory) {
+			this.factory = factory;
+		}
+	}
+
+	private static final Map<String,ElementType> elementTypes = new ConcurrentHashMap<>();
+
+	/**
+	 * Register the node to be created for an element name, replacing any registered
+	 * already. This is how subclasses can add element types of their own.
+	 */
+	static void registerElement(String name, Factory factory) {
+		elementTypes.put(name.intern(), new ElementType(factory));
+	}
+
+	static {
+		registerElement(ParagraphNode.ElementName, (name, parent) -> new ParagraphNode(parent));
+		registerElement("choices", TableNode::new);
+		registerElement("table", TableNode::new);
+		registerElement(ChoiceNode.ElementName, (name, parent) -> new ChoiceNode(parent));
+		registerElement(OutcomesTableNode.ElementName, (name, parent) -> new OutcomesTableNode(parent));
+		registerElement(GotoNode.ElementName, (name, parent) -> new GotoNode(parent));
+		registerElement(ReturnNode.ElementName, (name, parent) -> new ReturnNode(parent));
+		registerElement(RandomNode.ElementName, (name, parent) -> new RandomNode(parent));
+		registerElement(OutcomeNode.ElementName, (name, parent) -> new OutcomeNode(parent));
+		registerElement(SectionNode.ElementName, (name, parent) -> new SectionNode(parent));
+		registerElement(IfNode.ElementName, IfNode::new);
+		registerElement(IfNode.ElseIfElementName, IfNode::new);
+		registerElement(IfNode.ElseElementName, IfNode::new);
+		registerElement(TickNode.TickElementName, TickNode::new);
+		registerElement(TickNode.GainElementName, TickNode::new);
+		registerElement(LoseNode.ElementName, (name, parent) -> new LoseNode(parent));
+		registerElement(DifficultyNode.ElementName, (name, parent) -> new DifficultyNode(parent));
+		registerElement(TrainingNode.ElementName, (name, parent) -> new TrainingNode(parent));
+		registerElement(DifficultyResultNode.SuccessElementName, (name, parent) -> new DifficultyResultNode(true, parent));
+		registerElement(DifficultyResultNode.FailureElementName, (name, parent) -> new DifficultyResultNode(false, parent));
+		registerElement(RankCheckNode.ElementName, (name, parent) -> new RankCheckNode(parent));
+		registerElement(FightNode.ElementName, (name, parent) -> new FightNode(parent));
+		registerElement(FightNode.RoundNode.ElementName, (name, parent) -> FightNode.createRoundNode(parent));
+		registerElement(FightNode.DamageNode.ElementName, (name, parent) -> FightNode.createDamageNode(parent));
+		registerElement(FightNode.FleeNode.ElementName, (name, parent) -> FightNode.createFleeNode(parent));
+		registerElement(MarketNode.ElementName, (name, parent) -> new MarketNode(parent));
+		registerElement(TradeNode.ElementName, (name, parent) -> new TradeNode(parent));
+		registerElement(TradeNode.BuyNode.ElementName, (name, parent) -> new TradeNode.BuyNode(parent));
+		registerElement(TradeNode.SellNode.ElementName, (name, parent) -> new TradeNode.SellNode(parent));
+		registerElement(RestNode.ElementName, (name, parent) -> new RestNode(parent));
+		registerElement(AdjustNode.ElementName, (name, parent) -> new AdjustNode(parent));
+		registerElement(FieldNode.ElementName, (name, parent) -> new FieldNode(parent));
+		for (int t = Item.PLAIN_TYPE; t <= Item.ARMOUR_TYPE; t++)
+			registerElement(Item.getTypeName(t), ItemNode::createItemNode);
+		for (int t = Curse.CURSE_TYPE; t <= Curse.POISON_TYPE; t++)
+			registerElement(Curse.getTypeName(t), CurseNode::createCurseNode);
+		registerElement(GroupNode.ElementName, (name, parent) -> new GroupNode(parent));
+		registerElement(TextNode.TextElementName, (name, parent) -> new TextNode(parent, true));
+		registerElement(TextNode.DescElementName, (name, parent) -> new TextNode(parent, false));
+		registerElement(SetVarNode.ElementName, (name, parent) -> new SetVarNode(parent));
+		registerElement(WhileNode.ElementName, (name, parent) -> new WhileNode(parent));
+		registerElement(RerollNode.ElementName, (name, parent) -> new RerollNode(parent));
+		registerElement(ItemGroupNode.ElementName, (name, parent) -> new ItemGroupNode(parent));
+		registerElement(CacheNode.ItemElementName, CacheNode::new);
+		registerElement(CacheNode.MoneyElementName, CacheNode::new);
+		registerElement(CacheNode.AdjustMoneyNode.ElementName, (name, parent) -> new CacheNode.AdjustMoneyNode(parent));
+		registerElement(ResurrectionNode.ElementName, (name, parent) -> new ResurrectionNode(parent));
+		registerElement(PriceNode.ElementName, (name, parent) -> new PriceNode(parent));
+		registerElement(TransferNode.ElementName, (name, parent) -> new TransferNode(parent));
+		registerElement(ItemFilterNode.IncludeName, (name, parent) -> new ItemFilterNode(true, parent));
+		registerElement(ItemFilterNode.ExcludeName, (name, parent) -> new ItemFilterNode(false, parent));
+		registerElement(ImageNode.ElementName, (name, parent) -> new ImageNode(parent));
+		for (int level = 1; level <= 4; level++)
+			registerElement("h" + level, HeadingNode::createHeadingNode);
+		registerElement(RowNode.ElementName, (name, parent) -> new RowNode(parent));
+		registerElement(RowNode.CellNode.ElementName, (name, parent) -> new RowNode.CellNode(parent));
+		registerElement(StyleNode.BoldElementName, (name, parent) -> new StyleNode.Bold(parent));
+		registerElement(StyleNode.ItalicElementName, (name, parent) -> new StyleNode.Italic(parent));
+		registerElement(StyleNode.CapsElementName, (name, parent) -> new StyleNode.Caps(parent));
+		registerElement(StyleNode.UnderlineElementName, (name, parent) -> new StyleNode.Underline(parent));
+		registerElement(ExtraChoice.ElementName, (name, parent) -> new ExtraChoice(parent));
+		registerElement(SectionViewNode.ElementName, (name, parent) -> new SectionViewNode(parent));
+	}
+
+	/**
+	 * This implementation creates any registered Node type and adds it as a child
 	 * to this Node (unless it is a StyleNode).
 	 * @return the child created.
 	 */
 	protected Node createChild(String name) {
-		Node child;
-		if (name.equals(ParagraphNode.ElementName))
-			child = new ParagraphNode(this);
-		else if (name.equals("choices") || name.equals("table"))
-			child = new TableNode(name, this);
-		else if (name.equals(ChoiceNode.ElementName))
-			child = new ChoiceNode(this);
-		else if (name.equals(OutcomesTableNode.ElementName))
-			child = new OutcomesTableNode(this);
-		else if (name.equals(GotoNode.ElementName))
-			child = new GotoNode(this);
-		else if (name.equals(ReturnNode.ElementName))
-			child = new ReturnNode(this);
-		else if (name.equals(RandomNode.ElementName))
-			child = new RandomNode(this);
-		else if (name.equals(OutcomeNode.ElementName))
-			child = new OutcomeNode(this);
-		else if (name.equals(SectionNode.ElementName))
-			child = new SectionNode(this);
-		else if (name.equals(IfNode.ElementName) ||
-			     name.equals(IfNode.ElseIfElementName) ||
-			     name.equals(IfNode.ElseElementName))
-			child = new IfNode(name, this);
-		else if (name.equals(TickNode.TickElementName) || name.equals(TickNode.GainElementName))
-			child = new TickNode(name, this);
-		else if (name.equals(LoseNode.ElementName))
-			child = new LoseNode(this);
-		else if (name.equals(DifficultyNode.ElementName))
-			child = new DifficultyNode(this);
-		else if (name.equals(TrainingNode.ElementName))
-			child = new TrainingNode(this);
-		else if (name.equals(DifficultyResultNode.SuccessElementName))
-			child = new DifficultyResultNode(true, this);
-		else if (name.equals(DifficultyResultNode.FailureElementName))
-			child = new DifficultyResultNode(false, this);
-		else if (name.equals(RankCheckNode.ElementName))
-			child = new RankCheckNode(this);
-		else if (name.equals(FightNode.ElementName))
-			child = new FightNode(this);
-		else if (name.equals(FightNode.RoundNode.ElementName))
-			child = FightNode.createRoundNode(this);
-		else if (name.equals(FightNode.DamageNode.ElementName))
-			child = FightNode.createDamageNode(this);
-		else if (name.equals(FightNode.FleeNode.ElementName))
-			child = FightNode.createFleeNode(this);
-		else if (name.equals(TrainingNode.ElementName))
-			child = new TrainingNode(this);
-		else if (name.equals(MarketNode.ElementName))
-			child = new MarketNode(this);
-		else if (name.equals(TradeNode.ElementName))
-			child = new TradeNode(this);
-		else if (name.equals(TradeNode.BuyNode.ElementName))
-			child = new TradeNode.BuyNode(this);
-		else if (name.equals(TradeNode.SellNode.ElementName))
-			child = new TradeNode.SellNode(this);
-		else if (name.equals(RestNode.ElementName))
-			child = new RestNode(this);
-		else if (name.equals(AdjustNode.ElementName))
-			child = new AdjustNode(this);
-		else if (name.equals(FieldNode.ElementName))
-			child = new FieldNode(this);
-		else if ((child = ItemNode.createItemNode(name, this)) != null)
-			; // since we've already just created it
-		else if ((child = CurseNode.createCurseNode(name, this)) != null)
-			;
-		else if (name.equals(GroupNode.ElementName))
-			child = new GroupNode(this);
-		else if (name.equals(TextNode.TextElementName))
-			child = new TextNode(this, true);
-		else if (name.equals(TextNode.DescElementName))
-			child = new TextNode(this, false);
-		else if (name.equals(SetVarNode.ElementName))
-			child = new SetVarNode(this);
-		else if (name.equals(WhileNode.ElementName))
-			child = new WhileNode(this);
-		else if (name.equals(RerollNode.ElementName))
-			child = new RerollNode(this);
-		else if (name.equals(ItemGroupNode.ElementName))
-			child = new ItemGroupNode(this);
-		else if (name.equals(CacheNode.ItemElementName) || name.equals(CacheNode.MoneyElementName))
-			child = new CacheNode(name, this);
-		else if (name.equals(CacheNode.AdjustMoneyNode.ElementName))
-			child = new CacheNode.AdjustMoneyNode(this);
-		else if (name.equals(ResurrectionNode.ElementName))
-			child = new ResurrectionNode(this);
-		else if (name.equals(PriceNode.ElementName))
-			child = new PriceNode(this);
-		else if (name.equals(TransferNode.ElementName))
-			child = new TransferNode(this);
-		else if (name.equals(ItemFilterNode.IncludeName) ||
-				 name.equals(ItemFilterNode.ExcludeName))
-			child = new ItemFilterNode(name.equals(ItemFilterNode.IncludeName), this);
-		else if (name.equals(ImageNode.ElementName))
-			child = new ImageNode(this);
-		else if ((child = HeadingNode.createHeadingNode(name, this)) != null)
-			;
-		else if (name.equals(RowNode.ElementName))
-			child = new RowNode(this);
-		else if (name.equals(RowNode.CellNode.ElementName))
-			child = new RowNode.CellNode(this);
-		else if (name.equals(StyleNode.BoldElementName))
-			return new StyleNode.Bold(this);
-		else if (name.equals(StyleNode.ItalicElementName))
-			return new StyleNode.Italic(this);
-		else if (name.equals(StyleNode.CapsElementName))
-			return new StyleNode.Caps(this);
-		else if (name.equals(StyleNode.UnderlineElementName))
-			return new StyleNode.Underline(this);
-		// Getting down to the really rare Node types now...
-		else if (name.equals(ExtraChoice.ElementName))
-			child = new ExtraChoice(this);
-		else if (name.equals(SectionViewNode.ElementName))
-			child = new SectionViewNode(this);
-		else {
-			System.out.println("Failed to recognise node for element: " + name);
+		Node child = null;
+		ElementType type = elementTypes.get(name);
+		if (type != null) {
+			if (Log.isDebug(Category.PARSER)) {
+				long start = System.nanoTime();
+				child = type.factory.create(name, this);
+				synchronized (type) {
+					type.created++;
+					type.nanos += System.nanoTime() - start;
+				}
+			}
+			else
+				child = type.factory.create(name, this);
+		}
+
+		if (child == null) {
+			Log.debug(Category.PARSER, () -> "Failed to recognise node for element: " + name);
 			child = new UnrecognisedNode(name, this);
 		}
+		else if (child instanceof StyleNode)
+			// Style nodes aren't part of the tree
+			return child;
 
 		addChild(child);
 		return child;
 	}
 
+	/**
+	 * Get how many nodes of each element type have been created, and how long that took.
+	 * Only counted while parser debugging is on.
+	 */
+	static String getElementStatistics() {
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String,ElementType> e : new TreeMap<>(elementTypes).entrySet()) {
+			ElementType type = e.getValue();
+			synchronized (type) {
+				if (type.created > 0)
+					sb.append(e.getKey()).append(": ").append(type.created).append(" nodes, ")
+						.append(type.nanos / 1000).append("us\n");
+			}
+		}
+		return sb.toString();
+	}
+
 	/**
 	 * Creates an appropriate child Node given the name and attributes.
 	 * This node is then added as a child, for most types of node (notably not StyleNodes).
@@ -306,7 +326,7 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 				n = new LoadableNode();
 				break;
 			default:
-				System.out.println("createNode() called when parent=null, " + name + " is not a valid root element");
+				Log.debug(Category.PARSER, () -> "createNode() called when parent=null, " + name + " is not a valid root element");
 				n = null;
 				break;
 			}
@@ -357,7 +377,7 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 				else if (c == 'f' || c == '0' || c == 'F')
 					return false;
 				else
-					System.out.println("Unrecognised attribute value for " + name + ": " + val);
+					Log.debug(Category.PARSER, () -> "Unrecognised attribute value for " + name + ": " + val);
 			}
 		}
 		return defaultVal;
@@ -441,7 +461,7 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 			}
 			catch (NullPointerException npe) {
 				StackTraceElement[] stack = npe.getStackTrace();
-				System.out.println("Node.dispose(): NPE at " + stack[0] + "\n  at " + stack[1]);
+				Log.debug(Category.PARSER, () -> "Node.dispose(): NPE at " + stack[0] + "\n  at " + stack[1]);
 			}
 		}
 	}
@@ -598,6 +618,19 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 	public void setVariableValue(String name, int value) { getRoot().setVariableValue(name, value); }
 	public void adjustVariableValue(String name, int delta) { getRoot().adjustVariableValue(name, delta); }
 	public void removeVariable(String name) { getRoot().removeVariable(name); }
+	/*
+	 * Quicker versions of the above, for nodes that look up the slot of a variable
+	 * once (when initialised) and use it from then on.
+	 */
+	int getVariableSlot(String name) {
+		SectionNode root = getRoot();
+		return (root == null ? -1 : root.getVariableSlot(name));
+	}
+	boolean isVariableDefined(int slot) { return getRoot().isVariableDefined(slot); }
+	int getVariableValue(int slot) { return getRoot().getVariableValue(slot); }
+	void setVariableValue(int slot, int value) { getRoot().setVariableValue(slot, value); }
+	void adjustVariableValue(int slot, int delta) { getRoot().adjustVariableValue(slot, delta); }
+	void removeVariable(int slot) { getRoot().removeVariable(slot); }
 	@Override
 	public int resolveIdentifier(String ident) { return getVariableValue(ident); }
 
@@ -624,14 +657,8 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 	}
 
 	/* Convenience methods */
-	private static Adventurer dummyAdventurer = null;
 	static Adventurer getAdventurer() {
-		Adventurer adv = FLApp.getSingle().getAdventurer();
-		if (adv != null) return adv;
-		
-		if (dummyAdventurer == null)
-			dummyAdventurer = new Adventurer();
-		return dummyAdventurer;
+		return GameSession.getCurrent().getAdventurer();
 	}
 	static Codewords getCodewords() { return getAdventurer().getCodewords(); }
 	static ItemList getItems() { return getAdventurer().getItems(); }
@@ -727,8 +754,10 @@ public abstract class Node implements XMLOutput, Expression.Resolver {
 					if (negate) val = -val;
 					saveProperty(props, propName, val);
 				}
-				else
-					System.out.println("Node.outit: couldn't resolve variable " + varStr + " for output; may be intentional.");
+				else {
+					String unresolved = varStr;
+					Log.debug(Category.PARSER, () -> "Node.outit: couldn't resolve variable " + unresolved + " for output; may be intentional.");
+				}
 			}
 		}
 	}
@@ -8,6 +8,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Conditional node, one of a set, most often in the form 'Score a-b, turn to X'.
  * Usually occurs after some kind of random node, with each OutcomeNode handling
@@ -47,7 +49,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 	}
 	private void setRange(int min, int max) {
 		if (min > max)
-			System.out.println("Error: " + min + " > " + max + "!");
+			Log.debug(Category.EXECUTION, () -> "Error: " + min + " > " + max + "!");
 		else {
 			rangeMin = min;
 			rangeMax = max;
@@ -276,7 +278,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 			}
 		}
 
-		System.out.println("Adding OutcomeNode(" + getRange() + ") as child executable");
+		Log.debug(Category.EXECUTION, () -> "Adding OutcomeNode(" + getRange() + ") as child executable");
 		addExecutableNode(this);
 
 		return (descriptionNode != null || gotoNode != null);
@@ -284,7 +286,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 
 	@Override
 	public boolean execute(ExecutableGrouper grouper) {
-		System.out.println("Executing OutcomeNode, range " + getRange());
+		Log.debug(Category.EXECUTION, () -> "Executing OutcomeNode, range " + getRange());
 
 		return activate(grouper);
 	}
@@ -296,7 +298,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 		if (flag != null && !getFlags().getState(flag)) {
 			// This OutcomeNode is dependent on an earlier price being paid,
 			// though not directly. Example at 5.674.
-			System.out.println("OutcomeNode: flag is false - skipping");
+			Log.debug(Category.EXECUTION, "OutcomeNode: flag is false - skipping");
 			return true;
 		}
 
@@ -310,7 +312,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 				descriptionNode.setEnabled(true);
 			if (gotoNode != null) {
 				if (gotoNode.canUse()) {
-					System.out.println("Can use gotoNode now");
+					Log.debug(Category.EXECUTION, "Can use gotoNode now");
 					if (runner == null)
 						// enable the gotoNode now
 						gotoNode.setEnabled(true);
@@ -329,7 +331,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 			}
 
 			if (runner != null) {
-				System.out.println("OutcomeNode will run executable children");
+				Log.debug(Category.EXECUTION, "OutcomeNode will run executable children");
 				return runner.execute(grouper);
 			}
 		}
@@ -353,7 +355,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 				descriptionNode.setEnabled(false);
 			setHighlighted(false);
 			if (rangeNode != null && !rangeNode.isEnabled()) {
-				System.out.println("rangeNode isNotEnabled!");
+				Log.debug(Category.EXECUTION, "rangeNode isNotEnabled!");
 				rangeNode.setEnabled(true);
 			}
 		}
@@ -372,7 +374,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 
 	@Override
 	public void actionPerformed(java.awt.event.ActionEvent evt) {
-		System.out.println("Something triggered this Outcome: huh?");
+		Log.debug(Category.EXECUTION, "Something triggered this Outcome: huh?");
 	}
 
 	@Override
@@ -385,7 +387,7 @@ public class OutcomeNode extends ActionNode implements Executable, Flag.Listener
 	public void flagChanged(String name, boolean state) {
 		if (flag.equals(name)) {
 			if (state) {
-				System.out.println("OutcomeNode: flag is now true - resetting");
+				Log.debug(Category.EXECUTION, "OutcomeNode: flag is now true - resetting");
 				resetExecute();
 				if (!hasRange() && codewords == null)
 					if (grouper != null)
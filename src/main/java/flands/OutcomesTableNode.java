@@ -5,6 +5,8 @@ import java.util.Iterator;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Groups a set of outcomes as a table. Since enableMatchingChild is unused, this
  * simply acts as a grouping node, so it could contain ChoiceNodes or DifficultyResultNodes
@@ -39,7 +41,7 @@ public class OutcomesTableNode extends TableNode implements Executable {
 			if (n instanceof OutcomeNode) {
 				OutcomeNode outcome = (OutcomeNode)n;
 				if (outcome.matches(value)) {
-					System.out.println("Found matching outcome: " + outcome);
+					Log.debug(Category.EXECUTION, () -> "Found matching outcome: " + outcome);
 					outcome.setEnabled(true);
 					return true;
 				}
@@ -51,7 +53,7 @@ public class OutcomesTableNode extends TableNode implements Executable {
 
 	@Override
 	public boolean execute(ExecutableGrouper grouper) {
-		System.out.println("Executing Outcomes node");
+		Log.debug(Category.EXECUTION, "Executing Outcomes node");
 		// Make sure all child OutcomeNodes are in initial state
 		for (Iterator<Node> i = getChildren(); i.hasNext(); ) {
 			Node n = i.next();
@@ -8,6 +8,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Displays a paragraph of justified text, as with HTML. May contain other nodes.
  * @author Jonathan Mann
@@ -41,7 +43,7 @@ public class ParagraphNode extends Node {
 				if (Character.isWhitespace(getDocument().getText(getDocument().getLength() - 1, 1).charAt(0)))
 					// previous character was whitespace - don't need any more!
 					return;
-				System.out.println("ParagraphNode: including whitespace");
+				Log.debug(Category.PARSER, "ParagraphNode: including whitespace");
 			}
 			catch (javax.swing.text.BadLocationException ble) {
 				// No content before this? Don't lead with whitespace either.
@@ -5,6 +5,8 @@ import org.xml.sax.helpers.DefaultHandler;
 
 import java.util.LinkedList;
 
+import flands.Log.Category;
+
 /**
  * The standard SAX handler when parsing section XML files.
  * @author Jonathan Mann
@@ -35,7 +37,7 @@ public class ParserHandler extends DefaultHandler {
 	 ************** */
 	@Override
 	public void startDocument() {
-		System.out.println("startDocument()");
+		Log.debug(Category.PARSER, "startDocument()");
 
 		// Reset any variables - if there was an error in the last parse,
 		// these may not be in the right state.
@@ -49,7 +51,7 @@ public class ParserHandler extends DefaultHandler {
 	private boolean emptyTag;
 	private boolean trimContentStart = true;
 	private LinkedList<Node> nodeStack = new LinkedList<>();
-	private StringBuffer accumulatedContent = new StringBuffer();
+	private final TextNormalizer accumulatedContent = new TextNormalizer();
 
 	private Node getCurrentNode() { return (nodeStack.isEmpty()) ? null : nodeStack.getFirst(); }
 	private void pushNode(Node node) { nodeStack.addFirst(node); }
@@ -74,23 +76,68 @@ public class ParserHandler extends DefaultHandler {
 		return sb.toString();
 	}
 
+	/**
+	 * Build a new node tree from a compiled section, exactly as if its XML had
+	 * been parsed by this handler.
+	 */
+	void build(CompiledSection section) {
+		startDocument();
+		for (int i = 0; i < section.getTagCount(); i++) {
+			String contentStr = section.getContent(i, trimContentStart);
+			if (contentStr == null)
+				contentStr = "";
+			else
+				emptyTag = false;
+
+			if (section.getTagType(i) == CompiledSection.START_TAG)
+				startNode(section.getName(i), section.getAttributes(i), contentStr);
+			else
+				endNode(contentStr);
+		}
+	}
+
 	@Override
 	public void startElement(String uri, String localName, String qName, Attributes atts) {
-		condenseContent(accumulatedContent);
-		String contentStr = accumulatedContent.toString();
+		String contentStr = accumulatedContent.take(false);
+		localName = localName.toLowerCase();
+		startNode(localName, atts, contentStr);
+
+		if (Log.isDebug(Category.PARSER)) {
+			StringBuilder sb = new StringBuilder("startElement(");
+			sb.append('"').append(uri).append('"');
+			sb.append(',');
+			sb.append('"').append(localName).append('"');
+			sb.append(',');
+			sb.append('"').append(qName).append('"');
+			sb.append(',');
+			sb.append("attributes[");
+			for (int i = 0; i < atts.getLength(); i++) {
+				if (i > 0)
+					sb.append(',');
+				sb.append(atts.getLocalName(i));
+				sb.append('=');
+				sb.append(atts.getValue(i));
+			}
+			sb.append("])");
+			Log.debug(Category.PARSER, sb.toString());
+		}
+	}
+
+	/**
+	 * Pass any content to the current node, then create the new node and make it current.
+	 */
+	private void startNode(String name, Attributes atts, String contentStr) {
 		if (contentStr.length() > 0) {
 			// Pass it in now
 			Node currentNode = getCurrentNode();
 			if (currentNode != null)
 				currentNode.handleContent(contentStr);
-			accumulatedContent.setLength(0);
 		}
 
 		emptyTag = true;
 		trimContentStart = true;
-		localName = localName.toLowerCase();
 
-		Node newNode = Node.createNode(localName, getCurrentNode());
+		Node newNode = Node.createNode(name, getCurrentNode());
 		if (newNode != null) {
 			if (nodeStack.size() == 0 && book != null && newNode instanceof SectionNode) {
 				// Set the book immediately
@@ -101,33 +148,21 @@ public class ParserHandler extends DefaultHandler {
 			pushNode(newNode);
 			newNode.init(atts);
 		}
-
-		StringBuilder sb = new StringBuilder("startElement(");
-		sb.append('"').append(uri).append('"');
-		sb.append(',');
-		sb.append('"').append(localName).append('"');
-		sb.append(',');
-		sb.append('"').append(qName).append('"');
-		sb.append(',');
-		sb.append("attributes[");
-		for (int i = 0; i < atts.getLength(); i++) {
-			if (i > 0)
-				sb.append(',');
-			sb.append(atts.getLocalName(i));
-			sb.append('=');
-			sb.append(atts.getValue(i));
-		}
-		sb.append("])");
-		System.out.println(sb.toString());
 	}
 
 	@Override
 	public void endElement(String uri, String localName, String qName) {
-		condenseContent(accumulatedContent);
-		String contentStr = Node.trimEnd(accumulatedContent.toString());
+		String contentStr = accumulatedContent.take(true);
+		endNode(contentStr);
+		Log.debug(Category.PARSER, () -> "endElement(" + uri + "," + localName + "," + qName + ")");
+	}
+
+	/**
+	 * Pass the remaining content to the current node, and close it.
+	 */
+	private void endNode(String contentStr) {
 		if (contentStr.length() > 0 || emptyTag)
 			getCurrentNode().handleContent(contentStr);
-		accumulatedContent.setLength(0);
 		emptyTag = false;
 		trimContentStart = false;
 
@@ -140,17 +175,13 @@ public class ParserHandler extends DefaultHandler {
 				((SectionNode)rootNode).startExecution();
 			}
 		}
-		System.out.println("endElement(" + uri + "," + localName + "," + qName + ")");
 	}
 
 	@Override
 	public void characters(char[] ch, int start, int length) {
 		if (length > 0) {
 			// Not sure why this would get called otherwise, but just in case
-			if (trimContentStart)
-				accumulatedContent.append(Node.trimStart(new String(ch, start, length)));
-			else
-				accumulatedContent.append(ch, start, length);
+			accumulatedContent.append(ch, start, length, trimContentStart);
 			trimContentStart = false;
 			emptyTag = false;
 		}
@@ -171,42 +202,14 @@ public class ParserHandler extends DefaultHandler {
 	*/
 	@Override
 	public void ignorableWhitespace(char[] ch, int start, int length) {
-		System.out.println("ignorableWhitespace('" + new String(ch) + "'," + start + "," + length + ")");
+		Log.debug(Category.PARSER, () -> "ignorableWhitespace('" + new String(ch) + "'," + start + "," + length + ")");
 	}
 	@Override
 	public void processingInstruction(String target, String data) {
-		System.out.println("processingInstruction(" + target + "," + data + ")");
+		Log.debug(Category.PARSER, () -> "processingInstruction(" + target + "," + data + ")");
 	}
 	@Override
 	public void skippedEntity(String name) {
-		System.out.println("skippedEntity(" + name + ")");
-	}
-
-	/**
-	 * Removes excess whitespace, converts multiple dashes into a single mdash,
-	 * and replaces triple periods with an ellipsis.
-	 */
-	private static void condenseContent(StringBuffer text) {
-		for (int i = 0; i < text.length(); i++) {
-			if (Character.isWhitespace(text.charAt(i))) {
-				while (i+1 < text.length() && Character.isWhitespace(text.charAt(i+1)))
-					text.deleteCharAt(i+1);
-				text.setCharAt(i, ' '); // rather than other whitespace characters
-			}
-		}
-
-		int index = text.indexOf("-");
-		while (index >= 0) {
-			if (index > 0 && text.charAt(index-1) == ' ' &&
-				index < text.length() - 1 && text.charAt(index+1) == ' ')
-				text.setCharAt(index, '\u2013');
-			index = text.indexOf("-", index+1);
-		}
-		while (true) {
-			index = text.indexOf("...");
-			if (index < 0)
-				break;
-			text.replace(index, index + 3, "\u2026");
-		}
+		Log.debug(Category.PARSER, () -> "skippedEntity(" + name + ")");
 	}
 }
@@ -0,0 +1,81 @@
+package flands;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Hands out SAX parsers for reuse, so that reading a section or a saved game
+ * doesn't mean building a new parser each time. Each thread has its own factory
+ * and its own parsers, so sections can be read on the event thread and on worker
+ * threads at the same time without any locking. A parse started while another is
+ * in progress on the same thread (from inside a handler, say) just gets a second
+ * parser.
+ */
+final class ParserPool {
+	/** The most idle parsers kept by each thread. */
+	private static final int MaxIdle = 2;
+
+	private static final ThreadLocal<SAXParserFactory> factory = ThreadLocal.withInitial(() -> {
+		SAXParserFactory f = SAXParserFactory.newInstance();
+		f.setNamespaceAware(true);
+		return f;
+	});
+	private static final ThreadLocal<ArrayDeque<SAXParser>> idle = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private ParserPool() {}
+
+	/**
+	 * Create a parser that won't be returned to the pool.
+	 * @return the parser, or <code>null</code> if the XML library is misconfigured.
+	 */
+	static SAXParser newParser() throws SAXException {
+		try {
+			return factory.get().newSAXParser();
+		}
+		catch (ParserConfigurationException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Get a parser for the current thread. It must be given back to
+	 * {@link #release(SAXParser)} on the same thread.
+	 */
+	static SAXParser acquire() throws SAXException {
+		SAXParser parser = idle.get().pollFirst();
+		return (parser != null ? parser : newParser());
+	}
+
+	/** Give back a parser that has finished parsing, so it can be used again. */
+	static void release(SAXParser parser) {
+		ArrayDeque<SAXParser> parsers = idle.get();
+		if (parser != null && parsers.size() < MaxIdle) {
+			parser.reset();
+			parsers.addFirst(parser);
+		}
+	}
+
+	/**
+	 * Parse a stream with a parser from the pool.
+	 * A parser that fails is not reused, in case it was left in a bad state.
+	 */
+	static void parse(InputStream in, DefaultHandler handler) throws IOException, SAXException {
+		parse(new InputSource(in), handler);
+	}
+
+	static void parse(InputSource in, DefaultHandler handler) throws IOException, SAXException {
+		SAXParser parser = acquire();
+		parser.parse(in, handler);
+		release(parser);
+	}
+}
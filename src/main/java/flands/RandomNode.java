@@ -13,6 +13,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An action that will simulate a dice roll, storing the result in a section variable.
  * The roll can be adjusted by one or more AdjustNodes.
@@ -22,6 +24,7 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 	public static final String ElementName = "random";
 	private int dice;
 	private String var;
+	private int varSlot;
 	private String flag;
 	protected int result = -1;
 	private boolean forced;
@@ -41,6 +44,7 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 	public void init(Attributes xmlAtts) {
 		dice = getIntValue(xmlAtts, "dice", 2);
 		var = xmlAtts.getValue("var");
+		varSlot = getVariableSlot(var);
 		flag = xmlAtts.getValue("flag");
 		if (flag != null) {
 			getFlags().addListener(flag, this);
@@ -70,7 +74,7 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 		if (content.trim().length() == 0)
 			return;
 		addedContent = true;
-		System.out.println("Adding RandomNode content: " + content);
+		Log.debug(Category.EXECUTION, () -> "Adding RandomNode content: " + content);
 		Element[] leaves = getDocument().addLeavesTo(getElement(), new StyledText(content, createStandardAttributes()));
 		addEnableElements(leaves);
 		addHighlightElements(leaves);
@@ -92,7 +96,7 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 				content += dice + " dice";
 			handleContent(content);
 		}
-		System.out.println("Adding RandomNode(" + dice + "D) as Executable child");
+		Log.debug(Category.EXECUTION, () -> "Adding RandomNode(" + dice + "D) as Executable child");
 		addExecutableNode(this);
 
 		return super.handleEndTag();
@@ -126,13 +130,13 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 
 		if (result < 0) {
 			// Set up for user to roll
-			System.out.println("RandomNode: ready to roll!");
+			Log.debug(Category.EXECUTION, "RandomNode: ready to roll!");
 			setEnabled(true);
 			return !forced;
 		}
 		else {
 			// Already rolled
-			System.out.println("RandomNode.execute() called - we already have a result!?");
+			Log.debug(Category.EXECUTION, "RandomNode.execute() called - we already have a result!?");
 			return true;
 		}
 	}
@@ -164,7 +168,8 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 		if (adjustments != null) {
 			for (AdjustNode adjustment : adjustments)
 				delta += adjustment.getAdjustment();
-			System.out.println("Adjustment for random=" + delta);
+			int total = delta;
+			Log.debug(Category.EXECUTION, () -> "Adjustment for random=" + total);
 		}
 		return delta;
 	}
@@ -172,13 +177,13 @@ public class RandomNode extends ActionNode implements Executable, Roller.Listene
 	@Override
 	public void rollerFinished(Roller r) {
 		if (roller == r) {
-			setVariableValue(var, r.getResult());
-			System.out.println("RandomNode: result is " + r.getResult());
+			setVariableValue(varSlot, r.getResult());
+			Log.debug(Category.EXECUTION, () -> "RandomNode: result is " + r.getResult());
 			roller = null;
 			UndoManager.createNew(this).add(this);
 
 			// Keep a pointer to it - we'll need it for rerolls
-			System.out.println("RandomNode: calling parent to continue execution");
+			Log.debug(Category.EXECUTION, "RandomNode: calling parent to continue execution");
 			continueNodeExecution(this, true);
 		}
 	}
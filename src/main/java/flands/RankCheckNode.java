@@ -11,6 +11,8 @@ import javax.swing.text.MutableAttributeSet;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Action node that is a variant of DifficultyNode: compare a dice roll against the
  * character's Rank. The result can be handled using DifficultyResultNodes.
@@ -123,14 +125,14 @@ public class RankCheckNode extends ActionNode implements Executable, Roller.List
 	public boolean execute(ExecutableGrouper grouper) {
 		if (result < 0) {
 			// Set up for user to roll
-			System.out.println("RankCheckNode: ready to roll!");
+			Log.debug(Category.EXECUTION, "RankCheckNode: ready to roll!");
 			setEnabled(true);
 			callContinue = true;
 			return !force;
 		}
 		else {
 			// Already rolled
-			System.out.println("RankCheckNode: execute called after already rolled!");
+			Log.debug(Category.EXECUTION, "RankCheckNode: execute called after already rolled!");
 			return true;
 		}
 	}
@@ -161,7 +163,8 @@ public class RankCheckNode extends ActionNode implements Executable, Roller.List
 		if (adjustments != null) {
 			for (AdjustNode adjustment : adjustments)
 				delta += adjustment.getAdjustment();
-			System.out.println("Adjustment for rankcheck=" + delta);
+			int total = delta;
+			Log.debug(Category.EXECUTION, () -> "Adjustment for rankcheck=" + total);
 		}
 		return delta;
 	}
@@ -5,6 +5,8 @@ import java.awt.event.ActionEvent;
 
 import javax.swing.text.Element;
 
+import flands.Log.Category;
+
 /**
  * Action node that, when clicked, will undo the last dice roll made.
  * Works as if a Luck blessing had just been activated. Possibly flakey.
@@ -62,7 +64,7 @@ public class RerollNode extends ActionNode implements Executable {
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		setEnabled(false);
-		System.out.println("RerollNode: calling UndoManager.undo");
+		Log.debug(Category.EXECUTION, "RerollNode: calling UndoManager.undo");
 		UndoManager.getCurrent().undo();
 	}
 
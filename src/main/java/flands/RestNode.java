@@ -13,6 +13,7 @@ import javax.swing.text.Element;
 import org.xml.sax.Attributes;
 
 import flands.UndoManager.Creator;
+import flands.Log.Category;
 
 /**
  * Action node allowing the character to regain Stamina for money.
@@ -149,10 +150,10 @@ public class RestNode extends ActionNode implements Executable, ChangeListener,
 					usesSlider.setSnapToTicks(true);
 					JOptionPane choicePane = new JOptionPane(new Object[] {"How many days do you want to rest here?", usesSlider},
 						JOptionPane.QUESTION_MESSAGE, JOptionPane.OK_CANCEL_OPTION);
-					System.out.println("Option type=" + choicePane.getOptionType());
+					Log.debug(Category.EXECUTION, () -> "Option type=" + choicePane.getOptionType());
 					choicePane.createDialog(FLApp.getSingle(), "Rest").setVisible(true);
 					Number result = (Number)choicePane.getValue();
-					System.out.println("Result=" + result);
+					Log.debug(Category.EXECUTION, () -> "Result=" + result);
 					if (result == null || result.intValue() != JOptionPane.OK_OPTION)
 						return;
 
@@ -10,6 +10,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Node to either gain a resurrection deal, or activate an existing one.
  * 
@@ -126,7 +128,7 @@ public class ResurrectionNode extends ActionNode implements Executable, ChangeLi
 	@Override
 	public void actionPerformed(ActionEvent evt) {
 		if (shards != null) {
-			System.out.println("Resurrection costs " + getAttributeValue(shards));
+			Log.debug(Category.EXECUTION, () -> "Resurrection costs " + getAttributeValue(shards));
 			getAdventurer().adjustMoney(-getAttributeValue(shards));
 		}
 		if (resurrection != null)
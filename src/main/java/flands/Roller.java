@@ -12,6 +12,8 @@ import javax.swing.JToolTip;
 import javax.swing.Popup;
 import javax.swing.PopupFactory;
 
+import flands.Log.Category;
+
 /**
  * Handles a dice roll via tool-tip display. Unless instant is set to true, notification
  * of the result is necessarily delayed.
@@ -35,6 +37,8 @@ public class Roller implements Runnable {
 	private Popup toolTipPopup;
 	private int popupX, popupY;
 	private List<Listener> listeners = new LinkedList<>();
+	// The game this roll belongs to, for the listeners to carry on with
+	private GameSession session;
 
 	public Roller(int dice, int adjustment) {
 		this.dice = dice;
@@ -57,6 +61,7 @@ public class Roller implements Runnable {
 
 	void startRolling() {
 		if (running) return;
+		session = GameSession.getCurrent();
 
 		JComponent toolTipContext = FLApp.getSingle().getToolTipContext();
 		//System.out.println("ToolTip context component is at location " + toolTipContext.getLocationOnScreen());
@@ -99,9 +104,9 @@ public class Roller implements Runnable {
 	}
 	
 	public static void printResultCount() {
-		System.out.println("Dice result count:");
+		Log.debug(Category.EXECUTION, "Dice result count:");
 		for (int i = 0; i < resultCount.length; i++)
-			System.out.println((i+1) + ": " + resultCount[i]);
+			Log.debug(Category.EXECUTION, (i+1) + ": " + resultCount[i]);
 	}
 
 	private void doRoll() {
@@ -149,10 +154,12 @@ public class Roller implements Runnable {
 			}
 		}
 		
-		if (!instant)
-			System.out.println("Min=" + min + ", max=" + max);
+		if (!instant) {
+			if (Log.isDebug(Category.EXECUTION))
+				Log.debug(Category.EXECUTION, "Min=" + min + ", max=" + max);
+		}
 		else
-			System.out.println("Result=" + result);
+			Log.debug(Category.EXECUTION, () -> "Result=" + result);
 	}
 
 	private boolean running = false;
@@ -170,8 +177,10 @@ public class Roller implements Runnable {
 				new Thread(this).start();
 			}
 
-			for (Listener listener : listeners)
-				listener.rollerFinished(this);
+			session.run(() -> {
+				for (Listener listener : listeners)
+					listener.rollerFinished(this);
+			});
 		}
 		else {
 			long timeNow = System.currentTimeMillis();
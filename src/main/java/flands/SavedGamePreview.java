@@ -9,6 +9,8 @@ import java.util.Date;
 import javax.swing.JFileChooser;
 import javax.swing.JLabel;
 
+import flands.Log.Category;
+
 /**
  * Component to display relevant details from a saved game. Used when the player is
  * browsing for saved game files.
@@ -57,7 +59,7 @@ public class SavedGamePreview extends JLabel implements PropertyChangeListener {
 			LoadableSection current = new LoadableSection("current", root);
 			handler.add(current);
 
-			System.out.println("About to load saved game details...");
+			Log.debug(Category.SAVE, "About to load saved game details...");
 			if (handler.load()) {
 				// Display something like the following:
 				// Ryft, 3rd Rank Wayfarer
@@ -28,10 +28,11 @@ import javax.swing.SpinnerListModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
-import javax.xml.parsers.SAXParser;
 
 import org.xml.sax.InputSource;
 
+import flands.Log.Category;
+
 /**
  * Pop-up window to display book sections without interaction.
  * Specially built for an encounter in book 5, section 114, but also useful
@@ -213,8 +214,7 @@ public class SectionBrowser extends JPanel implements ChangeListener, ActionList
 
 	private boolean showFile(Reader r) {
 		try {
-			SAXParser parser = FLApp.createSAXParser();
-			parser.parse(new InputSource(r), getHandler());
+			ParserPool.parse(new InputSource(r), getHandler());
 
 			Node oldRoot = currentRoot;
 			currentRoot = getHandler().getRootNode();
@@ -253,7 +253,7 @@ public class SectionBrowser extends JPanel implements ChangeListener, ActionList
 	private void showRandomSection() {
 		String[] availableKeys = Books.getCanon().getAvailableKeys();
 		Books.BookDetails b = Books.getCanon().getBook(availableKeys[(int)(Math.random()*availableKeys.length)]);
-		System.out.println("Random book=" + b.getKey());
+		Log.debug(Category.GUI, () -> "Random book=" + b.getKey());
 
 		int min = b.getLowestSection(), max = b.getHighestSection();
 		while (true) {
@@ -0,0 +1,116 @@
+package flands;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.xml.sax.SAXException;
+
+import flands.Log.Category;
+
+/**
+ * Cache of compiled sections, so that returning to a section (a town, say)
+ * doesn't mean parsing its XML all over again. The least recently used sections
+ * are dropped once there are more than {@link #MaxSections}, or their total
+ * size passes {@link #MaxSize} characters.
+ */
+final class SectionCache {
+	static final int MaxSections = 64;
+	static final int MaxSize = 1 << 20;
+
+	private static final Map<Address,CompiledSection> sections = new LinkedHashMap<>(MaxSections * 2, 0.75f, true);
+	private static int totalSize = 0;
+	private static int hits = 0, misses = 0;
+
+	private SectionCache() {}
+
+	/**
+	 * Get the compiled form of a section, reading and compiling it if necessary.
+	 * @return the section, or <code>null</code> if its file couldn't be found.
+	 * @throws SAXException if the section file is badly formed.
+	 */
+	static CompiledSection get(Address address) throws IOException, SAXException {
+		Address key = new Address(address.getBook(), address.section);
+		synchronized (SectionCache.class) {
+			CompiledSection section = sections.get(key);
+			if (section != null) {
+				hits++;
+				return section;
+			}
+			misses++;
+		}
+
+		// The XML is always read, to check that any compiled file is up to date
+		byte[] xml;
+		try (InputStream in = key.getStream()) {
+			if (in == null)
+				return null;
+			xml = in.readAllBytes();
+		}
+
+		CompiledSection section = readBinary(key, xml);
+		if (section == null)
+			section = CompiledSection.compile(new ByteArrayInputStream(xml));
+		put(key, section);
+		return section;
+	}
+
+	/**
+	 * Read a section that was compiled ahead of time by {@link SectionCompiler}, if
+	 * the book has one and it was compiled from the given XML. In debugging mode the
+	 * XML is always used.
+	 * @return the section, or <code>null</code> if the XML should be compiled instead.
+	 */
+	private static CompiledSection readBinary(Address key, byte[] xml) {
+		if (FLApp.debugging)
+			return null;
+		Books.BookDetails book = Books.getCanon().getBook(key.getBook());
+		String filename = key.section + CompiledSection.BinaryExtension;
+		if (!book.fileExists(filename))
+			return null;
+		try (InputStream in = book.getInputStream(filename)) {
+			return (in == null ? null : CompiledSection.read(in, xml));
+		}
+		catch (IOException e) {
+			Log.warning(Category.GAME, "Couldn't read compiled section " + key + ", reading the XML instead: " + e);
+			return null;
+		}
+	}
+
+	/** Check whether a section has already been compiled. */
+	static synchronized boolean contains(Address address) {
+		return sections.containsKey(new Address(address.getBook(), address.section));
+	}
+
+	private static synchronized void put(Address key, CompiledSection section) {
+		CompiledSection old = sections.put(key, section);
+		if (old != null)
+			totalSize -= old.getSize();
+		totalSize += section.getSize();
+
+		// Drop the oldest sections (but never the one just added)
+		var i = sections.values().iterator();
+		while (sections.size() > 1 && (sections.size() > MaxSections || totalSize > MaxSize)) {
+			totalSize -= i.next().getSize();
+			i.remove();
+		}
+	}
+
+	/** Remove every compiled section. */
+	static synchronized void clear() {
+		sections.clear();
+		totalSize = 0;
+	}
+
+	static synchronized int getHits() { return hits; }
+	static synchronized int getMisses() { return misses; }
+	static synchronized int getSectionCount() { return sections.size(); }
+	static synchronized int getTotalSize() { return totalSize; }
+
+	static synchronized String getStatistics() {
+		return "SectionCache[sections=" + sections.size() + ",size=" + totalSize +
+			",hits=" + hits + ",misses=" + misses + "]";
+	}
+}
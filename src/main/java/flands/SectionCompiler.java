@@ -0,0 +1,113 @@
+package flands;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Command-line tool that compiles every section of a book ahead of time, writing
+ * each N.xml as an N{@link CompiledSection#BinaryExtension} file. A book holding these
+ * (as extra files in its directory, or packed with {@link BookPacker}) has its
+ * sections loaded without any XML parsing; books without them are parsed as usual.
+ * Each compiled file records the XML it came from, and is ignored once that changes,
+ * so the files should be made again whenever the XML is edited.
+ * <p>
+ * Usage: <code>java flands.SectionCompiler source [output directory]</code>,
+ * where the source is a book directory or zip-file. Without an output directory,
+ * the files are written into the source directory, or for a zip-file, into the
+ * directory holding it.
+ */
+public class SectionCompiler {
+	private final File output;
+	private int compiled = 0, failed = 0;
+
+	private SectionCompiler(File output) {
+		this.output = output;
+	}
+
+	private void compile(String name, InputStream in) throws IOException {
+		String base = name.substring(0, name.length() - ".xml".length());
+		try {
+			byte[] xml = in.readAllBytes();
+			CompiledSection section = CompiledSection.compile(new ByteArrayInputStream(xml));
+			try (OutputStream out = new FileOutputStream(new File(output, base + CompiledSection.BinaryExtension))) {
+				section.writeTo(out, xml);
+			}
+			compiled++;
+		}
+		catch (SAXException e) {
+			System.err.println("Couldn't compile " + name + ": " + e.getMessage());
+			failed++;
+		}
+	}
+
+	private void compileDirectory(File dir) throws IOException {
+		File[] contents = dir.listFiles();
+		if (contents == null)
+			throw new IOException("Couldn't list directory " + dir);
+		for (File f : contents) {
+			if (f.isFile() && f.getName().endsWith(".xml")) {
+				try (InputStream in = new FileInputStream(f)) {
+					compile(f.getName(), in);
+				}
+			}
+		}
+	}
+
+	private void compileZip(File zip) throws IOException {
+		try (ZipFile zf = new ZipFile(zip)) {
+			for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements(); ) {
+				ZipEntry entry = e.nextElement();
+				if (!entry.isDirectory() && entry.getName().endsWith(".xml") && entry.getName().indexOf('/') < 0) {
+					try (InputStream in = zf.getInputStream(entry)) {
+						compile(entry.getName(), in);
+					}
+				}
+			}
+		}
+	}
+
+	public static void main(String args[]) {
+		if (args.length < 1) {
+			System.err.println("Usage: SectionCompiler <book directory or zip> [output directory]");
+			System.err.println("By default the files go into the book directory, or the zip's directory.");
+			System.exit(1);
+		}
+
+		File source = new File(args[0]);
+		File output;
+		if (args.length > 1)
+			output = new File(args[1]);
+		else if (source.isDirectory())
+			output = source;
+		else
+			output = source.getAbsoluteFile().getParentFile();
+		if (!output.isDirectory() && !output.mkdirs()) {
+			System.err.println("Couldn't create output directory " + output);
+			System.exit(1);
+		}
+
+		SectionCompiler compiler = new SectionCompiler(output);
+		try {
+			if (source.isDirectory())
+				compiler.compileDirectory(source);
+			else
+				compiler.compileZip(source);
+		}
+		catch (IOException e) {
+			System.err.println("Couldn't compile book: " + e.getMessage());
+			System.exit(1);
+		}
+		System.out.println("Compiled " + compiler.compiled + " sections into " + output +
+				(compiler.failed > 0 ? " (" + compiler.failed + " failed)" : ""));
+	}
+}
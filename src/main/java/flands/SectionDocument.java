@@ -30,6 +30,8 @@ import javax.swing.text.StyleConstants;
 import javax.swing.text.StyleContext;
 import javax.swing.text.StyledDocument;
 
+import flands.Log.Category;
+
 /**
  * The main document for a section being displayed. This is built up by each Node during
  * XML parsing, using the various methods for adding content. Messy stuff.
@@ -81,7 +83,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 				int comma1 = line.indexOf(',');
 				int comma2 = line.indexOf(',', comma1+1);
 				if (comma1 < 0 || comma2 < 0) {
-					System.out.println("Bad line in options file: expected 'font,size,smaller size'");
+					Log.debug(Category.DOCUMENT, "Bad line in options file: expected 'font,size,smaller size'");
 					continue;
 				}
 
@@ -125,7 +127,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 			Font f = getPreferredFont();
 			StyleConstants.setFontFamily(rootStyle, f.getFamily());
 			StyleConstants.setFontSize(rootStyle, f.getSize());
-			rootStyle.addChangeListener(evt -> System.out.println("Root style changed: " + evt));
+			rootStyle.addChangeListener(evt -> Log.debug(Category.DOCUMENT, () -> "Root style changed: " + evt));
 		}
 	}
 
@@ -155,7 +157,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 			getContent().insertString(offset, str);
 		}
 		catch (BadLocationException e) {
-			System.out.println("insertContent(): " + e);
+			Log.debug(Category.DOCUMENT, () -> "insertContent(): " + e);
 		}
 	}
 
@@ -186,17 +188,17 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 				getContent().getChars(offset, 1, txt);
 				char ch = txt.array[txt.offset];
 				if (ch == '.' || ch == '!' || ch == '?' || Character.isDigit(ch)) {
-					System.out.println("Found sentence ender: " + ch);
+					Log.debug(Category.DOCUMENT, () -> "Found sentence ender: " + ch);
 					return true;
 				}
 				else if (Character.isWhitespace(ch) || ch == '\'') {
 					//System.out.println("Skipping whitespace");
 				}
 				else if (ch == '\'' || ch == '\u2019' || ch == ')') {
-					System.out.println("Skipping possible end-quote - is this correct?");
+					Log.debug(Category.DOCUMENT, "Skipping possible end-quote - is this correct?");
 				}
 				else {
-					System.out.println("Found non-sentence ender: " + ch);
+					Log.debug(Category.DOCUMENT, () -> "Found non-sentence ender: " + ch);
 					return false;
 				}
 			}
@@ -225,7 +227,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 			return leaves;
 		}
 		else {
-			System.out.println("Can't add children to leaf: " + parentElement);
+			Log.debug(Category.DOCUMENT, () -> "Can't add children to leaf: " + parentElement);
 			return null;
 		}
 	}
@@ -254,9 +256,9 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 	private static long totalMs = 0;
 
 	static void printTimingInfo() {
-		System.out.println("addLeavesTo() timing info (method " + (method ? "1" : "2") + ")");
-		System.out.println("Root iterations: " + rootIterations);
-		System.out.println("Total time=" + totalMs + ", average=" + (totalMs/(double)rootIterations));
+		Log.debug(Category.DOCUMENT, () -> "addLeavesTo() timing info (method " + (method ? "1" : "2") + ")");
+		Log.debug(Category.DOCUMENT, () -> "Root iterations: " + rootIterations);
+		Log.debug(Category.DOCUMENT, () -> "Total time=" + totalMs + ", average=" + (totalMs/(double)rootIterations));
 	}
 
 	/**
@@ -443,7 +445,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 	}
 	@Override
 	public Style getStyle(String name) {
-		System.out.println("SectionDocument.getStyle(" + name + ")");
+		Log.debug(Category.DOCUMENT, () -> "SectionDocument.getStyle(" + name + ")");
 		//Thread.currentThread().dumpStack();
 		return getStyleContext().getStyle(name);
 	}
@@ -592,7 +594,7 @@ public class SectionDocument extends AbstractDocument implements StyledDocument
 			return rootNode;
 		}
 		else {
-			System.out.println("Document already possesses a root node!");
+			Log.debug(Category.DOCUMENT, "Document already possesses a root node!");
 			return null;
 		}
 	}
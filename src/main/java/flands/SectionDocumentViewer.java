@@ -22,6 +22,8 @@ import javax.swing.text.Element;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreeNode;
 
+import flands.Log.Category;
+
 public class SectionDocumentViewer extends JDialog implements GameListener, TreeSelectionListener {
 	private JTree elementTree;
 	private JTable attTable;
@@ -65,9 +67,10 @@ public class SectionDocumentViewer extends JDialog implements GameListener, Tree
 	public void setDocument(Document doc) {
 		Element[] rootElements = doc.getRootElements();
 		if (rootElements.length > 1) {
-			System.out.println("More than one root element in SectionDocument!");
-			for (int e = 0; e < rootElements.length; e++)
-				System.out.println("Root " + (e+1) + ": " + rootElements[e]);
+			Log.debug(Category.DOCUMENT, "More than one root element in SectionDocument!");
+			if (Log.isDebug(Category.DOCUMENT))
+				for (int e = 0; e < rootElements.length; e++)
+					Log.debug(Category.DOCUMENT, "Root " + (e+1) + ": " + rootElements[e]);
 		}
 		if (rootElements.length > 0 && rootElements[0] instanceof TreeNode)
 			elementTree.setModel(new DefaultTreeModel((TreeNode)rootElements[0]));
@@ -112,7 +115,7 @@ public class SectionDocumentViewer extends JDialog implements GameListener, Tree
 						node.getEndOffset() - node.getStartOffset());
 			}
 			catch (BadLocationException ble) {
-				System.out.println("Bad document position: " + ble.offsetRequested());
+				Log.debug(Category.DOCUMENT, () -> "Bad document position: " + ble.offsetRequested());
 			}
 			attTable.setModel(makeTableModel(textContent, atts));
 		}
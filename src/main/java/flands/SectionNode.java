@@ -9,7 +9,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 
@@ -19,11 +21,12 @@ import javax.swing.text.AbstractDocument;
 import javax.swing.text.Element;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
-import javax.xml.parsers.SAXParser;
 
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
+import flands.Log.Category;
+
 /**
  * The root node, having the section name and parenting all other nodes.
  * It also creates and keeps the only pointer to the document.
@@ -54,7 +57,7 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	public SectionNode(Node parent) {
 		super(ElementName, null);
 		if (parent != null)
-			System.out.println("Section node should be root, and shouldn't have a parent: " + parent);
+			Log.debug(Category.EXECUTION, () -> "Section node should be root, and shouldn't have a parent: " + parent);
 
 		doc = new SectionDocument();
 		doc.grabWriteLock();
@@ -170,22 +173,18 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 		if (imageFilename != null) {
 			// Add an element displaying the image
 			Books.BookDetails bookInfo = Books.getCanon().getBook(book);
-			InputStream imageStream = bookInfo.getInputStream(imageFilename);
-			System.out.println("Got input stream for illustration: " + imageStream);
-			if (imageStream != null) {
-				Image image = FLApp.getSingle().loadImage(imageStream);
-				System.out.println("Got illustration: " + image);
-				if (image != null) {
-					SectionDocument.RootElement root = (SectionDocument.RootElement)getElement();
-					SimpleAttributeSet imageAtts = new SimpleAttributeSet();
-					StyleConstants.setIcon(imageAtts, new ImageIcon(image));
-					StyleConstants.setAlignment(imageAtts, StyleConstants.ALIGN_CENTER);
-					setViewType(imageAtts, ImageViewType);
-					setImage(imageAtts, image);
-					SectionDocument.Branch branch = doc.createBranchElement(root, imageAtts);
-					doc.addLeavesTo(branch, new StyledText("\n", null));
-					root.addChild(branch);
-				}
+			Image image = ImageCache.get(bookInfo.getKey(), imageFilename);
+			Log.debug(Category.EXECUTION, () -> "Got illustration: " + image);
+			if (image != null) {
+				SectionDocument.RootElement root = (SectionDocument.RootElement)getElement();
+				SimpleAttributeSet imageAtts = new SimpleAttributeSet();
+				StyleConstants.setIcon(imageAtts, new ImageIcon(image));
+				StyleConstants.setAlignment(imageAtts, StyleConstants.ALIGN_CENTER);
+				setViewType(imageAtts, ImageViewType);
+				setImage(imageAtts, image);
+				SectionDocument.Branch branch = doc.createBranchElement(root, imageAtts);
+				doc.addLeavesTo(branch, new StyledText("\n", null));
+				root.addChild(branch);
 			}
 		}
 		
@@ -336,17 +335,86 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	 * The name used for the 'anonymous' variable (mostly only one variable is necessary).
 	 */
 	private static final String AnonymousVariableName = "'anon'";
-	private Map<String,Integer> variables = new java.util.HashMap<>();
+	/*
+	 * Each variable name is given a slot the first time it's seen (usually while the
+	 * section is being parsed); values are then kept in an array, with a bit set for
+	 * each slot that currently has a value.
+	 */
+	private final Map<String,Integer> variableSlots = new HashMap<>();
+	private String[] variableNames = new String[8];
+	private int[] variableValues = new int[8];
+	private final BitSet definedVariables = new BitSet();
 
 	/** Returns the variable name, converting nulls to an actual (anonymous) name. */
 	private String checkVariableName(String name) { return (name == null ? AnonymousVariableName : name); }
 
+	/**
+	 * Get the slot used for a variable, allocating one if it hasn't been seen before.
+	 * The slot can then be passed to the slot-based variable methods.
+	 * @param name the name of the variable; may be <code>null</code>.
+	 */
+	@Override
+	int getVariableSlot(String name) {
+		name = checkVariableName(name);
+		Integer slot = variableSlots.get(name);
+		if (slot == null) {
+			slot = variableSlots.size();
+			if (slot == variableNames.length) {
+				variableNames = Arrays.copyOf(variableNames, slot * 2);
+				variableValues = Arrays.copyOf(variableValues, slot * 2);
+			}
+			variableNames[slot] = name;
+			variableSlots.put(name, slot);
+		}
+		return slot;
+	}
+
+	/** Get the slot of a variable that may not have been seen; -1 if it hasn't. */
+	private int findVariableSlot(String name) {
+		Integer slot = variableSlots.get(name);
+		return (slot == null ? -1 : slot);
+	}
+
+	@Override
+	boolean isVariableDefined(int slot) { return definedVariables.get(slot); }
+
+	@Override
+	int getVariableValue(int slot) {
+		if (!definedVariables.get(slot)) {
+			Log.debug(Category.EXECUTION, () -> "Variable '" + variableNames[slot] + "' is not defined");
+			return Integer.MIN_VALUE;
+		}
+		return variableValues[slot];
+	}
+
+	@Override
+	void setVariableValue(int slot, int value) {
+		variableValues[slot] = value;
+		definedVariables.set(slot);
+	}
+
+	@Override
+	void adjustVariableValue(int slot, int delta) {
+		if (!definedVariables.get(slot))
+			System.err.println("Variable '" + variableNames[slot] + "' is not defined; can't adjust");
+		else
+			variableValues[slot] += delta;
+	}
+
+	@Override
+	void removeVariable(int slot) {
+		definedVariables.clear(slot);
+	}
+
 	/**
 	 * Check whether this variable is defined.
 	 * @param name the name of the variable; may be <code>null</code>.
 	 */
 	@Override
-	public boolean isVariableDefined(String name) { return variables.get(checkVariableName(name)) != null; }
+	public boolean isVariableDefined(String name) {
+		int slot = findVariableSlot(checkVariableName(name));
+		return (slot >= 0 && isVariableDefined(slot));
+	}
 
 	/**
 	 * Get the current value of a variable.
@@ -354,13 +422,12 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	 */
 	@Override
 	public int getVariableValue(String name) {
-		Integer val = variables.get(checkVariableName(name));
-		if (val == null) {
-			System.out.println("Variable '" + checkVariableName(name) + "' is not defined");
+		int slot = findVariableSlot(checkVariableName(name));
+		if (slot < 0) {
+			Log.debug(Category.EXECUTION, () -> "Variable '" + checkVariableName(name) + "' is not defined");
 			return Integer.MIN_VALUE;
 		}
-		else
-			return val;
+		return getVariableValue(slot);
 	}
 
 	/**
@@ -369,7 +436,7 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	 */
 	@Override
 	public void setVariableValue(String name, int value) {
-		variables.put(checkVariableName(name), value);
+		setVariableValue(getVariableSlot(name), value);
 	}
 
 	/**
@@ -378,12 +445,11 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	 */
 	@Override
 	public void adjustVariableValue(String name, int delta) {
-		name = checkVariableName(name);
-		Integer val = variables.get(name);
-		if (val == null)
-			System.err.println("Variable '" + name + "' is not defined; can't adjust");
+		int slot = findVariableSlot(checkVariableName(name));
+		if (slot < 0)
+			System.err.println("Variable '" + checkVariableName(name) + "' is not defined; can't adjust");
 		else
-			variables.put(name, val + delta);
+			adjustVariableValue(slot, delta);
 	}
 
 	/**
@@ -391,7 +457,9 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	 */
 	@Override
 	public void removeVariable(String name) {
-		variables.remove(name);
+		int slot = findVariableSlot(name);
+		if (slot >= 0)
+			removeVariable(slot);
 	}
 
 	@Override
@@ -399,18 +467,22 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	String getToDockLocation() { return todock; }
 
 	private int ifElseCounter = 0;
-	String getIfElseVarName(boolean newVar) {
+	/**
+	 * Get the slot of the variable that records whether an if/elseif/else chain
+	 * has had a block executed yet.
+	 */
+	int getIfElseSlot(boolean newVar) {
 		if (newVar)
-			// An <if> node - give it a new, unique variable name
-			return "*if" + ifElseCounter++;
+			// An <if> node - give it a new, unique variable
+			return getVariableSlot("*if" + ifElseCounter++);
 		else
-			// An <elseif> or <else> node - give it the variable name used by the most
+			// An <elseif> or <else> node - give it the variable used by the most
 			// recently closed <if> node
-			return elseVarName;
+			return (elseSlot >= 0 ? elseSlot : getVariableSlot(null));
 	}
-	private String elseVarName = null;
-	void setElseVarName(String varName) {
-		elseVarName = varName;
+	private int elseSlot = -1;
+	void setElseSlot(int slot) {
+		elseSlot = slot;
 	}
 
 	/* *****************
@@ -433,13 +505,12 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 		super.saveProperties(props);
 
 		// Save the current variable values
-		props.setProperty("variableCount", Integer.toString(variables.size()));
+		props.setProperty("variableCount", Integer.toString(definedVariables.cardinality()));
 		int j = 0;
-		for (Iterator<Map.Entry<String,Integer>> i = variables.entrySet().iterator(); i.hasNext(); j++) {
-			Map.Entry<String,Integer> e = i.next();
-			if (!e.getKey().equals(AnonymousVariableName))
-				props.setProperty("variableKey" + j, e.getKey());
-			props.setProperty("variableValue" + j, e.getValue().toString());
+		for (int slot = definedVariables.nextSetBit(0); slot >= 0; slot = definedVariables.nextSetBit(slot + 1), j++) {
+			if (!variableNames[slot].equals(AnonymousVariableName))
+				props.setProperty("variableKey" + j, variableNames[slot]);
+			props.setProperty("variableValue" + j, Integer.toString(variableValues[slot]));
 		}
 	}
 
@@ -448,13 +519,13 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 		super.loadProperties(props);
 
 		// Get the variable values
-		variables.clear();
+		definedVariables.clear();
 		int variableCount = getIntValue(props, "variableCount", 0);
 		for (int i = 0; i < variableCount; i++) {
 			String variableKey = props.getValue("variableKey" + i);
 			int variableValue = getIntValue(props, "variableValue" + i, Integer.MIN_VALUE);
 			setVariableValue(variableKey, variableValue);
-			System.out.println("Variable " + variableKey + "=" + variableValue);
+			Log.debug(Category.EXECUTION, () -> "Variable " + variableKey + "=" + variableValue);
 		}
 	}
 
@@ -464,8 +535,7 @@ public class SectionNode extends Node implements ItemListener, Loadable {
 	}
 	public boolean loadFrom(InputStream in) {
 		try {
-			SAXParser parser = FLApp.createSAXParser();
-			parser.parse(in, new DynamicSectionLoader(this));
+			ParserPool.parse(in, new DynamicSectionLoader(this));
 			return true;
 		}
 		catch (SAXException e) {
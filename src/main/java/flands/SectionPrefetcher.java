@@ -0,0 +1,70 @@
+package flands;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import flands.Log.Category;
+
+/**
+ * Compiles the sections reachable from the current one in the background, so
+ * that following a choice finds its section already in the {@link SectionCache}
+ * (and its illustration in the {@link ImageCache}) rather than reading and
+ * parsing it on the event thread.
+ * Any prefetching that hasn't started yet is cancelled when the player moves on.
+ */
+final class SectionPrefetcher {
+	private static ExecutorService executor = null;
+	private static final List<Future<?>> pending = new ArrayList<>();
+
+	private SectionPrefetcher() {}
+
+	private static ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "SectionPrefetcher");
+				t.setDaemon(true);
+				t.setPriority(Thread.MIN_PRIORITY);
+				return t;
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Start compiling the destinations of a section that has just been loaded.
+	 * Any earlier prefetching still waiting is cancelled first.
+	 * @param book the book of the loaded section; destinations without a book are in this one.
+	 */
+	static synchronized void prefetch(CompiledSection section, String book) {
+		cancel();
+		for (Address destination : section.getDestinations()) {
+			final Address address = (destination.book == null ? new Address(book, destination.section) : destination);
+			if (!Books.getCanon().getBook(address.getBook()).hasBook() || SectionCache.contains(address))
+				continue;
+			pending.add(getExecutor().submit(() -> {
+				try {
+					CompiledSection next = SectionCache.get(address);
+					if (next != null && next.getImageFilename() != null)
+						ImageCache.prefetch(address.getBook(), next.getImageFilename());
+				}
+				catch (Exception e) {
+					// It'll be reported properly if the player tries to go there
+					Log.debug(Category.GAME, () -> "Couldn't prefetch section " + address + ": " + e);
+				}
+			}));
+		}
+	}
+
+	/**
+	 * Cancel any prefetching that hasn't started yet, including illustrations.
+	 */
+	static synchronized void cancel() {
+		for (Future<?> f : pending)
+			f.cancel(false);
+		pending.clear();
+		ImageCache.cancelPrefetches();
+	}
+}
@@ -8,6 +8,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * An 'invisible' node that gets automatically executed.
  * When executed, it sets a variable. The value can be a full expression.
@@ -15,10 +17,12 @@ import org.xml.sax.Attributes;
  * @see Expression
  * @author Jonathan Mann
  */
-public class SetVarNode extends ActionNode implements Executable, Expression.Resolver {
+public class SetVarNode extends ActionNode implements Executable, Expression.SlotResolver {
 	public static final String ElementName = "set";
 	private String var;
 	private String value = null;
+	private Expression expression = null;
+	private int varSlot;
 	private String dock = null;
 	private String modifier;
 	private String cache = null;
@@ -35,6 +39,7 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 	@Override
 	public void init(Attributes atts) {
 		var = atts.getValue("var");
+		varSlot = getVariableSlot(var);
 		value = atts.getValue("value");
 		codeword = atts.getValue("codeword");
 		if (value == null && codeword == null) {
@@ -46,6 +51,10 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 		cache = atts.getValue("cache");
 		item = Item.createItem(atts);
 		force = getBooleanValue(atts, "force", true);
+		if (value != null) {
+			expression = new Expression(value);
+			expression.bind(this);
+		}
 		
 		super.init(atts);
 		hidden = !(getParent() instanceof GroupNode);
@@ -81,16 +90,60 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 		if (item != null) {
 			ItemList items = (cache == null ? getItems() : CacheNode.getItemCache(cache));
 			int[] matches = items.findMatches(item);
-			System.out.println("SetVarNode: found " + matches.length + " item matches");
+			Log.debug(Category.EXECUTION, () -> "SetVarNode: found " + matches.length + " item matches");
 			if (matches.length == 1)
 				return items.getItem(matches[0]);
 		}
 		return null;
 	}
 
+	/* Slots for the identifiers this node resolves itself; anything else is a section variable */
+	private static final int ArmourSlot = 0;
+	private static final int WeaponSlot = 1;
+	private static final int MatchesSlot = 2;
+	private static final int StaminaSlot = 3;
+	private static final int CrewSlot = 4;
+	private static final int ShardsSlot = 5;
+	private static final int AbilitySlot = 6;
+	/** Section variables are bound to their own slot plus this. */
+	private static final int VariableSlot = AbilitySlot + Adventurer.ABILITY_SINGLE + 1;
+
 	@Override
-	public int resolveIdentifier(String ident) {
-		if (ident.equals("armour")) {
+	public int bindIdentifier(String ident) {
+		int slot = bindSpecialIdentifier(ident);
+		if (slot < 0) {
+			slot = getVariableSlot(ident);
+			if (slot >= 0)
+				slot += VariableSlot;
+		}
+		return slot;
+	}
+
+	private int bindSpecialIdentifier(String ident) {
+		if (ident.equals("armour"))
+			return ArmourSlot;
+		else if (ident.equals("weapon"))
+			return WeaponSlot;
+		else if (ident.equals("matches") && item != null)
+			return MatchesSlot;
+		else if (ident.equals("stamina") && modifier == null)
+			return StaminaSlot;
+		else if (ident.equals("crew"))
+			return CrewSlot;
+		else if (ident.equals("shards"))
+			return ShardsSlot;
+		else {
+			int ability = Adventurer.getAbilityType(ident);
+			if (ability >= 0)
+				return AbilitySlot + ability;
+		}
+		return -1;
+	}
+
+	@Override
+	public int resolveSlot(int slot, String ident) {
+		switch (slot) {
+		case ArmourSlot: {
 			Item.Armour a = null;
 			try {
 				a = (Item.Armour)getSingleItem();
@@ -100,7 +153,7 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 				a = getItems().getWorn();
 			return (a == null ? 0 : a.getBonus());
 		}
-		else if (ident.equals("weapon")) {
+		case WeaponSlot: {
 			Item.Weapon w = null;
 			try {
 				w = (Item.Weapon)getSingleItem();
@@ -108,44 +161,51 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 			catch (ClassCastException ignored) {}
 			if (w == null && cache == null)
 				w = getItems().getWielded();
-			System.out.println("Weapon item=" + w);
-			return (w == null ? 0 : w.getBonus());
-		}
-		else if (ident.equals("matches")) {
-			if (item != null) {
-				ItemList items = (cache == null ? getItems() : CacheNode.getItemCache(cache));
-				int[] matches = items.findMatches(item);
-				System.out.println("Matches=" + matches.length + " to item " + item);
-				return matches.length;
-			}
+			Item.Weapon weapon = w;
+			Log.debug(Category.EXECUTION, () -> "Weapon item=" + weapon);
+			return (weapon == null ? 0 : weapon.getBonus());
 		}
-		else if (ident.equals("stamina") && modifier == null) {
-			return getAdventurer().getStamina().current;
+		case MatchesSlot: {
+			ItemList items = (cache == null ? getItems() : CacheNode.getItemCache(cache));
+			int[] matches = items.findMatches(item);
+			Log.debug(Category.EXECUTION, () -> "Matches=" + matches.length + " to item " + item);
+			return matches.length;
 		}
-		else if (ident.equals("crew")) {
+		case StaminaSlot:
+			return getAdventurer().getStamina().current;
+		case CrewSlot: {
 			int shipIndex = getShips().getSingleShip();
 			if (shipIndex >= 0)
 				return getShips().getShip(shipIndex).getCrew();
-			else
-				System.out.println("SetVarNode: asked for crew, but no single ship here!");
+			Log.debug(Category.EXECUTION, "SetVarNode: asked for crew, but no single ship here!");
+			break;
 		}
-		else if (ident.equals("shards")) {
+		case ShardsSlot:
 			if (cache == null)
 				return getAdventurer().getMoney();
 			else
 				return CacheNode.getMoneyCache(cache);
-		}
-		else {
-			int ability = Adventurer.getAbilityType(ident);
-			if (ability >= 0) {
+		default:
+			if (slot >= VariableSlot)
+				return getVariableValue(slot - VariableSlot);
+			if (slot >= AbilitySlot) {
 				int abilityModifier = Adventurer.getAbilityModifier(modifier);
-				return getAdventurer().getAbilityValue(ability, abilityModifier, Adventurer.PURPOSE_VALUE);
+				return getAdventurer().getAbilityValue(slot - AbilitySlot, abilityModifier, Adventurer.PURPOSE_VALUE);
 			}
+			break;
 		}
 
 		return super.resolveIdentifier(ident);
 	}
 
+	@Override
+	public int resolveIdentifier(String ident) {
+		int slot = bindSpecialIdentifier(ident);
+		if (slot >= 0)
+			return resolveSlot(slot, ident);
+		return super.resolveIdentifier(ident);
+	}
+
 	@Override
 	public boolean execute(ExecutableGrouper grouper) {
 		if (!hidden) {
@@ -163,15 +223,14 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 			setEnabled(false);
 		
 		if (value != null) {
-			Expression exp = new Expression(value);
-			int val = exp.getRoot().evaluate(this);
-			System.out.println("SetVar (" + var + ") = " + val);
-			setVariableValue(var, val);
+			int val = expression.evaluate(this);
+			Log.debug(Category.EXECUTION, () -> "SetVar (" + var + ") = " + val);
+			setVariableValue(varSlot, val);
 		}
 		else if (codeword != null) {
 			int val = getCodewords().getValue(codeword);
-			System.out.println("SetVar (" + var + ") = " + val);
-			setVariableValue(var, val);
+			Log.debug(Category.EXECUTION, () -> "SetVar (" + var + ") = " + val);
+			setVariableValue(varSlot, val);
 		}
 
 		if (dock != null) {
@@ -200,7 +259,7 @@ public class SetVarNode extends ActionNode implements Executable, Expression.Res
 			else
 				text += "variable [" + var + "]";
 			if (value != null)
-				text += " to " + new Expression(value).getRoot().evaluate(this);
+				text += " to " + expression.evaluate(this);
 			else {
 				text += " to the value of the codeword <i>" + codeword + "</i>";
 				text += " [" + getCodewords().getValue(codeword) + "]";
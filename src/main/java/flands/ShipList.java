@@ -28,6 +28,8 @@ import javax.swing.table.TableCellRenderer;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DefaultStyledDocument;
 
+import flands.Log.Category;
+
 /**
  * Handles the set of all ships owned by the character. Includes methods for modifying one
  * or more ships, plus mouse event handlers for the list view.
@@ -67,7 +69,7 @@ public class ShipList extends AbstractTableModel implements Loadable, MouseListe
 	private String dock = null;
 	public void setAtDock(String dock) {
 		this.dock = dock;
-		System.out.println("Current dock location=" + dock);
+		Log.debug(Category.ADVENTURER, () -> "Current dock location=" + dock);
 		for (int s = 0; s < getShipCount(); s++) {
 			if (getShip(s).getDocked() == null)
 				// We'll presume the user just sailed this ship into dock
@@ -235,7 +237,7 @@ public class ShipList extends AbstractTableModel implements Loadable, MouseListe
 		if (listeners != null)
 			listeners.remove(l);
 		else {
-			System.out.println("ShipList.removeListenerFrom called unnecessarily");
+			Log.debug(Category.ADVENTURER, "ShipList.removeListenerFrom called unnecessarily");
 			Thread.dumpStack();
 		}
 	}
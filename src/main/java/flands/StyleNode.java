@@ -9,6 +9,8 @@ import javax.swing.text.MutableAttributeSet;
 import javax.swing.text.SimpleAttributeSet;
 import javax.swing.text.StyleConstants;
 
+import flands.Log.Category;
+
 /**
  * Common node to handle styled text - bold, italics, underlined, and mixed-size upper-case.
  * The currently active style is modified when one of these nodes is entered or exited; this
@@ -33,7 +35,7 @@ public abstract class StyleNode extends Node {
 	private static void removeActiveStyle(StyleNode node) {
 		StyleNode removed = activeStyles.remove(0);
 		if (!node.equals(removed))
-			System.out.println("Removing style " + node + " that doesn't match " + removed);
+			Log.debug(Category.PARSER, () -> "Removing style " + node + " that doesn't match " + removed);
 	}
 	/** Apply all active styles to an attribute set. */
 	static void applyActiveStyles(MutableAttributeSet atts) {
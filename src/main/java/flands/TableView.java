@@ -15,6 +15,8 @@ import javax.swing.text.MutableAttributeSet;
 import javax.swing.text.View;
 import javax.swing.text.ViewFactory;
 
+import flands.Log.Category;
+
 /**
  * Extension of standard TableView to fix some bugs.
  * I'm not sure what the issues were now, or if I nabbed some of this code from
@@ -120,7 +122,7 @@ public class TableView extends javax.swing.text.TableView {
 		if (f == null) {
 			// No factory. This most likely indicates the parent view
 			// has changed out from under us, bail!
-			System.out.println("No factory!!");
+			Log.debug(Category.DOCUMENT, "No factory!!");
 			return;
 		}
 
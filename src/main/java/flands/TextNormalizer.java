@@ -0,0 +1,83 @@
+package flands;
+
+/**
+ * Accumulates the text of a section as it arrives from the parser, tidying it
+ * in the same pass: runs of whitespace become a single space, a hyphen with
+ * spaces either side becomes an en-dash, and three periods become an ellipsis.
+ * Each character is looked at once, however the text is split between calls,
+ * and the buffer is reused from one piece of content to the next.
+ */
+final class TextNormalizer {
+	private static final char EnDash = '\u2013';
+	private static final char Ellipsis = '\u2026';
+
+	private char[] buffer = new char[256];
+	private int length = 0;
+
+	/**
+	 * Add some characters.
+	 * @param trimStart whether to drop any whitespace at the start of these characters.
+	 */
+	void append(char[] ch, int start, int count, boolean trimStart) {
+		int end = start + count;
+		if (trimStart) {
+			// Same test as Node.trimStart
+			while (start < end && ch[start] <= ' ')
+				start++;
+		}
+		if (length + (end - start) > buffer.length) {
+			char[] larger = new char[Math.max(buffer.length * 2, length + (end - start))];
+			System.arraycopy(buffer, 0, larger, 0, length);
+			buffer = larger;
+		}
+
+		char[] buf = buffer;
+		int len = length;
+		for (int i = start; i < end; i++) {
+			char c = ch[i];
+			if (Character.isWhitespace(c)) {
+				// Any space in the buffer came from whitespace, so this is part of a run
+				if (len > 0 && buf[len - 1] == ' ')
+					continue;
+				if (len > 1 && buf[len - 1] == '-' && buf[len - 2] == ' ')
+					buf[len - 1] = EnDash;
+				buf[len++] = ' ';
+			}
+			else if (c == '.' && len > 1 && buf[len - 1] == '.' && buf[len - 2] == '.') {
+				len -= 2;
+				buf[len++] = Ellipsis;
+			}
+			else
+				buf[len++] = c;
+		}
+		length = len;
+	}
+
+	void append(String text, boolean trimStart) {
+		append(text.toCharArray(), 0, text.length(), trimStart);
+	}
+
+	int length() { return length; }
+
+	/**
+	 * Get the text so far, and start again.
+	 * @param trimEnd whether to leave off any whitespace at the end (as Node.trimEnd does).
+	 */
+	String take(boolean trimEnd) {
+		int end = length;
+		if (trimEnd) {
+			while (end > 0 && buffer[end - 1] <= ' ')
+				end--;
+		}
+		String text = (end == 0 ? "" : new String(buffer, 0, end));
+		length = 0;
+		return text;
+	}
+
+	/** Tidy a single string; mostly for testing. */
+	static String normalize(String text) {
+		TextNormalizer n = new TextNormalizer();
+		n.append(text, false);
+		return n.take(false);
+	}
+}
@@ -16,6 +16,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Action node that generally 'adds' something to the character (most commonly, a
  * codeword or one of the section's checkboxes). The functionality
@@ -197,7 +199,7 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 
 	@Override
 	public boolean handleEndTag() {
-		System.out.println("Adding TickNode() as child Executable");
+		Log.debug(Category.EXECUTION, "Adding TickNode() as child Executable");
 		if (!hadContent && !hidden && !getParent().hideChildContent()) {
 			String text;
 			boolean newSentence = getDocument().isNewSentence(getDocument().getLength());
@@ -309,7 +311,7 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 
 	@Override
 	public void flagChanged(String name, boolean state) {
-		System.out.println("TickNode.flagChanged: " + name + " set to " + state);
+		Log.debug(Category.EXECUTION, () -> "TickNode.flagChanged: " + name + " set to " + state);
 		if (flag != null && flag.equals(name)) {
 			setEnabled(state);
 		}
@@ -333,14 +335,14 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 	protected Element createElement() {
 		Element e = super.createElement();
 		if (e != null)
-			System.out.println("TickNode created Element: " + e);
+			Log.debug(Category.EXECUTION, () -> "TickNode created Element: " + e);
 		return e;
 	}
 
 	@Override
 	public void actionPerformed(ActionEvent evt) {
 		setEnabled(false);
-		System.out.println("Tick node activated");
+		Log.debug(Category.EXECUTION, "Tick node activated");
 		if (codeword != null)
 			getCodewords().addCodeword(codeword);
 		else if (god != null) {
@@ -402,7 +404,7 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 				else if (effect.startsWith("fix"))
 					stat.setFixed(add);
 				else
-					System.out.println("Ability effect unrecognised: " + effect);
+					Log.debug(Category.EXECUTION, () -> "Ability effect unrecognised: " + abilityEffect);
 			}
 			else {
 				if (Character.isDigit(amount.charAt(0))) {
@@ -437,11 +439,11 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 				FightNode.setAttackBonus(getAttributeValue(bonus));
 			}
 			else if (type.equals("armourlock")) {
-				System.out.println("Locking armour");
+				Log.debug(Category.EXECUTION, "Locking armour");
 				getItems().lockArmour();
 			}
 			else if (type.equals("weaponlock")) {
-				System.out.println("Locking weapon");
+				Log.debug(Category.EXECUTION, "Locking weapon");
 				getItems().lockWeapon();
 			}
 			else if (type.startsWith("difficulty")) {
@@ -513,7 +515,8 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 			int[] profs = new int[profStrs.length];
 			for (int i = 0; i < profStrs.length; i++) {
 				profs[i] = Adventurer.getProfessionType(profStrs[i]);
-				System.out.println("Profession " + i + ": " + profs[i]);
+				if (Log.isDebug(Category.EXECUTION))
+					Log.debug(Category.EXECUTION, "Profession " + i + ": " + profs[i]);
 			}
 			int profChosen = profs[0];
 			if (profs.length > 1) {
@@ -666,7 +669,7 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 				else if (effect.startsWith("fix"))
 					text = (add ? "Fix/Paralyse" : "Remove fix from");
 				else {
-					System.out.println("Unrecognised ability effect: " + effect);
+					Log.debug(Category.EXECUTION, () -> "Unrecognised ability effect: " + abilityEffect);
 					return null;
 				}
 			}
@@ -781,7 +784,8 @@ public class TickNode extends ActionNode implements Executable, ItemListener, Fl
 			int[] profs = new int[profStrs.length];
 			for (int i = 0; i < profStrs.length; i++) {
 				profs[i] = Adventurer.getProfessionType(profStrs[i]);
-				System.out.println("Profession " + i + ": " + profs[i]);
+				if (Log.isDebug(Category.EXECUTION))
+					Log.debug(Category.EXECUTION, "Profession " + i + ": " + profs[i]);
 			}
 			text = "Change your character's profession";
 			if (profs.length == 1)
@@ -0,0 +1,334 @@
+package flands;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.AbstractAction;
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.KeyStroke;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+
+/**
+ * Shows a (possibly very large) image at one of several zoom levels, for the maps.
+ * Each zoom level is split into {@link #TileSize} square tiles, which are made
+ * as they're first needed on a background thread; only tiles in view are painted.
+ * At most {@link #MaxTiles} tiles are kept, so memory use doesn't depend on how much
+ * of the map has been looked at.
+ * <p>
+ * Level 0 is the image at full size; each level above halves it, until the whole
+ * image fits in a tile. Negative levels enlarge level 0. Ctrl + mouse wheel, or the
+ * + and - keys, zoom in and out.
+ */
+class TiledImagePanel extends JComponent implements Scrollable {
+	static final int TileSize = 256;
+	static final int MaxTiles = 128;
+	private static final int MinLevel = -2;
+
+	private volatile BufferedImage image;
+	private int maxLevel;
+	private int level = 0;
+
+	private final Map<Long,BufferedImage> tiles = new LinkedHashMap<>(MaxTiles * 2, 0.75f, true);
+	private final Set<Long> requested = new HashSet<>();
+	private final ThreadPoolExecutor executor;
+
+	TiledImagePanel(Image i) {
+		executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread t = new Thread(r, "MapTiles");
+			t.setDaemon(true);
+			return t;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		setImage(i);
+
+		addMouseWheelListener(this::wheelMoved);
+		getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('+'), "zoomIn");
+		getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('='), "zoomIn");
+		getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('-'), "zoomOut");
+		getActionMap().put("zoomIn", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) { zoomAroundCentre(-1); }
+		});
+		getActionMap().put("zoomOut", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) { zoomAroundCentre(1); }
+		});
+	}
+
+	void setImage(Image i) {
+		image = toBufferedImage(i);
+		maxLevel = 0;
+		while (Math.max(image.getWidth(), image.getHeight()) >> maxLevel > TileSize)
+			maxLevel++;
+		level = Math.min(level, maxLevel);
+		clearTiles();
+		revalidate();
+		repaint();
+	}
+
+	private static BufferedImage toBufferedImage(Image i) {
+		if (i instanceof BufferedImage)
+			return (BufferedImage)i;
+		// Make sure it's loaded first
+		ImageIcon icon = new ImageIcon(i);
+		BufferedImage b = new BufferedImage(Math.max(1, icon.getIconWidth()), Math.max(1, icon.getIconHeight()), BufferedImage.TYPE_INT_ARGB);
+		Graphics g = b.createGraphics();
+		g.drawImage(icon.getImage(), 0, 0, null);
+		g.dispose();
+		return b;
+	}
+
+	private void clearTiles() {
+		executor.getQueue().clear();
+		synchronized (tiles) {
+			tiles.clear();
+			requested.clear();
+		}
+	}
+
+	/** The size of a level in tile pixels: the image size, halved <code>level</code> times. */
+	private int levelSize(int imageSize, int level) {
+		return Math.max(1, imageSize >> level);
+	}
+
+	/** The on-screen size of a tile pixel at the current level. */
+	private int getEnlargement() {
+		return (level < 0 ? 1 << -level : 1);
+	}
+
+	private int getTileLevel() {
+		return Math.max(0, level);
+	}
+
+	/** The size of the whole image at the current zoom. */
+	private Dimension getImageSize() {
+		int tileLevel = getTileLevel();
+		return new Dimension(levelSize(image.getWidth(), tileLevel) * getEnlargement(),
+				levelSize(image.getHeight(), tileLevel) * getEnlargement());
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return getImageSize();
+	}
+
+	/** Where the image is drawn, which is centred if there's more room than needed. */
+	private Point getImageOrigin() {
+		Dimension size = getImageSize();
+		return new Point(Math.max(0, (getWidth() - size.width) / 2), Math.max(0, (getHeight() - size.height) / 2));
+	}
+
+	private static long tileKey(int level, int tx, int ty) {
+		return ((long)level << 48) | ((long)tx << 24) | ty;
+	}
+
+	private BufferedImage getTile(int level, int tx, int ty) {
+		synchronized (tiles) {
+			return tiles.get(tileKey(level, tx, ty));
+		}
+	}
+
+	private void requestTile(final int level, final int tx, final int ty) {
+		final long key = tileKey(level, tx, ty);
+		synchronized (tiles) {
+			if (!requested.add(key))
+				return;
+		}
+		final BufferedImage source = image;
+		executor.execute(() -> {
+			BufferedImage tile = makeTile(source, level, tx, ty);
+			synchronized (tiles) {
+				if (source != image || !requested.remove(key))
+					// Image has changed, or this request has been dropped
+					return;
+				tiles.put(key, tile);
+				var i = tiles.values().iterator();
+				while (tiles.size() > MaxTiles) {
+					i.next();
+					i.remove();
+				}
+			}
+			repaint();
+		});
+	}
+
+	/** Scale one tile's worth of the source image. Runs on the tile thread. */
+	private static BufferedImage makeTile(BufferedImage source, int level, int tx, int ty) {
+		int scale = 1 << level;
+		int sx = tx * TileSize * scale, sy = ty * TileSize * scale;
+		int sw = Math.min(TileSize * scale, source.getWidth() - sx);
+		int sh = Math.min(TileSize * scale, source.getHeight() - sy);
+		int w = Math.max(1, sw / scale), h = Math.max(1, sh / scale);
+		BufferedImage tile = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = tile.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		g.drawImage(source, 0, 0, w, h, sx, sy, sx + sw, sy + sh, null);
+		g.dispose();
+		return tile;
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		g.setColor(getBackground());
+		Rectangle clip = g.getClipBounds();
+		if (clip == null)
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+		Point origin = getImageOrigin();
+		int tileLevel = getTileLevel();
+		int step = TileSize * getEnlargement();
+		int columns = (levelSize(image.getWidth(), tileLevel) + TileSize - 1) / TileSize;
+		int rows = (levelSize(image.getHeight(), tileLevel) + TileSize - 1) / TileSize;
+		int firstX = Math.max(0, (clip.x - origin.x) / step);
+		int firstY = Math.max(0, (clip.y - origin.y) / step);
+		int lastX = Math.min(columns - 1, (clip.x + clip.width - origin.x) / step);
+		int lastY = Math.min(rows - 1, (clip.y + clip.height - origin.y) / step);
+
+		Graphics2D g2 = (Graphics2D)g;
+		if (level < 0)
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		for (int ty = firstY; ty <= lastY; ty++) {
+			for (int tx = firstX; tx <= lastX; tx++) {
+				int x = origin.x + tx * step, y = origin.y + ty * step;
+				BufferedImage tile = getTile(tileLevel, tx, ty);
+				if (tile != null)
+					g.drawImage(tile, x, y, tile.getWidth() * getEnlargement(), tile.getHeight() * getEnlargement(), null);
+				else {
+					requestTile(tileLevel, tx, ty);
+					paintFromCoarserTile(g, tileLevel, tx, ty, x, y);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fill in for a tile that isn't ready yet by enlarging the quarter of the tile
+	 * on the next level up that covers it, if that's available.
+	 */
+	private void paintFromCoarserTile(Graphics g, int tileLevel, int tx, int ty, int x, int y) {
+		if (tileLevel >= maxLevel)
+			return;
+		BufferedImage coarse = getTile(tileLevel + 1, tx / 2, ty / 2);
+		if (coarse == null)
+			return;
+		int half = TileSize / 2;
+		int sx = (tx % 2) * half, sy = (ty % 2) * half;
+		int sw = Math.min(half, coarse.getWidth() - sx), sh = Math.min(half, coarse.getHeight() - sy);
+		if (sw <= 0 || sh <= 0)
+			return;
+		int scale = 2 * getEnlargement();
+		g.drawImage(coarse, x, y, x + sw * scale, y + sh * scale, sx, sy, sx + sw, sy + sh, null);
+	}
+
+	private void wheelMoved(MouseWheelEvent e) {
+		if (e.isControlDown())
+			zoom(e.getWheelRotation() > 0 ? 1 : -1, e.getPoint());
+		else {
+			// Pass it on for scrolling
+			Component scrollPane = SwingUtilities.getAncestorOfClass(JScrollPane.class, this);
+			if (scrollPane != null)
+				scrollPane.dispatchEvent(SwingUtilities.convertMouseEvent(this, e, scrollPane));
+		}
+	}
+
+	private void zoomAroundCentre(int change) {
+		Rectangle visible = getVisibleRect();
+		zoom(change, new Point(visible.x + visible.width / 2, visible.y + visible.height / 2));
+	}
+
+	/**
+	 * Change the zoom level, keeping the part of the image under the given point where it is.
+	 * @param change positive to zoom out, negative to zoom in.
+	 */
+	private void zoom(int change, Point p) {
+		int newLevel = Math.max(MinLevel, Math.min(maxLevel, level + change));
+		if (newLevel == level)
+			return;
+
+		Point origin = getImageOrigin();
+		Dimension oldSize = getImageSize();
+		double fx = (double)(p.x - origin.x) / oldSize.width;
+		double fy = (double)(p.y - origin.y) / oldSize.height;
+
+		// Tiles for other levels are kept, but there's no point making any more of these
+		executor.getQueue().clear();
+		synchronized (tiles) {
+			requested.clear();
+		}
+		level = newLevel;
+		Dimension newSize = getImageSize();
+
+		if (getParent() instanceof JViewport) {
+			JViewport viewport = (JViewport)getParent();
+			Point offset = new Point(p.x - viewport.getViewPosition().x, p.y - viewport.getViewPosition().y);
+			viewport.setViewSize(newSize);
+			int x = (int)(fx * newSize.width) - offset.x;
+			int y = (int)(fy * newSize.height) - offset.y;
+			Dimension extent = viewport.getExtentSize();
+			x = Math.max(0, Math.min(x, newSize.width - extent.width));
+			y = Math.max(0, Math.min(y, newSize.height - extent.height));
+			viewport.setViewPosition(new Point(x, y));
+		}
+		revalidate();
+		repaint();
+	}
+
+	/**
+	 * Stop making tiles, and let go of the ones made. They will be made again
+	 * if the panel is shown again. The tile thread goes once it's been idle for a while.
+	 */
+	void dispose() {
+		clearTiles();
+	}
+
+	// --- Scrollable methods ---
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return getPreferredSize();
+	}
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return 5;
+	}
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return (orientation == SwingConstants.HORIZONTAL ? visibleRect.width : visibleRect.height);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		// Stretch to fill the viewport (and centre the image) when it's smaller
+		return (getParent() instanceof JViewport && getParent().getWidth() > getPreferredSize().width);
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return (getParent() instanceof JViewport && getParent().getHeight() > getPreferredSize().height);
+	}
+}
@@ -11,19 +11,26 @@ import java.text.MessageFormat;
  */
 public class Title {
 	private String title, pattern;
+	private final String lowerCaseTitle;
 	private int value;
 	public Title(String title) {
 		this.title = title;
+		this.lowerCaseTitle = title.toLowerCase();
 		pattern = null;
 	}
 	public Title(String key, String pattern, int value) {
 		this.title = key;
+		this.lowerCaseTitle = key.toLowerCase();
 		this.pattern = pattern;
 		this.value = value;
 	}
 
+	/**
+	 * Check whether this title is the one asked for. The title asked for may hold
+	 * wildcards (see {@link NameMatcher}).
+	 */
 	public boolean matches(String lowerCaseTitle) {
-		return lowerCaseTitle.equals(this.title.toLowerCase());
+		return NameMatcher.get(lowerCaseTitle).matches(this.lowerCaseTitle);
 	}
 
 	public String getTitle() {
@@ -7,6 +7,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Special hidden node attached to a market - if it matches an item being bought or sold,
  * the child action nodes will be activated.
@@ -37,7 +39,7 @@ public class TradeEventNode extends Node {
 	protected Node createChild(String name) {
 		Node n = super.createChild(name);
 		if (n instanceof ActionNode) {
-			System.out.println("TradeNode: adding action as child: " + n);
+			Log.debug(Category.ITEMS, () -> "TradeNode: adding action as child: " + n);
 			events.add((ActionNode)n);
 		}
 		return n;
@@ -77,7 +79,7 @@ public class TradeEventNode extends Node {
 	void itemTraded(boolean bought, Item trade) {
 		if (this.bought == bought &&
 			(item == null || item.matches(trade))) {
-			System.out.println("TradeEventNode triggered");
+			Log.debug(Category.ITEMS, "TradeEventNode triggered");
 			for (ActionNode event : events)
 				event.actionPerformed(null);
 		}
@@ -16,6 +16,8 @@ import javax.swing.text.StyleConstants;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Specialised node to be part of a MarketNode - defines one row of the table. Contains
  * an item, ship, crew or cargo to be bought or sold.
@@ -65,7 +67,7 @@ public class TradeNode extends Node implements Executable {
 		buy = getIntValue(atts, "buy", -1);
 		sell = getIntValue(atts, "sell", -1);
 		if (buy < 0 && sell < 0)
-			System.out.println("Error: trade:buy and :sell both appear to be missing!");
+			Log.debug(Category.ITEMS, "Error: trade:buy and :sell both appear to be missing!");
 
 		// Grab only the necessary attributes to figure out the text cells
 		String val = atts.getValue("ship");
@@ -149,7 +151,7 @@ public class TradeNode extends Node implements Executable {
 			addChild(tradeEvent);
 			if (item != null)
 				tradeEvent.setItem(item);
-			System.out.println("TradeNode: created TradeEvent child");
+			Log.debug(Category.ITEMS, "TradeNode: created TradeEvent child");
 			return tradeEvent;
 		}
 		else
@@ -300,11 +302,11 @@ public class TradeNode extends Node implements Executable {
 			initialCrew = atts.getValue("initialCrew");
 			name = atts.getValue("name"); // could have multiple applications
 
-			val = atts.getValue("cargo");
-			if (val != null) {
-				cargoType = Ship.getCargo(val);
+			String cargo = atts.getValue("cargo");
+			if (cargo != null) {
+				cargoType = Ship.getCargo(cargo);
 				if (cargoType > Ship.NO_CARGO) {
-					System.out.println("Ready to take cargo " + val);
+					Log.debug(Category.ITEMS, () -> "Ready to take cargo " + cargo);
 					getShips().addCargoListener(this);
 				}
 			}
@@ -665,8 +667,8 @@ public class TradeNode extends Node implements Executable {
 		boolean canSellNow() {
 			if (!getParent().enabled)
 				return false;
-			if (quantity == 0) { System.out.println("quantity=0"); return false; }
-			if (price != null && getFlags().getState(price)) { System.out.println(price + " is set"); return false; }
+			if (quantity == 0) { Log.debug(Category.ITEMS, "quantity=0"); return false; }
+			if (price != null && getFlags().getState(price)) { Log.debug(Category.ITEMS, () -> price + " is set"); return false; }
 			if (shipType >= 0) {
 				return getShips().findShipsOfType(shipType).length > 0;
 			}
@@ -676,7 +678,7 @@ public class TradeNode extends Node implements Executable {
 			else if (item != null) {
 				int[] matches = getItems().findMatches(item);
 				if (item.getNextItem() != null)
-					System.out.println("Matches found for chained items: " + matches.length);
+					Log.debug(Category.ITEMS, () -> "Matches found for chained items: " + matches.length);
 				if (matches.length > 0) {
 					// Attach this node to all matched items
 					for (int match : matches)
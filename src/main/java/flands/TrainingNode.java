@@ -11,6 +11,8 @@ import javax.swing.text.StyledDocument;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Convenience node for increasing an ability if a dice roll exceeds its current value.
  * @author Jonathan Mann
@@ -114,7 +116,7 @@ public class TrainingNode extends ActionNode implements Executable, Roller.Liste
 
 			if (dc.getSelectedIndices() == null)
 				return; // failure
-			System.out.println("Selected indices has length " + dc.getSelectedIndices().length);
+			Log.debug(Category.EXECUTION, () -> "Selected indices has length " + dc.getSelectedIndices().length);
 			ability = abilities[dc.getSelectedIndices()[0]];
 		}
 		setEnabled(false);
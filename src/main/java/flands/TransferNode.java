@@ -13,6 +13,8 @@ import org.xml.sax.helpers.AttributesImpl;
 
 import static flands.DocumentChooser.showChooser;
 
+import flands.Log.Category;
+
 /**
  * Action node to automatically transfer items between caches and the character.
  * Convenient when we want possessions to be temporarily removed from the character.
@@ -49,7 +51,8 @@ public class TransferNode extends ActionNode implements Executable, Flag.Listene
 
 		AttributesImpl exAtts = new AttributesImpl();
 		for (int i = atts.getLength(); i >= 0; i--) {
-			System.out.println("Attribute " + i + ": uri=" + atts.getURI(i) + ", localname=" + atts.getLocalName(i) + ", QName=" + atts.getQName(i) + ", type=" + atts.getType(i) + ", value=" + atts.getValue(i));
+			if (Log.isDebug(Category.ITEMS))
+				Log.debug(Category.ITEMS, "Attribute " + i + ": uri=" + atts.getURI(i) + ", localname=" + atts.getLocalName(i) + ", QName=" + atts.getQName(i) + ", type=" + atts.getType(i) + ", value=" + atts.getValue(i));
 			String qname = atts.getQName(i);
 			if (qname != null && qname.startsWith(ExcludePrefix)) {
 				exAtts.addAttribute(atts.getURI(i),
@@ -236,12 +239,16 @@ public class TransferNode extends ActionNode implements Executable, Flag.Listene
 			}
 		}
 
-		for (int i = indices.length - 1; i >= 0; i--) {
-			System.out.println("Transferring item " + indices[i]);
-			Item item = fromItems.getItem(indices[i]);
-			fromItems.removeItem(indices[i]);
-			toItems.addItem(item);
-		}
+		int[] moved = indices;
+		fromItems.batch(source -> toItems.batch(dest -> {
+			for (int i = moved.length - 1; i >= 0; i--) {
+				if (Log.isDebug(Category.ITEMS))
+					Log.debug(Category.ITEMS, "Transferring item " + moved[i]);
+				Item item = source.getItem(moved[i]);
+				source.removeItem(moved[i]);
+				dest.addItem(item);
+			}
+		}));
 
 		if (shards != null) {
 			int money = getFromShards();
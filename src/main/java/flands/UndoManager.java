@@ -3,6 +3,8 @@ package flands;
 
 import java.util.LinkedList;
 
+import flands.Log.Category;
+
 /**
  * Central point for collecting undoable events.
  * @author Jonathan Mann
@@ -17,19 +19,20 @@ public class UndoManager {
 		public void undoOccurred(UndoManager undo) {}
 	}
 
-	private static UndoManager single = null;
 	static UndoManager createNew(Creator creator) {
-		single = new UndoManager(creator);
-		return single;
+		UndoManager undo = new UndoManager(creator);
+		GameSession.getCurrent().undo = undo;
+		return undo;
 	}
 	static UndoManager createNull() {
 		return createNew(new NullCreator());
 	}
 	public static UndoManager getCurrent() {
-		if (single == null)
-			return createNew(undo -> {});
+		UndoManager undo = GameSession.getCurrent().undo;
+		if (undo == null)
+			return createNew(u -> {});
 		else
-			return single;
+			return undo;
 	}
 
 	private final Creator creator;
@@ -43,14 +46,14 @@ public class UndoManager {
 	public Creator getCreator() { return creator; }
 
 	void ignoreCalls(boolean b) {
-		System.out.println("UndoManager.ignoreCalls(" + b + ")");
+		Log.debug(Category.UNDO, () -> "UndoManager.ignoreCalls(" + b + ")");
 		if (b)
 			ignoreCalls++;
 		else {
 			ignoreCalls--;
 			if (ignoreCalls < 0) {
 				// Not an error
-				System.out.println("UndoManager.setIgnoreCalls(false) called more than (true)");
+				Log.debug(Category.UNDO, "UndoManager.setIgnoreCalls(false) called more than (true)");
 				ignoreCalls = 0;
 			}
 		}
@@ -9,6 +9,8 @@ import javax.swing.text.AttributeSet;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * A UseEffect is attached to an Item; when the item is used, the effect is activated.
  * Commonly, an ActionNode is attached to the effect, which is activated.
@@ -89,13 +91,13 @@ public class UseEffect extends Effect implements ExecutableGrouper {
 
 	public boolean use() {
 		if (actions != null) {
-			System.out.println("Trying to use effect " + this);
+			Log.debug(Category.ITEMS, () -> "Trying to use effect " + this);
 			for (ActionNode action : actions) {
 				if (action instanceof Executable) {
-					System.out.println("Executing action first");
+					Log.debug(Category.ITEMS, "Executing action first");
 					((Executable) action).execute(this);
 				}
-				System.out.println("Performing action now");
+				Log.debug(Category.ITEMS, "Performing action now");
 				action.actionPerformed(null);
 			}
 		}
@@ -7,6 +7,8 @@ import javax.swing.text.Element;
 
 import org.xml.sax.Attributes;
 
+import flands.Log.Category;
+
 /**
  * Contains part of the section that will be repeatedly executed until the given variable
  * has been assigned a value. Not much used, probably buggy, and most likely restricted
@@ -52,7 +54,7 @@ public class WhileNode extends Node implements Executable, ExecutableGrouper {
 		if (isVariableDefined(var))
 			return true;
 
-		System.out.println("Starting while loop");
+		Log.debug(Category.EXECUTION, "Starting while loop");
 		setEnabled(true);
 		return runWhileLoop();
 	}
@@ -74,12 +76,12 @@ public class WhileNode extends Node implements Executable, ExecutableGrouper {
 	private boolean runWhileLoop() {
 		while (!isVariableDefined(var)) {
 			if (doReset) {
-				System.out.println("Resetting children");
+				Log.debug(Category.EXECUTION, "Resetting children");
 				doReset = false;
 				runner.resetExecute(); // ready for another loop
 			}
 
-			System.out.println("Executing children");
+			Log.debug(Category.EXECUTION, "Executing children");
 			doReset = true;
 			if (!runner.execute(this)) return false; // continueExecution will be called later
 		}
@@ -11,8 +11,6 @@ import java.util.Properties;
 
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.SAXParser;
-
 /**
  * Object that holds other objects that will be saved in XML format. Currently, these
  * objects are the ItemLists (possessions and caches), money caches and current curses.
@@ -20,13 +18,13 @@ import javax.xml.parsers.SAXParser;
  * @author Jonathan Mann
  */
 public class XMLPool implements Loadable, XMLOutput {
-	private static XMLPool single = null;
 	static XMLPool createPool(Adventurer adv) {
-		single = new XMLPool(adv);
-		return single;
+		XMLPool pool = new XMLPool(adv);
+		GameSession.getCurrent().pool = pool;
+		return pool;
 	}
 	public static XMLPool getPool() {
-		return single;
+		return GameSession.getCurrent().pool;
 	}
 
 	private Adventurer adv;
@@ -44,9 +42,8 @@ public class XMLPool implements Loadable, XMLOutput {
 	@Override
 	public boolean loadFrom(InputStream in) throws IOException {
 		try {
-			SAXParser parser = FLApp.createSAXParser();
 			ParserHandler handler = new ParserHandler();
-			parser.parse(in, handler);
+			ParserPool.parse(in, handler);
 
 			return true;
 		}
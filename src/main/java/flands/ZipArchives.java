@@ -0,0 +1,201 @@
+package flands;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import flands.Log.Category;
+
+/**
+ * Keeps a small pool of open book zip-files, so that reading a section doesn't
+ * re-open the archive (and re-read its central directory) every time.
+ * The entry names of each archive are indexed the first time it is looked at, and
+ * that index is kept after the handle itself has been closed; checks such as
+ * {@link Books.BookDetails#hasBook()} then never need to touch the file again.
+ * Looking at an archive only to index it doesn't keep it in the pool.
+ * <p>
+ * Handles are evicted least-recently-used first once more than
+ * {@link #MaxOpenArchives} are open. Closing a zip-file would close any streams
+ * still open from it, and streams are read on several threads at once; so each
+ * stream holds a lease on its handle, and a handle that is evicted or closed is
+ * only really closed once the last of its streams has been. Callers must close
+ * the streams they are given.
+ */
+final class ZipArchives {
+	/** The most zip-files that will be held open at once. */
+	static final int MaxOpenArchives = 4;
+
+	/** An open zip-file, and the number of streams still open from it. */
+	private static final class Archive {
+		private final String path;
+		private final ZipFile zip;
+		// Guarded by ZipArchives.class
+		private int leases = 0;
+		private boolean retired = false;
+
+		private Archive(String path, ZipFile zip) {
+			this.path = path;
+			this.zip = zip;
+		}
+	}
+
+	/** A stream from an archive, which gives up its lease when closed. */
+	private static final class LeasedStream extends FilterInputStream {
+		private final Archive archive;
+		private boolean closed = false;
+
+		private LeasedStream(Archive archive, InputStream in) {
+			super(in);
+			this.archive = archive;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) return;
+			closed = true;
+			try {
+				super.close();
+			}
+			finally {
+				release(archive);
+			}
+		}
+	}
+
+	private static final Map<String,Archive> openArchives =
+		new LinkedHashMap<String,Archive>(MaxOpenArchives * 2, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,Archive> eldest) {
+				if (size() > MaxOpenArchives) {
+					retire(eldest.getValue());
+					return true;
+				}
+				return false;
+			}
+		};
+
+	/** Entry names of every archive looked at so far, keyed by path. */
+	private static final Map<String,Map<String,ZipEntry>> entryIndex = new HashMap<>();
+
+	private ZipArchives() {}
+
+	/**
+	 * Get the open zip-file for the given path, opening it (and indexing its
+	 * entries) if necessary.
+	 * @throws IOException if the file couldn't be opened as a zip-file.
+	 */
+	private static Archive open(String path) throws IOException {
+		Archive a = openArchives.get(path);
+		if (a == null) {
+			ZipFile zf = new ZipFile(path);
+			if (!entryIndex.containsKey(path))
+				entryIndex.put(path, index(zf));
+			a = new Archive(path, zf);
+			openArchives.put(path, a);
+		}
+		return a;
+	}
+
+	private static Map<String,ZipEntry> index(ZipFile zf) {
+		Map<String,ZipEntry> entries = new HashMap<>(zf.size() * 2);
+		for (final var e = zf.entries(); e.hasMoreElements(); ) {
+			ZipEntry entry = e.nextElement();
+			entries.put(entry.getName(), entry);
+		}
+		return entries;
+	}
+
+	/** Get the entry index, reading it without adding the archive to the pool if necessary. */
+	private static Map<String,ZipEntry> getIndex(String path) throws IOException {
+		Map<String,ZipEntry> entries = entryIndex.get(path);
+		if (entries == null) {
+			try (ZipFile zf = new ZipFile(path)) {
+				entries = index(zf);
+			}
+			entryIndex.put(path, entries);
+		}
+		return entries;
+	}
+
+	/**
+	 * Check that the given path can be opened as a zip-file.
+	 * @throws IOException if it can't.
+	 */
+	static synchronized void validate(String path) throws IOException {
+		getIndex(path);
+	}
+
+	/** Check whether the zip-file contains the named entry. */
+	static synchronized boolean contains(String path, String name) throws IOException {
+		return getIndex(path).containsKey(name);
+	}
+
+	/**
+	 * Get a stream for the named entry. The stream must be closed, so that the
+	 * zip-file can be closed in its turn.
+	 * @return the stream, or <code>null</code> if there is no such entry.
+	 */
+	static synchronized InputStream getInputStream(String path, String name) throws IOException {
+		ZipEntry entry = getIndex(path).get(name);
+		if (entry == null)
+			return null;
+		Archive a = open(path);
+		InputStream in = a.zip.getInputStream(entry);
+		if (in == null)
+			return null;
+		a.leases++;
+		return new LeasedStream(a, in);
+	}
+
+	/** Get the names of all entries in the zip-file. */
+	static synchronized Collection<String> getNames(String path) throws IOException {
+		return Collections.unmodifiableCollection(getIndex(path).keySet());
+	}
+
+	/**
+	 * Close the zip-file at the given path, if it's open, once any streams still
+	 * open from it have been closed. The entry index is kept.
+	 */
+	static synchronized void close(String path) {
+		Archive a = openArchives.remove(path);
+		if (a != null)
+			retire(a);
+	}
+
+	/** Close every open zip-file, as {@link #close(String)} does. */
+	static synchronized void closeAll() {
+		for (Iterator<Archive> i = openArchives.values().iterator(); i.hasNext(); ) {
+			retire(i.next());
+			i.remove();
+		}
+	}
+
+	/** Take a handle out of service, closing it now if nothing is reading from it. */
+	private static void retire(Archive a) {
+		a.retired = true;
+		if (a.leases == 0)
+			closeQuietly(a);
+	}
+
+	private static synchronized void release(Archive a) {
+		if (--a.leases == 0 && a.retired)
+			closeQuietly(a);
+	}
+
+	private static void closeQuietly(Archive a) {
+		try {
+			a.zip.close();
+		}
+		catch (IOException e) {
+			Log.warning(Category.GAME, "Error closing zip-file " + a.path);
+		}
+	}
+}
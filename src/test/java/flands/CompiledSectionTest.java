@@ -0,0 +1,57 @@
+package flands;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class CompiledSectionTest {
+	private static String dump(ParserHandler handler) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(bytes);
+		handler.getDocument().dump(out);
+		handler.getRootNode().outputTo(out, "", XMLOutput.OUTPUT_PROPS_STATIC | XMLOutput.OUTPUT_PROPS_DYNAMIC);
+		out.flush();
+		// Strip identity hash codes, which will always differ
+		return bytes.toString().replaceAll("@[0-9a-f]+", "");
+	}
+
+	public static void main(String args[]) throws Exception {
+		for (String filename : args) {
+			ParserHandler parsed = new ParserHandler();
+			FLApp.createSAXParser().parse(new FileInputStream(filename), parsed);
+
+			byte[] xml = Files.readAllBytes(Paths.get(filename));
+			CompiledSection compiled = CompiledSection.compile(new ByteArrayInputStream(xml));
+			ParserHandler built = new ParserHandler();
+			built.build(compiled);
+
+			ByteArrayOutputStream binary = new ByteArrayOutputStream();
+			compiled.writeTo(binary, xml);
+			ParserHandler loaded = new ParserHandler();
+			loaded.build(CompiledSection.read(new ByteArrayInputStream(binary.toByteArray()), xml));
+
+			// The binary form mustn't be used once the XML has changed
+			byte[] edited = xml.clone();
+			edited[edited.length - 1] ^= 1;
+			boolean staleRejected = false;
+			try {
+				CompiledSection.read(new ByteArrayInputStream(binary.toByteArray()), edited);
+			}
+			catch (IOException e) {
+				staleRejected = true;
+			}
+
+			String parsedDump = dump(parsed);
+			boolean same = parsedDump.equals(dump(built));
+			boolean sameBinary = parsedDump.equals(dump(loaded));
+			System.err.println(filename + ": " + compiled.getTagCount() + " tags, size " +
+					compiled.getSize() + (same ? ", matches parsed section" : ", DIFFERS from parsed section") +
+					", " + binary.size() + " bytes compiled" + (sameBinary ? "" : ", binary form DIFFERS") +
+					(staleRejected ? "" : ", out-of-date binary ACCEPTED"));
+		}
+	}
+}
@@ -14,5 +14,15 @@ public class EffectSetTest {
 		effects.addStatRelated(Adventurer.ABILITY_COMBAT, rod);
 		effects.addStatRelated(Adventurer.ABILITY_SCOUTING, rod, magicToolEffect);
 		System.out.println("3 -> " + effects.adjustAbility(Adventurer.ABILITY_SCOUTING, 3));
+		System.out.println("3 (no tools) -> " + effects.adjustAbility(Adventurer.ABILITY_SCOUTING, 3, Adventurer.MODIFIER_NOTOOL));
+
+		// A remembered value must not outlive the effects it came from
+		effects.removeStatRelated(Adventurer.ABILITY_SCOUTING, rod, magicToolEffect);
+		System.out.println("3 (rod removed) -> " + effects.adjustAbility(Adventurer.ABILITY_SCOUTING, 3));
+		System.out.println("5 (rod removed) -> " + effects.adjustAbility(Adventurer.ABILITY_SCOUTING, 5));
+
+		// Nor outlive a change made to an item in place (eg. by TickNode's addbonus)
+		tool2.adjustBonus(-2);
+		System.out.println("3 (sextant now +1) -> " + effects.adjustAbility(Adventurer.ABILITY_SCOUTING, 3));
 	}
 }
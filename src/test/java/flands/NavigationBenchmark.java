@@ -0,0 +1,287 @@
+package flands;
+
+import java.awt.GraphicsEnvironment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.swing.text.Element;
+
+/**
+ * Times the steps between clicking a choice and seeing the next section:
+ * parsing section XML, building the node tree, adding document leaves and
+ * executing the section, plus saving and loading a game and evaluating expressions.
+ * The section.parse.long cases parse a single paragraph of increasing length, and
+ * should grow in proportion to it.
+ * Everything runs on sections from {@link SyntheticBook}, so no book files are needed.
+ * <p>
+ * Each benchmark is warmed up, then run for a number of measured iterations; the
+ * mean time per operation and its standard deviation are reported. Results can be
+ * saved to a file and compared against a later run to catch regressions:
+ * <pre>
+ *   java flands.NavigationBenchmark -o before.properties
+ *   (change something)
+ *   java flands.NavigationBenchmark -c before.properties
+ * </pre>
+ */
+public class NavigationBenchmark {
+	/** One benchmark. {@link #setUp()} is called, untimed, before each timed {@link #run()}. */
+	private interface Case {
+		default void setUp() throws Exception {}
+		void run() throws Exception;
+	}
+
+	private static final int WarmupIterations = 5;
+	/** The rough length of each iteration, in nanoseconds. */
+	private static final long IterationTime = 100_000_000L;
+
+	private final Map<String,Case> cases = new LinkedHashMap<>();
+	private final Map<String,double[]> results = new LinkedHashMap<>();
+	private int iterations = 10;
+
+	private final byte[][] sectionXML;
+	private final CompiledSection[] compiled;
+	private final byte[][] binary;
+	private int next = 0;
+
+	private NavigationBenchmark(int sections) throws Exception {
+		SyntheticBook book = new SyntheticBook(1, sections);
+		sectionXML = new byte[sections][];
+		compiled = new CompiledSection[sections];
+		binary = new byte[sections][];
+		for (int s = 0; s < sections; s++) {
+			sectionXML[s] = book.section(s + 1, 2 + s % 6).getBytes(StandardCharsets.UTF_8);
+			compiled[s] = CompiledSection.compile(new ByteArrayInputStream(sectionXML[s]));
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			compiled[s].writeTo(out, sectionXML[s]);
+			binary[s] = out.toByteArray();
+		}
+		addCases();
+	}
+
+	/** Cycle through the generated sections, so one section doesn't dominate. */
+	private int nextSection() {
+		int s = next;
+		next = (next + 1) % sectionXML.length;
+		return s;
+	}
+
+	private SectionNode build(CompiledSection section) {
+		ParserHandler handler = new ParserHandler();
+		handler.build(section);
+		return (SectionNode)handler.getRootNode();
+	}
+
+	private void addCases() {
+		cases.put("section.parse", () -> {
+			ParserHandler handler = new ParserHandler();
+			ParserPool.parse(new ByteArrayInputStream(sectionXML[nextSection()]), handler);
+		});
+
+		for (int length : new int[] { 4000, 40000, 400000 }) {
+			final byte[] xml = new SyntheticBook(length, 1).longSection(1, length).getBytes(StandardCharsets.UTF_8);
+			cases.put("section.parse.long." + (length / 1000) + "k", () -> {
+				ParserHandler handler = new ParserHandler();
+				ParserPool.parse(new ByteArrayInputStream(xml), handler);
+			});
+		}
+
+		cases.put("section.compile", () -> CompiledSection.compile(new ByteArrayInputStream(sectionXML[nextSection()])));
+
+		cases.put("section.loadBinary", () -> {
+			int s = nextSection();
+			CompiledSection.read(new ByteArrayInputStream(binary[s]), sectionXML[s]);
+		});
+
+		cases.put("section.build", () -> build(compiled[nextSection()]));
+
+		cases.put("document.addLeaves", new Case() {
+			private SectionDocument doc;
+			private Element branch;
+			private StyledText[] text;
+
+			@Override
+			public void setUp() {
+				doc = new SectionDocument();
+				doc.grabWriteLock();
+				branch = doc.createBranchElement(doc.createRootElement(), null);
+				doc.releaseWriteLock();
+				text = new StyledText[] {
+					new StyledText("  You must make a COMBAT roll of Difficulty 12, or lose 3 Stamina. ", null),
+					new StyledText("A SANCTITY or MAGIC roll may help; so may THIEVERY.", null),
+					new StyledText(" The road leads on to the city.\n", null)
+				};
+			}
+
+			@Override
+			public void run() {
+				doc.grabWriteLock();
+				doc.addLeavesTo(branch, text);
+				doc.releaseWriteLock();
+			}
+		});
+
+		// Execution reaches the adventurer through the main window, so needs a display
+		if (!GraphicsEnvironment.isHeadless()) {
+			cases.put("section.execute", new Case() {
+				private SectionNode root;
+
+				@Override
+				public void setUp() {
+					root = build(compiled[nextSection()]);
+				}
+
+				@Override
+				public void run() {
+					root.startExecution();
+				}
+			});
+		}
+
+		cases.put("game.saveLoad", new Case() {
+			private File file;
+			private LoadableHandler handler;
+
+			@Override
+			public void setUp() throws IOException {
+				if (file == null) {
+					file = File.createTempFile("flands", ".zip");
+					file.deleteOnExit();
+				}
+				Adventurer adv = new Adventurer();
+				Codewords codewords = adv.getCodewords();
+				for (int c = 0; c < 100; c++)
+					codewords.addCodeword("Word" + c);
+				handler = new LoadableHandler(file.getPath());
+				handler.add(codewords);
+				handler.add(build(compiled[nextSection()]));
+			}
+
+			@Override
+			public void run() throws IOException {
+				if (!handler.save() || !handler.load())
+					throw new IOException("Round trip failed");
+			}
+		});
+
+		final Expression.Resolver resolver = name -> name.length();
+		final String expression = "(stamina + 3) * rank - shards / 2 + x1 - (n * 2 + 1)";
+		cases.put("expression.parse", () -> new Expression(expression));
+
+		final Expression parsed = new Expression(expression);
+		cases.put("expression.evaluate", () -> parsed.getRoot().evaluate(resolver));
+	}
+
+	/**
+	 * Run one benchmark. Each warmup iteration runs for {@link #IterationTime}; the
+	 * number of operations in the last one is then used for each measured iteration,
+	 * so that quick and slow operations are timed over a similar period.
+	 * @return the time taken by each measured iteration, in microseconds per operation.
+	 */
+	private double[] measure(Case c) throws Exception {
+		int ops = 0;
+		for (int w = 0; w < WarmupIterations; w++) {
+			ops = 0;
+			long end = System.nanoTime() + IterationTime;
+			while (System.nanoTime() < end) {
+				c.setUp();
+				c.run();
+				ops++;
+			}
+		}
+
+		double[] times = new double[iterations];
+		for (int i = 0; i < iterations; i++) {
+			long total = 0;
+			for (int op = 0; op < ops; op++) {
+				c.setUp();
+				long start = System.nanoTime();
+				c.run();
+				total += System.nanoTime() - start;
+			}
+			times[i] = total / 1000.0 / ops;
+		}
+		return times;
+	}
+
+	private static double mean(double[] values) {
+		return Arrays.stream(values).average().orElse(0);
+	}
+
+	private static double stddev(double[] values) {
+		double mean = mean(values);
+		double sum = 0;
+		for (double v : values)
+			sum += (v - mean) * (v - mean);
+		return (values.length > 1 ? Math.sqrt(sum / (values.length - 1)) : 0);
+	}
+
+	private void runAll(List<String> only) throws Exception {
+		for (Map.Entry<String,Case> e : cases.entrySet()) {
+			if (only.isEmpty() || only.contains(e.getKey()))
+				results.put(e.getKey(), measure(e.getValue()));
+		}
+	}
+
+	private void report(Properties baseline) {
+		System.out.println(String.format("%-22s %12s %10s %10s", "Benchmark", "us/op", "error", "change"));
+		for (Map.Entry<String,double[]> e : results.entrySet()) {
+			double mean = mean(e.getValue());
+			String change = "";
+			if (baseline != null && baseline.getProperty(e.getKey()) != null) {
+				double before = Double.parseDouble(baseline.getProperty(e.getKey()));
+				change = String.format("%+.1f%%", (mean - before) * 100 / before);
+			}
+			System.out.println(String.format("%-22s %12.3f %10.3f %10s", e.getKey(), mean, stddev(e.getValue()), change));
+		}
+	}
+
+	private void save(File file) throws IOException {
+		Properties props = new Properties();
+		for (Map.Entry<String,double[]> e : results.entrySet())
+			props.setProperty(e.getKey(), Double.toString(mean(e.getValue())));
+		try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+			props.store(out, "NavigationBenchmark results, microseconds per operation");
+		}
+	}
+
+	public static void main(String args[]) throws Exception {
+		int sections = 50;
+		int iterations = 10;
+		File output = null;
+		Properties baseline = null;
+		List<String> only = new ArrayList<>();
+		for (int a = 0; a < args.length; a++) {
+			switch (args[a]) {
+			case "-i": iterations = Integer.parseInt(args[++a]); break;
+			case "-s": sections = Integer.parseInt(args[++a]); break;
+			case "-o": output = new File(args[++a]); break;
+			case "-c":
+				baseline = new Properties();
+				try (FileReader in = new FileReader(args[++a])) {
+					baseline.load(in);
+				}
+				break;
+			default: only.add(args[a]); break;
+			}
+		}
+
+		NavigationBenchmark benchmark = new NavigationBenchmark(sections);
+		benchmark.iterations = iterations;
+		benchmark.runAll(only);
+		benchmark.report(baseline);
+		if (output != null)
+			benchmark.save(output);
+	}
+}
@@ -0,0 +1,142 @@
+package flands;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Generates sections that look like real ones (paragraphs of text with
+ * capitalised ability names, styles, variables, conditions, tables of choices)
+ * without needing any of the actual books. The same seed always gives the same
+ * sections, so benchmark results can be compared from one build to the next.
+ * <p>
+ * Run with a directory and a section count to write a complete book that can be
+ * added to books.ini.
+ */
+public class SyntheticBook {
+	private static final String[] Words = {
+		"the", "road", "winds", "through", "a", "forest", "of", "black", "pines", "towards",
+		"distant", "city", "you", "see", "an", "old", "man", "by", "gate", "who", "offers",
+		"to", "sell", "map", "storm", "clouds", "gather", "over", "sea", "and", "ship",
+		"creaks", "at", "her", "moorings", "guards", "watch", "with", "suspicion"
+	};
+	private static final String[] CapsWords = {
+		"COMBAT", "CHARISMA", "MAGIC", "SANCTITY", "SCOUTING", "THIEVERY", "Stamina", "Rank"
+	};
+
+	private final Random random;
+	private final int sectionCount;
+
+	/**
+	 * @param sectionCount the number of sections in the book; choices lead to any of them.
+	 */
+	public SyntheticBook(long seed, int sectionCount) {
+		this.random = new Random(seed);
+		this.sectionCount = sectionCount;
+	}
+
+	private void appendSentence(StringBuilder sb) {
+		int words = 6 + random.nextInt(12);
+		for (int w = 0; w < words; w++) {
+			if (w > 0)
+				sb.append(' ');
+			if (random.nextInt(12) == 0)
+				sb.append(CapsWords[random.nextInt(CapsWords.length)]);
+			else if (random.nextInt(20) == 0)
+				sb.append("<b>").append(Words[random.nextInt(Words.length)]).append("</b>");
+			else
+				sb.append(Words[random.nextInt(Words.length)]);
+		}
+		sb.append(".\n  ");
+	}
+
+	private int randomSection() {
+		return 1 + random.nextInt(sectionCount);
+	}
+
+	/**
+	 * Generate the XML for one section.
+	 * @param paragraphs the number of text paragraphs before the choices.
+	 */
+	public String section(int number, int paragraphs) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<section name=\"").append(number).append("\">\n");
+		sb.append("<set var=\"n\" value=\"").append(random.nextInt(10)).append("\"/>\n");
+		for (int p = 0; p < paragraphs; p++) {
+			sb.append("<p>\n  ");
+			for (int s = 1 + random.nextInt(4); s > 0; s--)
+				appendSentence(sb);
+			switch (random.nextInt(4)) {
+			case 0:
+				sb.append("<set var=\"x").append(p).append("\" value=\"n * 2 + ").append(p).append(" - (n / 3)\"/>\n");
+				break;
+			case 1:
+				sb.append("<if var=\"n\" greaterthan=\"").append(random.nextInt(10)).append("\">");
+				appendSentence(sb);
+				sb.append("<goto section=\"").append(randomSection()).append("\"/></if>\n");
+				sb.append("<else>");
+				appendSentence(sb);
+				sb.append("</else>\n");
+				break;
+			case 2:
+				sb.append("<i>");
+				appendSentence(sb);
+				sb.append("</i>\n");
+				break;
+			default:
+				break;
+			}
+			sb.append("</p>\n");
+		}
+		sb.append("<choices>\n");
+		for (int c = 2 + random.nextInt(4); c > 0; c--) {
+			sb.append("<choice section=\"").append(randomSection()).append("\">");
+			sb.append(Words[random.nextInt(Words.length)]).append(' ').append(Words[random.nextInt(Words.length)]);
+			sb.append("</choice>\n");
+		}
+		sb.append("</choices>\n");
+		sb.append("</section>\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Generate a section holding a single paragraph of (at least) the given
+	 * number of characters, for seeing how parsing copes with long text.
+	 */
+	public String longSection(int number, int length) {
+		StringBuilder sb = new StringBuilder();
+		sb.append("<section name=\"").append(number).append("\">\n<p>\n  ");
+		int start = sb.length();
+		while (sb.length() - start < length)
+			appendSentence(sb);
+		sb.append("</p>\n</section>\n");
+		return sb.toString();
+	}
+
+	/**
+	 * Write every section of the book, plus a book.ini, into a directory.
+	 */
+	public void write(File dir) throws IOException {
+		if (!dir.isDirectory() && !dir.mkdirs())
+			throw new IOException("Couldn't create directory " + dir);
+		try (Writer out = new FileWriter(new File(dir, "book.ini"))) {
+			out.write("Codewords=Synthetic\n");
+		}
+		for (int s = 1; s <= sectionCount; s++) {
+			try (Writer out = new FileWriter(new File(dir, s + ".xml"))) {
+				out.write(section(s, 2 + random.nextInt(6)));
+			}
+		}
+	}
+
+	public static void main(String args[]) throws IOException {
+		if (args.length < 2) {
+			System.err.println("Usage: SyntheticBook <directory> <sections> [seed]");
+			return;
+		}
+		long seed = (args.length > 2 ? Long.parseLong(args[2]) : 1);
+		new SyntheticBook(seed, Integer.parseInt(args[1])).write(new File(args[0]));
+	}
+}